@@ -0,0 +1,26 @@
+#version 330
+
+layout (location = 0) in vec3 position;
+layout (location = 1) in vec2 texCoordinate;
+layout (location = 2) in vec3 normal;
+layout (location = 3) in mat4 modelMatrix; // one per instance, uses locations 3 to 6
+
+out vec2 outTexCoordinate;
+out vec4 outDiffuseColour;
+out vec3 outPosition;
+out vec3 outNormal;
+
+uniform vec4 diffuseColour;
+uniform mat4 viewMatrix;
+uniform mat4 projectionMatrix;
+
+void main()
+{
+    mat4 mvMatrix = viewMatrix * modelMatrix;
+    vec4 mvPosition = mvMatrix * vec4(position, 1.0);
+    gl_Position = projectionMatrix * mvPosition;
+    outNormal = normalize(mvMatrix * vec4(normal, 0.0)).xyz;
+    outPosition = mvPosition.xyz;
+    outTexCoordinate = texCoordinate;
+    outDiffuseColour = diffuseColour;
+}
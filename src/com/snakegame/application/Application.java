@@ -30,16 +30,23 @@
 
 package com.snakegame.application;
 
-import com.jme3.bullet.PhysicsSpace;
+import com.jme3.bullet.util.NativeLibrary;
 import com.jme3.system.NativeLibraryLoader;
 import com.snakegame.client.*;
 import com.snakegame.opengl.*;
+import com.snakegame.profiling.*;
 import com.snakegame.rules.*;
 import org.joml.*;
 import org.lwjgl.glfw.*;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.Math;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Random;
 import java.util.function.Function;
 
 /**
@@ -50,44 +57,105 @@ import java.util.function.Function;
 public class Application implements IAppStateContext {
     private static final int s_DesiredWindowWidth = 1280;
     private static final int s_DesiredWindowHeight = 960;
-    private static final float s_MsPerFrame = 0.01666666f;
+    private static final long s_NsPerTick = 1_000_000_000L / 60L;
+    // The app states' think() methods, and physics, are stepped at this fixed rate whatever the display's rate
+    public static final float s_SecondsPerTick = s_NsPerTick / 1_000_000_000.0f;
+    private static final long s_MaxFrameNs = 250_000_000L;
+    private static final int s_MaxTicksPerFrame = 5;
+    // A frame that takes longer than this is written to disk by the flight recorder, e.g. -Dsnakegame.hitchBudgetMs=50
+    private static final long s_HitchBudgetNs = Long.getLong("snakegame.hitchBudgetMs", 100L) * 1_000_000L;
+    // Streams JFR events within the process to show the allocation rate and GC pauses, e.g. -Dsnakegame.jfrMonitor=true
+    private static final boolean s_JfrMonitorEnabled = Boolean.getBoolean("snakegame.jfrMonitor");
+    // Loads the multithreaded Bullet build instead, e.g. -Dsnakegame.physicsMt=true. Its task scheduler uses OpenMP,
+    // so the number of worker threads is set by the OMP_NUM_THREADS environment variable before the game starts.
+    private static final boolean s_PhysicsMtEnabled = Boolean.getBoolean("snakegame.physicsMt");
+    // Set once the Bullet library is loaded, and shown by the metrics overlay and exporter
+    private static int s_NumBulletThreads = 1;
+    // Steps physics inline on the main thread instead of its own thread, e.g. -Dsnakegame.physicsThread=false
+    private static final boolean s_PhysicsThreadEnabled = Boolean.parseBoolean(System.getProperty("snakegame.physicsThread", "true"));
+    // Runs the game rules inline on the main thread instead of their own thread, e.g. -Dsnakegame.simulationThread=false
+    private static final boolean s_SimulationThreadEnabled = Boolean.parseBoolean(System.getProperty("snakegame.simulationThread", "true"));
+    private static final int s_MetricsOverlayKey = GLFW.GLFW_KEY_F3;
+    private static final Metrics.Counter[] s_MetricCounters = Metrics.Counter.values();
+    private static final Metrics.Gauge[] s_MetricGauges = Metrics.Gauge.values();
+    private static final String s_BenchmarkArgument = "--benchmark";
+    private static final String s_GLResourceReportFileName = "gl_resources.txt";
     private static final String s_WindowTitle = "159.261 Game Programming (Assignment 1)";
     private static final Vector4f s_White = new Vector4f(1.0f, 1.0f, 1.0f, 1.0f);
 
+    private final IClock m_Clock;
     private final TimeoutManager m_TimeoutManager;
     private final GLWindow m_GLWindow;
     private final IGameController m_Controller;
     private final IGameView m_View;
+    private final AssetPack m_AssetPack;
+    private final ResourceCache m_ResourceCache;
     private final DebugNumberFont m_DebugNumberFont;
-
-    private final PhysicsSpace m_PhysicsSpace;
+    private final FrameTimings m_FrameTimings;
+    private final GLPassTimer<RenderPass> m_PassTimer;
+    private final FlightRecorder m_FlightRecorder;
+    private final JfrMonitor m_JfrMonitor;
+    private final MetricsExporter m_MetricsExporter;
+
+    private final PhysicsWorker m_PhysicsWorker;
+    private final GLBackgroundLoader m_BackgroundLoader;
+    private final SimulationWorker m_SimulationWorker;
     private IAppState m_PendingState = null;
     private IAppState m_CurrentState = null;
     private long m_LastFrameCountTime = 0;
     private int m_FrameCount = 0;
     private int m_DebugFps;
     private long m_DebugFrameTime;
+    private int m_FrameTimeoutsFired;
+    private IAppState m_FrameNewState;
+    private boolean m_MetricsOverlayVisible = false;
+    private BenchmarkDriver m_Benchmark = null;
 
-    public Application() throws Exception {
-        File directory = new File("lib");
-        boolean success = NativeLibraryLoader.loadLibbulletjme(true, directory, "Release", "Dp");
-        if (!success) {
-            throw new RuntimeException("Failed to load the Bullet run-time library");
-        }
+    public Application(IClock clock, long randomSeed) throws Exception {
+        m_Clock = clock;
+
+        loadBulletLibrary();
 
         m_GLWindow = new GLWindow(s_DesiredWindowWidth, s_DesiredWindowHeight, s_WindowTitle);
         setCallbacks();
-
-        m_Controller = new GameController(this);
-        m_TimeoutManager = new TimeoutManager();
-        m_View = new GameView();
+        m_BackgroundLoader = new GLBackgroundLoader(m_GLWindow);
+
+        // The view registers itself with the physics worker when it's given this context
+        m_PhysicsWorker = new PhysicsWorker(s_NsPerTick);
+        // The controller registers itself with the simulation worker when it's created
+        m_SimulationWorker = new SimulationWorker(m_Clock);
+        m_Controller = new GameController(this, new Random(randomSeed));
+        m_TimeoutManager = new TimeoutManager(m_Clock);
+        m_AssetPack = new AssetPack(AssetPack.s_FileName, new AssetCache(AssetCache.s_DirectoryName));
+        m_View = new GameView(m_AssetPack, new Random(randomSeed + 1));
+        m_ResourceCache = new ResourceCache(m_View, m_AssetPack);
         m_View.setAppStateContext(this);
 
         m_DebugNumberFont = new DebugNumberFont(m_View.getTexturedProgram());
+        m_FrameTimings = new FrameTimings();
+        m_PassTimer = new GLPassTimer<>(RenderPass.class);
+        m_FlightRecorder = new FlightRecorder(s_HitchBudgetNs);
+        m_JfrMonitor = s_JfrMonitorEnabled ? new JfrMonitor() : null;
+        m_MetricsExporter = new MetricsExporter(MetricsExporter.s_FileName);
 
-        m_PhysicsSpace = new PhysicsSpace(PhysicsSpace.BroadphaseType.DBVT);
+        changeStateNow(new RunningMenuAppState(this), m_Clock.nowMs());
+    }
+
+    // Only the 64-bit Linux build of the multithreaded library is shipped within lib/
+    public static void loadBulletLibrary() {
+        File directory = new File("lib");
+        String flavor = getBulletLibraryFlavor();
+        boolean success = NativeLibraryLoader.loadLibbulletjme(true, directory, "Release", flavor);
+        if (!success) {
+            throw new RuntimeException("Failed to load the " + flavor + " Bullet run-time library");
+        }
+        if (s_PhysicsMtEnabled) {
+            s_NumBulletThreads = NativeLibrary.countThreads();
+        }
+    }
 
-        changeStateNow(new RunningMenuAppState(this), System.currentTimeMillis());
+    public static String getBulletLibraryFlavor() {
+        return s_PhysicsMtEnabled ? "DpMt" : "Dp";
     }
 
     @Override
@@ -100,16 +168,6 @@ public class Application implements IAppStateContext {
         m_PendingState = newState;
     }
 
-    @Override
-    public void forceThinkAndDraw() throws IOException {
-        long nowMs = System.currentTimeMillis();
-        m_CurrentState.think(nowMs);
-        m_GLWindow.beginDrawing();
-        m_CurrentState.draw3d(nowMs);
-        m_CurrentState.draw2d(nowMs);
-        m_GLWindow.endDrawing();
-    }
-
     @Override
     public float getWindowWidth() {
         return m_GLWindow.getActualWidth();
@@ -160,6 +218,21 @@ public class Application implements IAppStateContext {
         return m_View;
     }
 
+    @Override
+    public IClock getClock() {
+        return m_Clock;
+    }
+
+    @Override
+    public AssetPack getAssetPack() {
+        return m_AssetPack;
+    }
+
+    @Override
+    public ResourceCache getResourceCache() {
+        return m_ResourceCache;
+    }
+
     @Override
     public Matrix4f getPerspectiveMatrix() {
         return m_GLWindow.getPerspectiveMatrix();
@@ -171,37 +244,141 @@ public class Application implements IAppStateContext {
     }
 
     @Override
-    public PhysicsSpace getPhysicsSpace() {
-        return m_PhysicsSpace;
+    public PhysicsWorker getPhysicsWorker() {
+        return m_PhysicsWorker;
+    }
+
+    @Override
+    public GLBackgroundLoader getBackgroundLoader() {
+        return m_BackgroundLoader;
+    }
+
+    @Override
+    public SimulationWorker getSimulationWorker() {
+        return m_SimulationWorker;
+    }
+
+    @Override
+    public GLPassTimer<RenderPass> getPassTimer() {
+        return m_PassTimer;
+    }
+
+    // The benchmark replaces the player, see BenchmarkDriver. The clock must be the one this application was created with.
+    public void startBenchmark(ManualClock clock, long randomSeed) {
+        m_GLWindow.setSwapInterval(0);
+        m_Benchmark = new BenchmarkDriver(this, clock, randomSeed, m_FrameTimings);
     }
 
     public void freeNativeResources() {
+        m_SimulationWorker.stop();
+        m_PhysicsWorker.stop();
+        m_BackgroundLoader.stop();
+        m_MetricsExporter.close();
+        if (m_JfrMonitor != null) {
+            m_JfrMonitor.close();
+        }
+        m_PassTimer.freeNativeResources();
         m_DebugNumberFont.freeNativeResource();
+        m_ResourceCache.freeNativeResources();
         m_View.unloadResources();
         m_View.freeNativeResources();
+        m_AssetPack.freeNativeResources();
+        GLResourceRegistry.reportLeaks();
         m_GLWindow.freeNativeResources();
     }
 
     public void run() throws Exception {
         long nowMs, prevMs = 0;
+        long previousNs = m_Clock.nowNs();
+        long accumulatedNs = 0;
         stampFrameCountStart();
+        // The benchmark steps physics and the rules in lock step with its manual clock, so that its runs are repeatable
+        if (s_PhysicsThreadEnabled && m_Benchmark == null) {
+            m_PhysicsWorker.start();
+        }
+        if (s_SimulationThreadEnabled && m_Benchmark == null) {
+            m_SimulationWorker.start();
+        }
         while (!m_GLWindow.quitRequested()) {
-            m_PhysicsSpace.update(s_MsPerFrame, 0); // 16ms time step
+            if (m_Benchmark != null) {
+                m_Benchmark.beforeFrame(m_CurrentState, s_NsPerTick);
+                performPendingStateChange(m_Clock.nowMs());
+            }
+
+            long frameStartNs = System.nanoTime();
+            FrameEvent frameEvent = new FrameEvent();
+            frameEvent.begin();
+            m_FrameTimeoutsFired = 0;
+            m_FrameNewState = null;
+
+            long nowNs = m_Clock.nowNs();
+            // A long stall (e.g. the window being dragged) is dropped rather than simulated
+            accumulatedNs += Math.min(nowNs - previousNs, s_MaxFrameNs);
+            previousNs = nowNs;
 
-            nowMs = System.currentTimeMillis();
+            nowMs = m_Clock.nowMs();
             prevMs = updateFrameTime(nowMs, prevMs);
 
-            m_TimeoutManager.dispatchTimeouts(nowMs);
-            m_CurrentState.think(nowMs);
+            int numTicks = 0;
+            long phaseNs = System.nanoTime();
+            while (accumulatedNs >= s_NsPerTick && numTicks < s_MaxTicksPerFrame) {
+                // Each tick runs at its own point on the fixed step, which is the time the accumulator has simulated
+                // up to, so a catch-up tick fires the timeouts that fell due during its step rather than the frame's
+                long tickMs = (nowNs - accumulatedNs + s_NsPerTick) / 1_000_000L;
+                if (m_PhysicsWorker.isThreaded()) {
+                    m_PhysicsWorker.checkForError();
+                }
+                else {
+                    m_PhysicsWorker.step();
+                }
+                phaseNs = m_FrameTimings.end(FrameTimings.Phase.PHYSICS, phaseNs);
+                if (m_SimulationWorker.isThreaded()) {
+                    m_SimulationWorker.checkForError();
+                }
+                else {
+                    m_FrameTimeoutsFired += m_SimulationWorker.tick(tickMs);
+                }
+                m_FrameTimeoutsFired += m_TimeoutManager.dispatchTimeouts(tickMs);
+                dispatchGameEvents();
+                phaseNs = m_FrameTimings.end(FrameTimings.Phase.TIMEOUTS, phaseNs);
+                m_CurrentState.think(tickMs);
+                performPendingStateChange(tickMs);
+                phaseNs = m_FrameTimings.end(FrameTimings.Phase.THINK, phaseNs);
+                accumulatedNs -= s_NsPerTick;
+                ++numTicks;
+            }
+            if (numTicks == s_MaxTicksPerFrame) {
+                // The simulation can't keep up, so let it run slow instead of falling further behind
+                accumulatedNs = Math.min(accumulatedNs, s_NsPerTick);
+            }
 
+            m_PassTimer.beginFrame();
+            m_FrameTimings.recordGpu(m_PassTimer);
             m_GLWindow.beginDrawing();
             m_CurrentState.draw3d(nowMs);
+            phaseNs = m_FrameTimings.end(FrameTimings.Phase.DRAW_3D, phaseNs);
             m_CurrentState.draw2d(nowMs);
             drawDebugInfo();
-            m_GLWindow.endDrawing();
+            phaseNs = m_FrameTimings.end(FrameTimings.Phase.DRAW_2D, phaseNs);
+            // The events are polled either side of the swap, which can block until the vertical blank. Key presses made
+            // while drawing reach the simulation thread before the swap, rather than a whole frame later.
+            m_GLWindow.pollEvents();
+            phaseNs = m_FrameTimings.end(FrameTimings.Phase.POLL, phaseNs);
+            m_GLWindow.swapBuffers();
+            phaseNs = m_FrameTimings.end(FrameTimings.Phase.SWAP, phaseNs);
+            m_GLWindow.pollEvents();
+            m_FrameTimings.end(FrameTimings.Phase.POLL, phaseNs);
 
             performPendingStateChange(nowMs);
             updateFps(nowMs);
+
+            long frameEndNs = System.nanoTime();
+            m_FlightRecorder.recordFrame(frameStartNs, frameEndNs, m_FrameTimings, m_FrameTimeoutsFired, m_FrameNewState);
+            if (m_Benchmark != null) {
+                m_Benchmark.afterFrame(frameEndNs - frameStartNs);
+            }
+            commitFrameEvent(frameEvent, numTicks);
+            m_FrameTimings.endFrame();
         }
     }
 
@@ -209,6 +386,10 @@ public class Application implements IAppStateContext {
         m_GLWindow.setKeyCallback(new GLFWKeyCallback() {
             @Override
             public void invoke(long window, int key, int scancode, int action, int mods) {
+                if (key == s_MetricsOverlayKey && action == GLFW.GLFW_PRESS) {
+                    m_MetricsOverlayVisible = !m_MetricsOverlayVisible;
+                    return;
+                }
                 if (m_CurrentState != null) {
                     try {
                         m_CurrentState.processKey(window, key, scancode, action, mods);
@@ -250,10 +431,70 @@ public class Application implements IAppStateContext {
     private void drawDebugInfo() {
         m_DebugNumberFont.drawNumber(m_GLWindow.getOrthographicMatrix(), m_DebugFps, 0.0f, 55.0f, 1.0f, s_White);
         m_DebugNumberFont.drawNumber(m_GLWindow.getOrthographicMatrix(), m_DebugFrameTime, 0.0f, 40.0f, 1.0f, s_White);
+        m_FrameTimings.draw(m_DebugNumberFont, m_GLWindow.getOrthographicMatrix(), 70.0f, s_White);
+        if (m_JfrMonitor != null) {
+            // KB allocated per second, and the longest GC pause of the last second in microseconds
+            m_DebugNumberFont.drawNumber(m_GLWindow.getOrthographicMatrix(), m_JfrMonitor.getAllocationRate() / 1024, 100.0f, 55.0f, 1.0f, s_White);
+            m_DebugNumberFont.drawNumber(m_GLWindow.getOrthographicMatrix(), m_JfrMonitor.getMaxGcPauseNs() / 1000, 100.0f, 40.0f, 1.0f, s_White);
+        }
+        if (m_MetricsOverlayVisible) {
+            drawMetrics();
+        }
+    }
+
+    // One row per counter (per second) then per gauge, in the order of their enums from the top down
+    private void drawMetrics() {
+        float x = m_GLWindow.getActualWidth() - 12.0f * DebugNumberFont.s_FrameWidth;
+        float y = 10.0f;
+        for (int i = s_MetricGauges.length - 1; i >= 0; --i) {
+            m_DebugNumberFont.drawNumber(m_GLWindow.getOrthographicMatrix(), Metrics.get(s_MetricGauges[i]), x, y, 1.0f, s_White);
+            y += 15.0f;
+        }
+        for (int i = s_MetricCounters.length - 1; i >= 0; --i) {
+            m_DebugNumberFont.drawNumber(m_GLWindow.getOrthographicMatrix(), Metrics.getPerSecond(s_MetricCounters[i]), x, y, 1.0f, s_White);
+            y += 15.0f;
+        }
+    }
+
+    private void commitFrameEvent(FrameEvent event, int numTicks) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.m_NumTicks = numTicks;
+            event.m_TimeoutsFired = m_FrameTimeoutsFired;
+            event.m_PhysicsNs = m_FrameTimings.getFrameNs(FrameTimings.Phase.PHYSICS);
+            event.m_TimeoutsNs = m_FrameTimings.getFrameNs(FrameTimings.Phase.TIMEOUTS);
+            event.m_ThinkNs = m_FrameTimings.getFrameNs(FrameTimings.Phase.THINK);
+            event.m_Draw3dNs = m_FrameTimings.getFrameNs(FrameTimings.Phase.DRAW_3D);
+            event.m_Draw2dNs = m_FrameTimings.getFrameNs(FrameTimings.Phase.DRAW_2D);
+            event.m_SwapNs = m_FrameTimings.getFrameNs(FrameTimings.Phase.SWAP);
+            event.m_PollNs = m_FrameTimings.getFrameNs(FrameTimings.Phase.POLL);
+            event.commit();
+        }
+    }
+
+    public void writeFrameTimings() {
+        try {
+            // The run is over, so pausing the rules costs nothing, and it makes their input latency safe to read
+            m_SimulationWorker.pause();
+            m_FrameTimings.write(FrameTimings.s_FileName, m_Controller.getInputLatency());
+        }
+        catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    // Written before the resources are freed, so it shows what was resident at the end of the run
+    public void writeGLResourceReport() {
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(Paths.get(s_GLResourceReportFileName), StandardCharsets.US_ASCII))) {
+            GLResourceRegistry.writeReport(writer);
+        }
+        catch (IOException e) {
+            e.printStackTrace();
+        }
     }
 
     private void stampFrameCountStart() {
-        m_LastFrameCountTime = System.currentTimeMillis();
+        m_LastFrameCountTime = m_Clock.nowMs();
         m_FrameCount = 0;
     }
 
@@ -265,9 +506,56 @@ public class Application implements IAppStateContext {
     private void updateFps(long nowMs) {
         ++m_FrameCount;
         if (nowMs - m_LastFrameCountTime >= 1000) {
+            Metrics.endInterval((nowMs - m_LastFrameCountTime) / 1000.0);
+            sampleGauges();
+            m_MetricsExporter.exportIfDue(nowMs);
+
             m_LastFrameCountTime = nowMs;
             m_DebugFps = m_FrameCount;
             m_FrameCount = 0;
+            m_FrameTimings.endInterval();
+        }
+    }
+
+    private void sampleGauges() {
+        Metrics.set(Metrics.Gauge.RIGID_BODIES, m_PhysicsWorker.getNumRigidBodies());
+        Metrics.set(Metrics.Gauge.ACTIVE_TIMEOUTS, m_TimeoutManager.getNumActiveTimeouts() + m_SimulationWorker.getNumActiveTimeouts());
+        Metrics.set(Metrics.Gauge.GL_OBJECTS, GLResourceRegistry.getNumLiveObjects());
+        Metrics.set(Metrics.Gauge.GL_BYTES, GLResourceRegistry.getLiveBytes());
+        Metrics.set(Metrics.Gauge.BULLET_THREADS, s_NumBulletThreads);
+        // Calling getRenderSnapshot() here would hand the view's snapshot back to the simulation thread
+        RulesSnapshot snapshot = m_View.getRulesSnapshot();
+        Snake[] snakes = snapshot == null ? null : snapshot.getSnakes();
+        Metrics.set(Metrics.Gauge.SNAKE_1_LENGTH, snakes != null && snakes.length > 0 ? snakes[0].getBodyParts().size() : 0);
+        Metrics.set(Metrics.Gauge.SNAKE_2_LENGTH, snakes != null && snakes.length > 1 ? snakes[1].getBodyParts().size() : 0);
+    }
+
+    // The rules raise these on the simulation thread, and the view and the app states react to them here
+    private void dispatchGameEvents() {
+        GameEventQueue events = m_Controller.getEvents();
+        while (events.next()) {
+            switch (events.getType()) {
+                case SCORE_CHANGED:
+                    m_View.startScoreAnimation(events.getPlayer(), events.isIncreased());
+                    break;
+                case LIVES_CHANGED:
+                    m_View.startRemainingSnakesAnimation(events.getPlayer(), events.isIncreased());
+                    break;
+                case POWER_UP_TAKEN:
+                    m_View.startPowerUpAnimation(events.getPlayer(), events.getPowerUpType());
+                    break;
+                case SNAKE_DIED:
+                    if (events.getPlayer() == GameEventQueue.s_BothPlayers) {
+                        changeState(new SnakeDyingAppState(this));
+                    }
+                    else {
+                        changeState(new SnakeDyingAppState(this, events.getPlayer()));
+                    }
+                    break;
+                case LEVEL_COMPLETE:
+                    changeState(new LevelCompleteAppState(this));
+                    break;
+            }
         }
     }
 
@@ -279,19 +567,46 @@ public class Application implements IAppStateContext {
     }
 
     private void changeStateNow(IAppState newState, long nowMs) throws Exception {
+        StateChangeEvent event = new StateChangeEvent();
+        event.begin();
+        long startNs = System.nanoTime();
+        IAppState oldState = m_CurrentState;
+
         if (m_CurrentState != null) {
             m_CurrentState.end(nowMs);
         }
         m_CurrentState = newState;
+        m_FrameNewState = newState;
         if (m_CurrentState != null) {
             m_CurrentState.begin(nowMs);
         }
+        if (m_Benchmark != null) {
+            m_Benchmark.stateChanged(newState, System.nanoTime() - startNs);
+        }
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.m_FromState = oldState == null ? null : oldState.getClass().getSimpleName();
+            event.m_ToState = newState == null ? null : newState.getClass().getSimpleName();
+            event.commit();
+        }
     }
 
+    // Pass --benchmark, and optionally a random seed, to play the scripted benchmark session instead
     public static void main(String[] args) {
+        boolean benchmark = args.length > 0 && args[0].equals(s_BenchmarkArgument);
+        long randomSeed = benchmark ? (args.length > 1 ? Long.parseLong(args[1]) : 1L) : System.nanoTime();
+
         Application app = null;
         try {
-            app = new Application();
+            if (benchmark) {
+                ManualClock clock = new ManualClock();
+                app = new Application(clock, randomSeed);
+                app.startBenchmark(clock, randomSeed);
+            }
+            else {
+                app = new Application(new MonotonicClock(), randomSeed);
+            }
             app.run();
         }
         catch (Exception e) {
@@ -299,6 +614,8 @@ public class Application implements IAppStateContext {
         }
         finally {
             if (app != null) {
+                app.writeFrameTimings();
+                app.writeGLResourceReport();
                 app.freeNativeResources(); // ensure release of OpenGL resources
             }
         }
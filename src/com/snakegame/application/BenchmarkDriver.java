@@ -0,0 +1,307 @@
+//
+// Snake Game
+// https://en.wikipedia.org/wiki/Snake_(video_game_genre)
+//
+// Based on the 1976 arcade game Blockade, and the 1991 game Nibbles
+// https://en.wikipedia.org/wiki/Blockade_(video_game)
+// https://en.wikipedia.org/wiki/Nibbles_(video_game)
+//
+// This implementation is Copyright (c) 2021, Damian Coventry
+// All rights reserved
+// Written for Massey University course 159.261 Game Programming (Assignment 1)
+//
+
+package com.snakegame.application;
+
+import com.snakegame.client.ManualClock;
+import com.snakegame.client.RenderPass;
+import com.snakegame.client.TimingHistogram;
+import com.snakegame.opengl.GLResourceRegistry;
+import com.snakegame.rules.*;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.LinkedHashMap;
+
+import static org.lwjgl.glfw.GLFW.*;
+
+/**
+ * This class plays a scripted session in place of the player, for comparing builds and hardware. The game clock is a
+ * ManualClock that advances by exactly one tick per frame, and the random number generators are seeded, so every run
+ * with the same seed plays the same game however fast the machine is. The script starts a single player game, which
+ * an autopilot plays through every level it can reach, crashing once on purpose to cover the snake dying. Then it
+ * starts a two player game, completes the first level and quits from the pause menu. Keys are passed straight to the
+ * current state's processKey(), as though GLFW had called back. The report is written as JSON.
+ * */
+public class BenchmarkDriver {
+    public static final String s_FileName = "benchmark_report.json";
+    // A safety net, in case the autopilot ends up going round in circles. This is 30 minutes of game time.
+    private static final long s_MaxFrames = 30L * 60L * 60L;
+    // Frames to wait on the menu before pressing a key, so the menu is drawn too
+    private static final int s_MenuFrames = 60;
+    private static final int s_CrashOnLevel = 1;
+    private static final IGameController.Mode[] s_Sessions = { IGameController.Mode.SINGLE_PLAYER, IGameController.Mode.TWO_PLAYERS };
+    private static final int[][] s_PlayerKeys = {
+            { GLFW_KEY_A, GLFW_KEY_D, GLFW_KEY_W, GLFW_KEY_S },
+            { GLFW_KEY_LEFT, GLFW_KEY_RIGHT, GLFW_KEY_UP, GLFW_KEY_DOWN }
+    };
+    private static final Snake.Direction[] s_Directions = Snake.Direction.values();
+
+    private final IAppStateContext m_Context;
+    private final ManualClock m_Clock;
+    private final long m_Seed;
+    private final FrameTimings m_FrameTimings;
+    private final MemoryMXBean m_MemoryMXBean;
+    private final TimingHistogram m_FrameTimes;
+    private final LinkedHashMap<String, TimingHistogram> m_StateChangeTimes;
+    private final long m_StartNs;
+
+    private long m_NumFrames;
+    private int m_NumStateFrames;
+    private int m_SessionIndex;
+    private boolean m_Finished;
+    private boolean m_Crashed;
+    private int m_MaxLevelReached;
+    private int m_NumDeaths;
+    private int m_NumLevelsCompleted;
+    private long m_PeakHeapBytes;
+    private long m_LoadingStartNs;
+    private final TimingHistogram m_LoadingTimes;
+
+    public BenchmarkDriver(IAppStateContext context, ManualClock clock, long seed, FrameTimings frameTimings) {
+        m_Context = context;
+        m_Clock = clock;
+        m_Seed = seed;
+        m_FrameTimings = frameTimings;
+        m_MemoryMXBean = ManagementFactory.getMemoryMXBean();
+        m_FrameTimes = new TimingHistogram();
+        m_StateChangeTimes = new LinkedHashMap<>();
+        m_LoadingTimes = new TimingHistogram();
+        m_StartNs = System.nanoTime();
+        m_NumFrames = 0;
+        m_NumStateFrames = 0;
+        m_SessionIndex = 0;
+        m_Finished = false;
+        m_Crashed = false;
+        m_MaxLevelReached = 0;
+        m_NumDeaths = 0;
+        m_NumLevelsCompleted = 0;
+        m_PeakHeapBytes = 0;
+        m_LoadingStartNs = 0;
+    }
+
+    // Moves the game clock on by one tick, so Application.run() steps the simulation exactly once this frame
+    public void beforeFrame(IAppState currentState, long nsPerTick) throws IOException {
+        m_Clock.advanceNs(nsPerTick);
+        ++m_NumStateFrames;
+
+        if (currentState instanceof RunningMenuAppState) {
+            if (m_NumStateFrames == s_MenuFrames) {
+                if (m_SessionIndex == s_Sessions.length) {
+                    finish();
+                    return;
+                }
+                pressKey(currentState, s_Sessions[m_SessionIndex++] == IGameController.Mode.SINGLE_PLAYER ? GLFW_KEY_1 : GLFW_KEY_2);
+            }
+        }
+        else if (currentState instanceof PlayingGameAppState) {
+            playLevel(currentState);
+        }
+        else if (currentState instanceof GamePausedAppState) {
+            pressKey(currentState, GLFW_KEY_Q);
+        }
+
+        if (m_NumFrames >= s_MaxFrames) {
+            finish();
+        }
+    }
+
+    public void afterFrame(long frameNs) {
+        ++m_NumFrames;
+        m_FrameTimes.record(frameNs);
+        m_PeakHeapBytes = Math.max(m_PeakHeapBytes, m_MemoryMXBean.getHeapMemoryUsage().getUsed());
+    }
+
+    public void stateChanged(IAppState newState, long changeNs) {
+        m_NumStateFrames = 0;
+        String name = newState == null ? "null" : newState.getClass().getSimpleName();
+        m_StateChangeTimes.computeIfAbsent(name, (key) -> new TimingHistogram()).record(changeNs);
+
+        if (newState instanceof GameLoadingAppState) {
+            m_LoadingStartNs = System.nanoTime();
+        }
+        else if (m_LoadingStartNs != 0) {
+            m_LoadingTimes.record(System.nanoTime() - m_LoadingStartNs);
+            m_LoadingStartNs = 0;
+        }
+
+        if (newState instanceof SnakeDyingAppState) {
+            ++m_NumDeaths;
+            if (m_Context.getController().getCurrentLevel() == s_CrashOnLevel) {
+                m_Crashed = true;
+            }
+        }
+        else if (newState instanceof LevelCompleteAppState) {
+            ++m_NumLevelsCompleted;
+        }
+        else if (newState instanceof GetReadyAppState) {
+            m_MaxLevelReached = Math.max(m_MaxLevelReached, m_Context.getController().getCurrentLevel() + 1);
+        }
+    }
+
+    private void finish() throws IOException {
+        if (m_Finished) {
+            return;
+        }
+        m_Finished = true;
+        writeReport(s_FileName);
+        m_Context.exitApplication();
+    }
+
+    private void playLevel(IAppState currentState) throws IOException {
+        IGameController controller = m_Context.getController();
+        if (controller.getMode() == IGameController.Mode.TWO_PLAYERS && controller.getCurrentLevel() > 0) {
+            // The two player session only covers the first level, then quits through the pause menu
+            pressKey(currentState, GLFW_KEY_ESCAPE);
+            return;
+        }
+        if (!m_Crashed && controller.getCurrentLevel() == s_CrashOnLevel) {
+            // Keep going straight ahead until something's hit, so that the snake dies and breaks into giblets
+            return;
+        }
+
+        Snake[] snakes = controller.getSnakes();
+        for (int i = 0; i < snakes.length; ++i) {
+            Snake.Direction direction = chooseDirection(controller.getGameField(), snakes, snakes[i]);
+            if (direction != null && direction != snakes[i].getDirection()) {
+                pressKey(currentState, s_PlayerKeys[i][direction.ordinal()]);
+            }
+        }
+    }
+
+    // A breadth first search from the snake's head to the number, around the walls, the snakes and the power ups.
+    // Returns the direction of the first step, or else any direction that doesn't hit something straight away.
+    private static Snake.Direction chooseDirection(GameField gameField, Snake[] snakes, Snake snake) {
+        boolean[] blocked = new boolean[GameField.TOTAL_CELLS];
+        for (int z = 0; z < GameField.HEIGHT; ++z) {
+            for (int x = 0; x < GameField.WIDTH; ++x) {
+                GameField.CellType cellType = gameField.getCellType(x, z);
+                blocked[z * GameField.WIDTH + x] = cellType == GameField.CellType.WALL || cellType == GameField.CellType.POWER_UP;
+            }
+        }
+        for (var other : snakes) {
+            for (var bodyPart : other.getBodyParts()) {
+                if (isInside(bodyPart.m_Location.m_X, bodyPart.m_Location.m_Z)) {
+                    blocked[bodyPart.m_Location.m_Z * GameField.WIDTH + bodyPart.m_Location.m_X] = true;
+                }
+            }
+        }
+
+        Vector2i head = snake.getBodyParts().getFirst().m_Location;
+        Snake.Direction[] firstSteps = new Snake.Direction[GameField.TOTAL_CELLS];
+        boolean[] visited = new boolean[GameField.TOTAL_CELLS];
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        Snake.Direction fallback = null;
+        for (var direction : s_Directions) {
+            int x = head.m_X + getDeltaX(direction);
+            int z = head.m_Z + getDeltaZ(direction);
+            if (isInside(x, z) && !blocked[z * GameField.WIDTH + x]) {
+                int cell = z * GameField.WIDTH + x;
+                visited[cell] = true;
+                firstSteps[cell] = direction;
+                queue.add(cell);
+                if (fallback == null || direction == snake.getDirection()) {
+                    fallback = direction;
+                }
+            }
+        }
+
+        while (!queue.isEmpty()) {
+            int cell = queue.poll();
+            int cellX = cell % GameField.WIDTH;
+            int cellZ = cell / GameField.WIDTH;
+            if (gameField.getCellType(cellX, cellZ) == GameField.CellType.NUMBER) {
+                return firstSteps[cell];
+            }
+            for (var direction : s_Directions) {
+                int x = cellX + getDeltaX(direction);
+                int z = cellZ + getDeltaZ(direction);
+                if (isInside(x, z) && !blocked[z * GameField.WIDTH + x] && !visited[z * GameField.WIDTH + x]) {
+                    visited[z * GameField.WIDTH + x] = true;
+                    firstSteps[z * GameField.WIDTH + x] = firstSteps[cell];
+                    queue.add(z * GameField.WIDTH + x);
+                }
+            }
+        }
+        return fallback;
+    }
+
+    private static boolean isInside(int x, int z) {
+        return x >= 0 && x < GameField.WIDTH && z >= 0 && z < GameField.HEIGHT;
+    }
+
+    // These match Snake's movement, where Up is towards +Z
+    private static int getDeltaX(Snake.Direction direction) {
+        return direction == Snake.Direction.Left ? -1 : direction == Snake.Direction.Right ? 1 : 0;
+    }
+
+    private static int getDeltaZ(Snake.Direction direction) {
+        return direction == Snake.Direction.Up ? 1 : direction == Snake.Direction.Down ? -1 : 0;
+    }
+
+    private static void pressKey(IAppState state, int key) throws IOException {
+        state.processKey(0, key, 0, GLFW_PRESS, 0);
+        state.processKey(0, key, 0, GLFW_RELEASE, 0);
+    }
+
+    private void writeReport(String fileName) throws IOException {
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(Paths.get(fileName), StandardCharsets.US_ASCII))) {
+            writer.println("{");
+            writer.printf("  \"seed\": %d,\n", m_Seed);
+            writer.printf("  \"frames\": %d,\n", m_NumFrames);
+            writer.printf("  \"wallSeconds\": %.3f,\n", (System.nanoTime() - m_StartNs) / 1e9);
+            writer.printf("  \"levelsReached\": %d,\n", m_MaxLevelReached);
+            writer.printf("  \"levelsCompleted\": %d,\n", m_NumLevelsCompleted);
+            writer.printf("  \"deaths\": %d,\n", m_NumDeaths);
+            writer.printf("  \"peakHeapBytes\": %d,\n", m_PeakHeapBytes);
+            writer.printf("  \"peakGLBytes\": %d,\n", GLResourceRegistry.getPeakBytes());
+            writer.printf("  \"frameTime\": %s,\n", toJson(m_FrameTimes));
+            writer.printf("  \"loadingTime\": %s,\n", toJson(m_LoadingTimes));
+
+            writer.println("  \"phases\": {");
+            FrameTimings.Phase[] phases = FrameTimings.Phase.values();
+            for (int i = 0; i < phases.length; ++i) {
+                writer.printf("    \"%s\": %s%s\n", phases[i], toJson(m_FrameTimings.getTotal(phases[i])), i < phases.length - 1 ? "," : "");
+            }
+            writer.println("  },");
+
+            writer.println("  \"gpuPasses\": {");
+            RenderPass[] passes = RenderPass.values();
+            for (int i = 0; i < passes.length; ++i) {
+                writer.printf("    \"%s\": %s%s\n", passes[i], toJson(m_FrameTimings.getGpuTotal(passes[i])), i < passes.length - 1 ? "," : "");
+            }
+            writer.println("  },");
+
+            // The time taken by the previous state's end() and the new state's begin()
+            writer.println("  \"stateChanges\": {");
+            int i = 0;
+            for (var entry : m_StateChangeTimes.entrySet()) {
+                writer.printf("    \"%s\": %s%s\n", entry.getKey(), toJson(entry.getValue()), ++i < m_StateChangeTimes.size() ? "," : "");
+            }
+            writer.println("  }");
+            writer.println("}");
+        }
+    }
+
+    private static String toJson(TimingHistogram histogram) {
+        return String.format("{ \"count\": %d, \"p50Us\": %.1f, \"p90Us\": %.1f, \"p99Us\": %.1f, \"p999Us\": %.1f, \"maxUs\": %.1f }",
+                histogram.getCount(), histogram.getPercentileNs(50.0) / 1000.0, histogram.getPercentileNs(90.0) / 1000.0,
+                histogram.getPercentileNs(99.0) / 1000.0, histogram.getPercentileNs(99.9) / 1000.0, histogram.getMaxNs() / 1000.0);
+    }
+}
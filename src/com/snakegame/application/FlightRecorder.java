@@ -0,0 +1,174 @@
+//
+// Snake Game
+// https://en.wikipedia.org/wiki/Snake_(video_game_genre)
+//
+// Based on the 1976 arcade game Blockade, and the 1991 game Nibbles
+// https://en.wikipedia.org/wiki/Blockade_(video_game)
+// https://en.wikipedia.org/wiki/Nibbles_(video_game)
+//
+// This implementation is Copyright (c) 2021, Damian Coventry
+// All rights reserved
+// Written for Massey University course 159.261 Game Programming (Assignment 1)
+//
+
+package com.snakegame.application;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * This class keeps a record of the most recent frames within a ring buffer: each phase's timing, the number of
+ * timeouts fired, any state change, the bytes allocated by the main thread and the number of garbage collections.
+ * When a frame goes over the budget, the frames around it are written to disk in the Chrome trace event format, which
+ * chrome://tracing and https://ui.perfetto.dev can open. The ring buffer is allocated once, so recording a frame
+ * doesn't allocate. Writing a dump is itself slow, so the dumps are rate limited and capped, otherwise a sustained
+ * slow period would write a dump for every window and each one would cause the next hitch.
+ * */
+public class FlightRecorder {
+    public static final String s_DirectoryName = "hitches";
+    private static final int s_NumFrames = 256;
+    // The dump is delayed until these frames have been recorded too, so it shows what happened after the hitch
+    private static final int s_NumFramesAfterHitch = 32;
+    private static final long s_MinNsBetweenDumps = 10_000_000_000L;
+    private static final int s_MaxDumps = 16;
+    private static final FrameTimings.Phase[] s_Phases = FrameTimings.Phase.values();
+
+    private final long m_BudgetNs;
+    private final com.sun.management.ThreadMXBean m_ThreadMXBean;
+    private final List<GarbageCollectorMXBean> m_GarbageCollectors;
+
+    // Indexed by frame % s_NumFrames
+    private final long[] m_StartNs;
+    private final long[] m_DurationNs;
+    private final long[] m_PhaseNs;
+    private final int[] m_TimeoutsFired;
+    private final long[] m_AllocatedBytes;
+    private final long[] m_GcCounts;
+    private final Class<?>[] m_NewStates;
+
+    private long m_NumFrames;
+    private long m_DumpAtFrame;
+    private long m_HitchFrame;
+    private long m_LastDumpNs;
+    private int m_NumDumps;
+    private long m_LastAllocatedBytes;
+    private long m_LastGcCount;
+
+    public FlightRecorder(long budgetNs) {
+        m_BudgetNs = budgetNs;
+        m_ThreadMXBean = (com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean();
+        m_GarbageCollectors = ManagementFactory.getGarbageCollectorMXBeans();
+
+        m_StartNs = new long[s_NumFrames];
+        m_DurationNs = new long[s_NumFrames];
+        m_PhaseNs = new long[s_NumFrames * s_Phases.length];
+        m_TimeoutsFired = new int[s_NumFrames];
+        m_AllocatedBytes = new long[s_NumFrames];
+        m_GcCounts = new long[s_NumFrames];
+        m_NewStates = new Class<?>[s_NumFrames];
+
+        m_NumFrames = 0;
+        m_DumpAtFrame = -1;
+        m_HitchFrame = -1;
+        m_LastDumpNs = 0;
+        m_NumDumps = 0;
+        m_LastAllocatedBytes = m_ThreadMXBean.getCurrentThreadAllocatedBytes();
+        m_LastGcCount = getGcCount();
+    }
+
+    // Call this before FrameTimings.endFrame(), which clears the frame's phase timings
+    public void recordFrame(long startNs, long endNs, FrameTimings frameTimings, int timeoutsFired, IAppState newState) {
+        int i = (int)(m_NumFrames % s_NumFrames);
+        m_StartNs[i] = startNs;
+        m_DurationNs[i] = endNs - startNs;
+        for (int j = 0; j < s_Phases.length; ++j) {
+            m_PhaseNs[i * s_Phases.length + j] = frameTimings.getFrameNs(s_Phases[j]);
+        }
+        m_TimeoutsFired[i] = timeoutsFired;
+        m_NewStates[i] = newState == null ? null : newState.getClass();
+
+        long allocatedBytes = m_ThreadMXBean.getCurrentThreadAllocatedBytes();
+        m_AllocatedBytes[i] = allocatedBytes - m_LastAllocatedBytes;
+        m_LastAllocatedBytes = allocatedBytes;
+        long gcCount = getGcCount();
+        m_GcCounts[i] = gcCount - m_LastGcCount;
+        m_LastGcCount = gcCount;
+
+        // A hitch while a dump is pending is included within that dump
+        if (m_DurationNs[i] > m_BudgetNs && m_DumpAtFrame == -1 && isDumpAllowed(startNs)) {
+            m_HitchFrame = m_NumFrames;
+            m_DumpAtFrame = m_NumFrames + s_NumFramesAfterHitch;
+        }
+        if (m_NumFrames == m_DumpAtFrame) {
+            try {
+                dump();
+            }
+            catch (IOException e) {
+                e.printStackTrace();
+            }
+            m_DumpAtFrame = -1;
+            m_LastDumpNs = endNs;
+            ++m_NumDumps;
+        }
+        ++m_NumFrames;
+    }
+
+    private boolean isDumpAllowed(long nowNs) {
+        return m_NumDumps < s_MaxDumps && (m_NumDumps == 0 || nowNs - m_LastDumpNs >= s_MinNsBetweenDumps);
+    }
+
+    private long getGcCount() {
+        long count = 0;
+        for (int i = 0; i < m_GarbageCollectors.size(); ++i) {
+            count += Math.max(0, m_GarbageCollectors.get(i).getCollectionCount());
+        }
+        return count;
+    }
+
+    private void dump() throws IOException {
+        Path directory = Paths.get(s_DirectoryName);
+        Files.createDirectories(directory);
+        Path file = directory.resolve("hitch_" + m_HitchFrame + ".json");
+
+        long firstFrame = Math.max(0, m_NumFrames - s_NumFrames + 1);
+        long originNs = m_StartNs[(int)(firstFrame % s_NumFrames)];
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(file, StandardCharsets.US_ASCII))) {
+            writer.print("{\"traceEvents\":[\n");
+            for (long frame = firstFrame; frame <= m_NumFrames; ++frame) {
+                int i = (int)(frame % s_NumFrames);
+                long startUs = (m_StartNs[i] - originNs) / 1000;
+                writer.printf("{\"name\":\"frame %d\",\"ph\":\"X\",\"pid\":1,\"tid\":1,\"ts\":%d,\"dur\":%d," +
+                        "\"args\":{\"timeoutsFired\":%d,\"allocatedBytes\":%d,\"gcCount\":%d,\"hitch\":%b}},\n",
+                        frame, startUs, m_DurationNs[i] / 1000, m_TimeoutsFired[i], m_AllocatedBytes[i], m_GcCounts[i],
+                        frame == m_HitchFrame);
+
+                // The per tick phases are interleaved within a frame, so each phase is shown as one block of its total
+                long phaseStartUs = startUs;
+                for (int j = 0; j < s_Phases.length; ++j) {
+                    long phaseUs = m_PhaseNs[i * s_Phases.length + j] / 1000;
+                    writer.printf("{\"name\":\"%s\",\"ph\":\"X\",\"pid\":1,\"tid\":2,\"ts\":%d,\"dur\":%d},\n",
+                            s_Phases[j], phaseStartUs, phaseUs);
+                    phaseStartUs += phaseUs;
+                }
+
+                if (m_NewStates[i] != null) {
+                    writer.printf("{\"name\":\"%s\",\"ph\":\"i\",\"s\":\"g\",\"pid\":1,\"tid\":1,\"ts\":%d},\n",
+                            m_NewStates[i].getSimpleName(), startUs);
+                }
+                if (m_GcCounts[i] > 0) {
+                    writer.printf("{\"name\":\"GC\",\"ph\":\"i\",\"s\":\"g\",\"pid\":1,\"tid\":1,\"ts\":%d},\n", startUs);
+                }
+            }
+            writer.printf("{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":1,\"tid\":1,\"args\":{\"name\":\"frames\"}},\n");
+            writer.printf("{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":1,\"tid\":2,\"args\":{\"name\":\"phases\"}}\n");
+            writer.print("]}\n");
+        }
+    }
+}
@@ -0,0 +1,168 @@
+//
+// Snake Game
+// https://en.wikipedia.org/wiki/Snake_(video_game_genre)
+//
+// Based on the 1976 arcade game Blockade, and the 1991 game Nibbles
+// https://en.wikipedia.org/wiki/Blockade_(video_game)
+// https://en.wikipedia.org/wiki/Nibbles_(video_game)
+//
+// This implementation is Copyright (c) 2021, Damian Coventry
+// All rights reserved
+// Written for Massey University course 159.261 Game Programming (Assignment 1)
+//
+
+package com.snakegame.application;
+
+import com.snakegame.client.DebugNumberFont;
+import com.snakegame.client.RenderPass;
+import com.snakegame.client.TimingHistogram;
+import com.snakegame.opengl.GLPassTimer;
+import org.joml.Matrix4f;
+import org.joml.Vector4f;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+/**
+ * This class times each phase of Application.run() with System.nanoTime(). The phases that run once per tick are
+ * summed over the frame, so every histogram holds one duration per frame. There's a histogram per phase for the
+ * whole run, which is written to a file on exit, and another per phase that's restarted each second for the debug
+ * overlay. The GPU time of each render pass is kept the same way, alongside the CPU phases.
+ * */
+public class FrameTimings {
+    public static final String s_FileName = "frame_timings.txt";
+    private static final float s_RowHeight = 15.0f;
+    private static final float s_ColumnWidth = 8.0f * DebugNumberFont.s_FrameWidth;
+
+    public enum Phase { PHYSICS, TIMEOUTS, THINK, DRAW_3D, DRAW_2D, SWAP, POLL }
+    private static final Phase[] s_Phases = Phase.values();
+    private static final RenderPass[] s_RenderPasses = RenderPass.values();
+
+    private final TimingHistogram[] m_Totals;
+    private final TimingHistogram[] m_Intervals;
+    private final long[] m_FrameNs;
+    private final long[] m_DisplayNs;
+    private final TimingHistogram[] m_GpuTotals;
+    private final TimingHistogram[] m_GpuIntervals;
+    private final long[] m_GpuDisplayNs;
+
+    public FrameTimings() {
+        m_Totals = new TimingHistogram[s_Phases.length];
+        m_Intervals = new TimingHistogram[s_Phases.length];
+        for (int i = 0; i < s_Phases.length; ++i) {
+            m_Totals[i] = new TimingHistogram();
+            m_Intervals[i] = new TimingHistogram();
+        }
+        m_FrameNs = new long[s_Phases.length];
+        // p50, p99 and max for each phase
+        m_DisplayNs = new long[s_Phases.length * 3];
+
+        m_GpuTotals = new TimingHistogram[s_RenderPasses.length];
+        m_GpuIntervals = new TimingHistogram[s_RenderPasses.length];
+        for (int i = 0; i < s_RenderPasses.length; ++i) {
+            m_GpuTotals[i] = new TimingHistogram();
+            m_GpuIntervals[i] = new TimingHistogram();
+        }
+        m_GpuDisplayNs = new long[s_RenderPasses.length * 3];
+    }
+
+    // Returns the time to pass to the next call of end()
+    public long end(Phase phase, long startNs) {
+        long nowNs = System.nanoTime();
+        m_FrameNs[phase.ordinal()] += nowNs - startNs;
+        return nowNs;
+    }
+
+    public long getFrameNs(Phase phase) {
+        return m_FrameNs[phase.ordinal()];
+    }
+
+    public TimingHistogram getTotal(Phase phase) {
+        return m_Totals[phase.ordinal()];
+    }
+
+    public TimingHistogram getGpuTotal(RenderPass pass) {
+        return m_GpuTotals[pass.ordinal()];
+    }
+
+    public void endFrame() {
+        for (int i = 0; i < s_Phases.length; ++i) {
+            m_Totals[i].record(m_FrameNs[i]);
+            m_Intervals[i].record(m_FrameNs[i]);
+            m_FrameNs[i] = 0;
+        }
+    }
+
+    // Call this after GLPassTimer.beginFrame(), which collects the results of a frame that's already been drawn
+    public void recordGpu(GLPassTimer<RenderPass> passTimer) {
+        for (int i = 0; i < s_RenderPasses.length; ++i) {
+            if (passTimer.isResultAvailable(i)) {
+                m_GpuTotals[i].record(passTimer.getResultNs(i));
+                m_GpuIntervals[i].record(passTimer.getResultNs(i));
+            }
+        }
+    }
+
+    // Called once a second, so the overlay shows recent frames rather than the whole run
+    public void endInterval() {
+        endInterval(m_Intervals, m_DisplayNs);
+        endInterval(m_GpuIntervals, m_GpuDisplayNs);
+    }
+
+    // One row per phase, in the order of the Phase enum from the top down, with columns p50, p99 and max in
+    // microseconds. The render passes' GPU times are to the right, in the order of the RenderPass enum.
+    public void draw(DebugNumberFont font, Matrix4f projectionMatrix, float y, Vector4f colour) {
+        draw(font, projectionMatrix, m_DisplayNs, s_Phases.length, 0.0f, y, colour);
+        draw(font, projectionMatrix, m_GpuDisplayNs, s_RenderPasses.length, 4.0f * s_ColumnWidth, y, colour);
+    }
+
+    // The input latency is the time from each key press until the snake turned, which the rules record
+    public void write(String fileName, TimingHistogram inputLatency) throws IOException {
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(Paths.get(fileName), StandardCharsets.US_ASCII))) {
+            write(writer, "phase", s_Phases, m_Totals);
+            writer.println();
+            write(writer, "gpu pass", s_RenderPasses, m_GpuTotals);
+            writer.println();
+            writeHeading(writer, "input", "turns");
+            writeRow(writer, "latency", inputLatency);
+        }
+    }
+
+    private static void write(PrintWriter writer, String heading, Enum<?>[] rowNames, TimingHistogram[] histograms) {
+        writeHeading(writer, heading, "frames");
+        for (int i = 0; i < rowNames.length; ++i) {
+            writeRow(writer, rowNames[i].toString(), histograms[i]);
+        }
+    }
+
+    private static void writeHeading(PrintWriter writer, String heading, String countHeading) {
+        writer.printf("%-10s %10s %12s %12s %12s\n", heading, countHeading, "p50 (us)", "p99 (us)", "max (us)");
+    }
+
+    private static void writeRow(PrintWriter writer, String rowName, TimingHistogram histogram) {
+        writer.printf("%-10s %10d %12.1f %12.1f %12.1f\n", rowName, histogram.getCount(),
+                histogram.getPercentileNs(50.0) / 1000.0, histogram.getPercentileNs(99.0) / 1000.0,
+                histogram.getMaxNs() / 1000.0);
+    }
+
+    private static void endInterval(TimingHistogram[] intervals, long[] displayNs) {
+        for (int i = 0; i < intervals.length; ++i) {
+            displayNs[i * 3] = intervals[i].getPercentileNs(50.0);
+            displayNs[i * 3 + 1] = intervals[i].getPercentileNs(99.0);
+            displayNs[i * 3 + 2] = intervals[i].getMaxNs();
+            intervals[i].reset();
+        }
+    }
+
+    private static void draw(DebugNumberFont font, Matrix4f projectionMatrix, long[] displayNs, int numRows, float x, float y, Vector4f colour) {
+        for (int i = numRows - 1; i >= 0; --i) {
+            for (int j = 0; j < 3; ++j) {
+                font.drawNumber(projectionMatrix, displayNs[i * 3 + j] / 1000, x + j * s_ColumnWidth, y, 1.0f, colour);
+            }
+            y += s_RowHeight;
+        }
+    }
+}
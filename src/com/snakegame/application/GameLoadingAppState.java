@@ -20,7 +20,6 @@ import org.joml.Matrix4f;
 import org.joml.Vector3f;
 import org.joml.Vector4f;
 
-import javax.imageio.ImageIO;
 import java.io.*;
 
 import static org.lwjgl.opengl.GL11.*;
@@ -33,10 +32,17 @@ public class GameLoadingAppState implements IAppState {
     private static final float s_LightShininess = 16.0f;
     private static final float s_AppleXPosition = 0.65f;
     private static final float s_AppleZPosition = 1.0f;
-    private static final float s_MsPerFrame = 0.01666666f;
     private static final float s_AppleMinOnPlaneY = -0.5f;
     private static final float s_AppleMaxOnPlaneY = 0.75f;
     private static final Vector4f s_Yellow = new Vector4f(1.0f, 1.0f, 0.0f, 1.0f);
+    private static final String[] s_OverlayImageFileNames = {
+            "images/GetReady1.png", "images/GetReady2.png", "images/GetReady3.png",
+            "images/Player1Died.png", "images/Player2Died.png", "images/BothSnakesDied.png",
+            "images/LevelComplete.png", "images/GamePaused.png",
+            "images/GameOver.png", "images/GameOverPlayer1Lost.png", "images/GameOverPlayer2Lost.png",
+            "images/GameOverBothPlayersLost.png", "images/GameWonByPlayer1.png", "images/GameWonByPlayer2.png",
+            "images/GameWonByBothPlayers.png",
+    };
 
     private final IAppStateContext m_Context;
     private final IGameView m_View;
@@ -59,7 +65,9 @@ public class GameLoadingAppState implements IAppState {
 
     private float m_FadeUpAlpha;
     private boolean m_FadingUp;
-    private long m_LoadPercentage;
+    // Written by the background loader's thread
+    private volatile long m_LoadPercentage;
+    private GLBackgroundLoader.Ticket m_LoadTicket;
 
     public GameLoadingAppState(IAppStateContext context, IGameController.Mode mode) {
         m_Context = context;
@@ -77,17 +85,11 @@ public class GameLoadingAppState implements IAppState {
 
     @Override
     public void begin(long nowMs) throws Exception {
-        m_AppleDisplayMesh = m_View.loadDisplayMesh("meshes/AppleHiResDisplayMesh.obj");
-
-        GLTexture backgroundTexture = new GLTexture(ImageIO.read(new File("images/MainMenuBackground.png")));
-        m_BackgroundPolyhedron = m_View.createPolyhedron(0, 0, backgroundTexture.getWidth(), backgroundTexture.getHeight(), backgroundTexture);
-
-        GLTexture loadingTexture = new GLTexture(ImageIO.read(new File("images/Loading.png")));
-        m_LoadingPolyhedron = m_View.createPolyhedron(
-                m_Context.getWindowWidth() / 2.0f, m_Context.getWindowHeight() / 2.0f,
-                loadingTexture.getWidth(), loadingTexture.getHeight(), loadingTexture);
-
-        m_NumberFont = new ToolbarNumberFont(m_View.getTexturedProgram());
+        ResourceCache resourceCache = m_Context.getResourceCache();
+        m_AppleDisplayMesh = resourceCache.getDisplayMesh("meshes/AppleHiResDisplayMesh.obj");
+        m_BackgroundPolyhedron = resourceCache.getPolyhedron("images/MainMenuBackground.png");
+        m_LoadingPolyhedron = resourceCache.getPolyhedron("images/Loading.png");
+        m_NumberFont = resourceCache.getToolbarNumberFont();
 
         m_View.resetSnakeGiblets();
         m_View.activateArrowMouseCursor();
@@ -100,14 +102,12 @@ public class GameLoadingAppState implements IAppState {
         m_FadingUp = true;
         m_FadeUpAlpha = 0.0f;
         m_LoadPercentage = 0;
+        m_LoadTicket = null;
     }
 
     @Override
     public void end(long nowMs) {
-        m_AppleDisplayMesh.freeNativeResources();
-        m_BackgroundPolyhedron.freeNativeResources();
-        m_LoadingPolyhedron.freeNativeResources();
-        m_NumberFont.freeNativeResource();
+        // No work to do
     }
 
     @Override
@@ -133,13 +133,17 @@ public class GameLoadingAppState implements IAppState {
     @Override
     public void think(long nowMs) throws IOException {
         if (m_FadingUp) {
-            m_FadeUpAlpha += s_MsPerFrame;
+            m_FadeUpAlpha += Application.s_SecondsPerTick;
             if (m_FadeUpAlpha >= 1.0f) {
                 m_FadeUpAlpha = 1.0f;
                 m_FadingUp = false;
                 startResourceLoad();
             }
         }
+        else if (m_LoadTicket != null && m_LoadTicket.poll()) {
+            finishResourceLoad();
+        }
+        m_PointOnPlane.y = s_AppleMinOnPlaneY + ((s_AppleMaxOnPlaneY - s_AppleMinOnPlaneY) * (m_LoadPercentage / 100.0f));
     }
 
     @Override
@@ -156,12 +160,12 @@ public class GameLoadingAppState implements IAppState {
     @Override
     public void draw2d(long nowMs) throws IOException {
         if (!m_FadingUp) {
-            m_ModelMatrix.identity();
-            m_View.drawOrthographicPolyhedron(m_LoadingPolyhedron, m_ModelMatrix);
-
             float x = m_Context.getWindowWidth() / 2.0f;
             float y = m_Context.getWindowHeight() / 2.0f;
 
+            m_ModelMatrix.identity().translate(x, y, 0.0f);
+            m_View.drawOrthographicPolyhedron(m_LoadingPolyhedron, m_ModelMatrix);
+
             x += m_LoadingPolyhedron.getPiece(0).getDiffuseTexture().getWidth();
             y += (ToolbarNumberFont.s_FrameHeight / 2.0f) - 10.0f;
 
@@ -170,30 +174,32 @@ public class GameLoadingAppState implements IAppState {
         }
     }
 
+    // The resources are loaded on the background loader's thread, while this state keeps drawing the progress
     private void startResourceLoad() {
         m_LoadPercentage = 0;
-        m_Context.addTimeout(50, (callCount) -> {
-            try {
-                m_View.loadResources((current, max) -> {
-                    try {
-                        m_LoadPercentage = current * 100 / max;
-                        m_PointOnPlane.y = s_AppleMinOnPlaneY + ((s_AppleMaxOnPlaneY - s_AppleMinOnPlaneY) * (m_LoadPercentage / 100.0f));
-                        m_Context.forceThinkAndDraw();
-                    } catch (IOException e) {
-                        e.printStackTrace();
-                    }
-                });
-
-                m_Context.getController().startNewGame(System.currentTimeMillis(), m_Mode);
-                m_Context.changeState(new GetReadyAppState(m_Context, true));
-            } catch (Exception e) {
-                e.printStackTrace();
+        m_LoadTicket = m_Context.getBackgroundLoader().submit(() -> {
+            m_View.loadResources((current, max) -> m_LoadPercentage = current * 100 / max);
+
+            // Load the in-game overlays now so that the state changes during the game don't load anything. The main
+            // thread doesn't use the resource cache again until the load has finished.
+            ResourceCache resourceCache = m_Context.getResourceCache();
+            for (String fileName : s_OverlayImageFileNames) {
+                resourceCache.getCenteredPolyhedron(fileName);
             }
-
-            return TimeoutManager.CallbackResult.REMOVE_THIS_CALLBACK;
         });
     }
 
+    // A failed load is rethrown to the main loop, as it would have been had the resources been loaded on this thread
+    private void finishResourceLoad() throws IOException {
+        GLBackgroundLoader.Ticket ticket = m_LoadTicket;
+        m_LoadTicket = null;
+        if (ticket.getError() != null) {
+            throw new RuntimeException("Unable to load the game's resources", ticket.getError());
+        }
+        m_Context.getController().startNewGame(m_Context.getClock().nowMs(), m_Mode);
+        m_Context.changeState(new GetReadyAppState(m_Context, true));
+    }
+
     private void drawBackground() {
         glPolygonMode(GL_FRONT_AND_BACK, GL_FILL);
         m_ModelMatrix.identity();
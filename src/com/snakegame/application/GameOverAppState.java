@@ -18,7 +18,6 @@ import com.snakegame.opengl.*;
 import com.snakegame.rules.IGameController;
 import org.joml.Matrix4f;
 
-import javax.imageio.ImageIO;
 import java.io.*;
 
 public class GameOverAppState implements IAppState {
@@ -47,21 +46,21 @@ public class GameOverAppState implements IAppState {
 
     @Override
     public void begin(long nowMs) throws IOException {
-        GLTexture gameOverTexture;
+        String fileName;
         if (m_Context.getController().getMode() == IGameController.Mode.TWO_PLAYERS) {
             if (m_BothSnakes) {
-                gameOverTexture = new GLTexture(ImageIO.read(new File("images/GameOverBothPlayersLost.png")));
+                fileName = "images/GameOverBothPlayersLost.png";
             } else if (m_Player == 0) {
-                gameOverTexture = new GLTexture(ImageIO.read(new File("images/GameOverPlayer1Lost.png")));
+                fileName = "images/GameOverPlayer1Lost.png";
             } else {
-                gameOverTexture = new GLTexture(ImageIO.read(new File("images/GameOverPlayer2Lost.png")));
+                fileName = "images/GameOverPlayer2Lost.png";
             }
         }
         else {
-            gameOverTexture = new GLTexture(ImageIO.read(new File("images/GameOver.png")));
+            fileName = "images/GameOver.png";
         }
 
-        m_Polyhedron = m_View.createCenteredPolyhedron(gameOverTexture.getWidth(), gameOverTexture.getHeight(), gameOverTexture);
+        m_Polyhedron = m_Context.getResourceCache().getCenteredPolyhedron(fileName);
 
         m_Context.addTimeout(3500, (callCount) -> {
             m_Context.changeState(new RunningMenuAppState(m_Context));
@@ -71,7 +70,7 @@ public class GameOverAppState implements IAppState {
 
     @Override
     public void end(long nowMs) {
-        m_Polyhedron.freeNativeResources();
+        // No work to do
     }
 
     @Override
@@ -17,7 +17,6 @@ import com.snakegame.client.IGameView;
 import com.snakegame.opengl.*;
 import org.joml.Matrix4f;
 
-import javax.imageio.ImageIO;
 import java.io.*;
 
 import static org.lwjgl.glfw.GLFW.*;
@@ -36,13 +35,12 @@ public class GamePausedAppState implements IAppState {
 
     @Override
     public void begin(long nowMs) throws IOException {
-        GLTexture gamePausedTexture = new GLTexture(ImageIO.read(new File("images/GamePaused.png")));
-        m_Polyhedron = m_View.createCenteredPolyhedron(gamePausedTexture.getWidth(), gamePausedTexture.getHeight(), gamePausedTexture);
+        m_Polyhedron = m_Context.getResourceCache().getCenteredPolyhedron("images/GamePaused.png");
     }
 
     @Override
     public void end(long nowMs) {
-        m_Polyhedron.freeNativeResources();
+        // No work to do
     }
 
     @Override
@@ -18,7 +18,6 @@ import com.snakegame.opengl.*;
 import com.snakegame.rules.IGameController;
 import org.joml.Matrix4f;
 
-import javax.imageio.ImageIO;
 import java.io.*;
 
 public class GameWonAppState implements IAppState {
@@ -47,31 +46,31 @@ public class GameWonAppState implements IAppState {
 
     @Override
     public void begin(long nowMs) throws IOException {
-        GLTexture gameWonTexture;
+        String fileName;
         if (m_Context.getController().getMode() == IGameController.Mode.TWO_PLAYERS) {
             if (m_BothSnakes) {
                 long p0 = m_Context.getController().getSnakes()[0].getPoints();
                 long p1 = m_Context.getController().getSnakes()[1].getPoints();
                 if (p0 > p1) {
-                    gameWonTexture = new GLTexture(ImageIO.read(new File("images/GameWonByPlayer1.png")));
+                    fileName = "images/GameWonByPlayer1.png";
                 }
                 else if (p1 > p0) {
-                    gameWonTexture = new GLTexture(ImageIO.read(new File("images/GameWonByPlayer2.png")));
+                    fileName = "images/GameWonByPlayer2.png";
                 }
                 else {
-                    gameWonTexture = new GLTexture(ImageIO.read(new File("images/GameWonByBothPlayers.png")));
+                    fileName = "images/GameWonByBothPlayers.png";
                 }
             } else if (m_Player == 0) {
-                gameWonTexture = new GLTexture(ImageIO.read(new File("images/GameWonByPlayer1.png")));
+                fileName = "images/GameWonByPlayer1.png";
             } else {
-                gameWonTexture = new GLTexture(ImageIO.read(new File("images/GameWonByPlayer2.png")));
+                fileName = "images/GameWonByPlayer2.png";
             }
         }
         else {
-            gameWonTexture = new GLTexture(ImageIO.read(new File("images/GameWonByPlayer1.png")));
+            fileName = "images/GameWonByPlayer1.png";
         }
 
-        m_Polyhedron = m_View.createCenteredPolyhedron(gameWonTexture.getWidth(), gameWonTexture.getHeight(), gameWonTexture);
+        m_Polyhedron = m_Context.getResourceCache().getCenteredPolyhedron(fileName);
 
         m_Context.addTimeout(3500, (callCount) -> {
             m_Context.changeState(new RunningMenuAppState(m_Context));
@@ -81,7 +80,7 @@ public class GameWonAppState implements IAppState {
 
     @Override
     public void end(long nowMs) {
-        m_Polyhedron.freeNativeResources();
+        // No work to do
     }
 
     @Override
@@ -17,7 +17,6 @@ import com.snakegame.client.*;
 import com.snakegame.opengl.*;
 import org.joml.Matrix4f;
 
-import javax.imageio.ImageIO;
 import java.io.*;
 
 public class GetReadyAppState implements IAppState {
@@ -37,14 +36,11 @@ public class GetReadyAppState implements IAppState {
 
     @Override
     public void begin(long nowMs) throws IOException {
+        ResourceCache resourceCache = m_Context.getResourceCache();
         m_GetReadyPolyhedra = new GLStaticPolyhedronVxTc[3];
-
-        GLTexture getReadyTexture = new GLTexture(ImageIO.read(new File("images/GetReady3.png")));
-        m_GetReadyPolyhedra[0] = m_View.createCenteredPolyhedron(getReadyTexture.getWidth(), getReadyTexture.getHeight(), getReadyTexture);
-        getReadyTexture = new GLTexture(ImageIO.read(new File("images/GetReady2.png")));
-        m_GetReadyPolyhedra[1] = m_View.createCenteredPolyhedron(getReadyTexture.getWidth(), getReadyTexture.getHeight(), getReadyTexture);
-        getReadyTexture = new GLTexture(ImageIO.read(new File("images/GetReady1.png")));
-        m_GetReadyPolyhedra[2] = m_View.createCenteredPolyhedron(getReadyTexture.getWidth(), getReadyTexture.getHeight(), getReadyTexture);
+        m_GetReadyPolyhedra[0] = resourceCache.getCenteredPolyhedron("images/GetReady3.png");
+        m_GetReadyPolyhedra[1] = resourceCache.getCenteredPolyhedron("images/GetReady2.png");
+        m_GetReadyPolyhedra[2] = resourceCache.getCenteredPolyhedron("images/GetReady1.png");
 
         if (m_ResetState) {
             m_Context.getController().resetAfterSnakeDeath(nowMs);
@@ -63,9 +59,7 @@ public class GetReadyAppState implements IAppState {
 
     @Override
     public void end(long nowMs) {
-        for (var Polyhedron : m_GetReadyPolyhedra) {
-            Polyhedron.freeNativeResources();
-        }
+        // No work to do
     }
 
     @Override
@@ -13,20 +13,19 @@
 
 package com.snakegame.application;
 
-import com.jme3.bullet.PhysicsSpace;
 import com.snakegame.client.*;
+import com.snakegame.opengl.GLBackgroundLoader;
+import com.snakegame.opengl.GLPassTimer;
 import com.snakegame.opengl.GLWindow;
 import com.snakegame.rules.IGameController;
 import org.joml.Matrix4f;
 
-import java.io.IOException;
 import java.util.function.Function;
 
 // https://en.wikipedia.org/wiki/State_pattern
 public interface IAppStateContext {
     void exitApplication();
     void changeState(IAppState newState);
-    void forceThinkAndDraw() throws IOException;
 
     float getWindowWidth();
     float getWindowHeight();
@@ -41,7 +40,13 @@ public interface IAppStateContext {
 
     IGameController getController();
     IGameView getView();
+    IClock getClock();
+    AssetPack getAssetPack();
+    ResourceCache getResourceCache();
     Matrix4f getPerspectiveMatrix();
     Matrix4f getOrthographicMatrix();
-    PhysicsSpace getPhysicsSpace();
+    PhysicsWorker getPhysicsWorker();
+    GLBackgroundLoader getBackgroundLoader();
+    SimulationWorker getSimulationWorker();
+    GLPassTimer<RenderPass> getPassTimer();
 }
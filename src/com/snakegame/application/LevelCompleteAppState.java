@@ -18,7 +18,6 @@ import com.snakegame.opengl.*;
 import com.snakegame.rules.IGameController;
 import org.joml.Matrix4f;
 
-import javax.imageio.ImageIO;
 import java.io.*;
 
 public class LevelCompleteAppState implements IAppState {
@@ -37,8 +36,7 @@ public class LevelCompleteAppState implements IAppState {
 
     @Override
     public void begin(long nowMs) throws IOException {
-        GLTexture levelCompleteTexture = new GLTexture(ImageIO.read(new File("images/LevelComplete.png")));
-        m_Polyhedron = m_View.createCenteredPolyhedron(levelCompleteTexture.getWidth(), levelCompleteTexture.getHeight(), levelCompleteTexture);
+        m_Polyhedron = m_Context.getResourceCache().getCenteredPolyhedron("images/LevelComplete.png");
 
         m_Context.addTimeout(2000, (callCount) -> {
             if (m_Controller.isLastLevel()) {
@@ -58,7 +56,7 @@ public class LevelCompleteAppState implements IAppState {
 
     @Override
     public void end(long nowMs) {
-        m_Polyhedron.freeNativeResources();
+        // No work to do
     }
 
     @Override
@@ -0,0 +1,73 @@
+//
+// Snake Game
+// https://en.wikipedia.org/wiki/Snake_(video_game_genre)
+//
+// Based on the 1976 arcade game Blockade, and the 1991 game Nibbles
+// https://en.wikipedia.org/wiki/Blockade_(video_game)
+// https://en.wikipedia.org/wiki/Nibbles_(video_game)
+//
+// This implementation is Copyright (c) 2021, Damian Coventry
+// All rights reserved
+// Written for Massey University course 159.261 Game Programming (Assignment 1)
+//
+
+package com.snakegame.application;
+
+import com.snakegame.profiling.Metrics;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * This class appends a row of the engine's metrics to a CSV file every few seconds, for dashboards to pick up. The
+ * counters are written as per second rates, and the gauges as their last sampled values.
+ * */
+public class MetricsExporter {
+    public static final String s_FileName = "metrics.csv";
+    private static final long s_ExportIntervalMs = 5000;
+    private static final Metrics.Counter[] s_Counters = Metrics.Counter.values();
+    private static final Metrics.Gauge[] s_Gauges = Metrics.Gauge.values();
+
+    private final PrintWriter m_Writer;
+    private long m_LastExportMs;
+
+    public MetricsExporter(String fileName) throws IOException {
+        File file = new File(fileName);
+        boolean writeHeader = !file.isFile() || file.length() == 0;
+        m_Writer = new PrintWriter(new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file, true), StandardCharsets.US_ASCII)));
+        if (writeHeader) {
+            m_Writer.print("time_ms");
+            for (var counter : s_Counters) {
+                m_Writer.print("," + counter.name().toLowerCase() + "_per_second");
+            }
+            for (var gauge : s_Gauges) {
+                m_Writer.print("," + gauge.name().toLowerCase());
+            }
+            m_Writer.println();
+        }
+        m_LastExportMs = 0;
+    }
+
+    public void close() {
+        m_Writer.close();
+    }
+
+    // The time is wall clock time, so the rows can be lined up with other logs
+    public void exportIfDue(long nowMs) {
+        if (nowMs - m_LastExportMs < s_ExportIntervalMs) {
+            return;
+        }
+        m_LastExportMs = nowMs;
+        m_Writer.print(System.currentTimeMillis());
+        for (var counter : s_Counters) {
+            m_Writer.print(',');
+            m_Writer.print(Metrics.getPerSecond(counter));
+        }
+        for (var gauge : s_Gauges) {
+            m_Writer.print(',');
+            m_Writer.print(Metrics.get(gauge));
+        }
+        m_Writer.println();
+        m_Writer.flush();
+    }
+}
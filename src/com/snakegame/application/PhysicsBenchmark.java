@@ -0,0 +1,147 @@
+//
+// Snake Game
+// https://en.wikipedia.org/wiki/Snake_(video_game_genre)
+//
+// Based on the 1976 arcade game Blockade, and the 1991 game Nibbles
+// https://en.wikipedia.org/wiki/Blockade_(video_game)
+// https://en.wikipedia.org/wiki/Nibbles_(video_game)
+//
+// This implementation is Copyright (c) 2021, Damian Coventry
+// All rights reserved
+// Written for Massey University course 159.261 Game Programming (Assignment 1)
+//
+
+package com.snakegame.application;
+
+import com.jme3.bullet.PhysicsSpace;
+import com.jme3.bullet.collision.shapes.BoxCollisionShape;
+import com.jme3.bullet.objects.PhysicsRigidBody;
+import com.jme3.bullet.util.NativeLibrary;
+import com.jme3.math.Quaternion;
+import com.jme3.math.Vector3f;
+import com.snakegame.client.TimingHistogram;
+import com.snakegame.rules.GameField;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+/**
+ * This class times PhysicsSpace.update() while a large number of giblets settle, without opening a window. Both
+ * snakes of a two player game are laid out across the game field and die at the same moment, and each body part is
+ * broken into giblets the same way that GameView.spawnSnakeGiblets() does it. The giblets aren't pooled, so the step
+ * time reflects the full count. Run it once with the single threaded build and once with -Dsnakegame.physicsMt=true
+ * to compare them; each run appends a row to the report.
+ * */
+public class PhysicsBenchmark {
+    public static final String s_FileName = "physics_benchmark.txt";
+    private static final float s_GibletHalfSize = 0.25f;
+    private static final float s_ObjectYPosition = 0.5f;
+    private static final int s_DefaultSnakeLength = 250;
+    private static final int s_DefaultNumTicks = 600;
+
+    private final Random m_Rng;
+    private final PhysicsSpace m_PhysicsSpace;
+    private final BoxCollisionShape m_GibletShape;
+    private int m_NumGiblets;
+
+    public PhysicsBenchmark(long randomSeed) {
+        m_Rng = new Random(randomSeed);
+        m_PhysicsSpace = new PhysicsSpace(PhysicsSpace.BroadphaseType.DBVT);
+        m_GibletShape = new BoxCollisionShape(s_GibletHalfSize, s_GibletHalfSize, s_GibletHalfSize);
+        m_NumGiblets = 0;
+
+        // The floor is larger than the game field, so that giblets can't fall off the edge and never come to rest
+        PhysicsRigidBody floor = new PhysicsRigidBody(new BoxCollisionShape(GameField.WIDTH, 0.5f, GameField.HEIGHT), 0.0f);
+        floor.setPhysicsLocation(new Vector3f(0.0f, -0.5f, 0.0f));
+        m_PhysicsSpace.addCollisionObject(floor);
+    }
+
+    public void freeNativeResources() {
+        m_PhysicsSpace.destroy();
+    }
+
+    // Each snake fills rows of the field from its own half, snaking back and forth like a player would
+    public void spawnSnake(int id, int length) {
+        int firstRow = id * (GameField.HEIGHT / 2);
+        for (int bodyPart = 1; bodyPart < length; ++bodyPart) { // the head isn't broken into giblets
+            int row = firstRow + (bodyPart / GameField.WIDTH) % (GameField.HEIGHT / 2);
+            int column = bodyPart % GameField.WIDTH;
+            if ((row & 1) == 1) {
+                column = GameField.WIDTH - 1 - column;
+            }
+            spawnGiblets(column - GameField.WIDTH / 2.0f + 0.5f, row - GameField.HEIGHT / 2.0f + 0.5f);
+        }
+    }
+
+    private void spawnGiblets(float x, float z) {
+        Quaternion rotation = new Quaternion();
+        int numGiblets = 2 + m_Rng.nextInt(3); // random int in the range (2, 4)
+        for (int giblet = 0; giblet < numGiblets; ++giblet) {
+            float xOffset = m_Rng.nextFloat() * 0.5f - 0.25f; // random float in the range (-0.25, 0.25)
+            float zOffset = m_Rng.nextFloat() * 0.5f - 0.25f; // random float in the range (-0.25, 0.25)
+
+            int numRows = 2 + m_Rng.nextInt(2); // random int in the range (2, 3)
+            for (int row = 0; row < numRows; ++row) {
+                PhysicsRigidBody rigidBody = new PhysicsRigidBody(m_GibletShape, 1.0f);
+                rigidBody.setPhysicsLocation(new Vector3f(x + xOffset, (row + 1) * s_ObjectYPosition, z + zOffset));
+                rigidBody.setPhysicsRotation(rotation.fromAngles(0.0f, (float)Math.toRadians(m_Rng.nextFloat() * 360.0f),
+                        (float)Math.toRadians(m_Rng.nextFloat() * 360.0f)));
+                m_PhysicsSpace.addCollisionObject(rigidBody);
+                ++m_NumGiblets;
+            }
+        }
+    }
+
+    public TimingHistogram run(int numTicks) {
+        TimingHistogram histogram = new TimingHistogram();
+        for (int tick = 0; tick < numTicks; ++tick) {
+            long startNs = System.nanoTime();
+            m_PhysicsSpace.update(Application.s_SecondsPerTick, 0);
+            histogram.record(System.nanoTime() - startNs);
+        }
+        return histogram;
+    }
+
+    private void write(String fileName, int numTicks, TimingHistogram histogram) throws IOException {
+        boolean writeHeading = !Files.exists(Paths.get(fileName));
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(Paths.get(fileName), StandardCharsets.US_ASCII,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND))) {
+            if (writeHeading) {
+                writer.printf("%-6s %8s %8s %8s %12s %12s %12s\n", "build", "threads", "giblets", "ticks",
+                        "p50 (us)", "p99 (us)", "max (us)");
+            }
+            writer.printf("%-6s %8d %8d %8d %12.1f %12.1f %12.1f\n", Application.getBulletLibraryFlavor(),
+                    NativeLibrary.countThreads(), m_NumGiblets, numTicks, histogram.getPercentileNs(50.0) / 1000.0,
+                    histogram.getPercentileNs(99.0) / 1000.0, histogram.getMaxNs() / 1000.0);
+        }
+    }
+
+    // The optional arguments are the length of each snake and the number of ticks to step
+    public static void main(String[] args) {
+        int snakeLength = args.length > 0 ? Integer.parseInt(args[0]) : s_DefaultSnakeLength;
+        int numTicks = args.length > 1 ? Integer.parseInt(args[1]) : s_DefaultNumTicks;
+
+        PhysicsBenchmark benchmark = null;
+        try {
+            Application.loadBulletLibrary();
+            benchmark = new PhysicsBenchmark(1L);
+            benchmark.spawnSnake(0, snakeLength);
+            benchmark.spawnSnake(1, snakeLength);
+            TimingHistogram histogram = benchmark.run(numTicks);
+            benchmark.write(s_FileName, numTicks, histogram);
+        }
+        catch (Exception e) {
+            e.printStackTrace();
+        }
+        finally {
+            if (benchmark != null) {
+                benchmark.freeNativeResources();
+            }
+        }
+    }
+}
@@ -0,0 +1,157 @@
+//
+// Snake Game
+// https://en.wikipedia.org/wiki/Snake_(video_game_genre)
+//
+// Based on the 1976 arcade game Blockade, and the 1991 game Nibbles
+// https://en.wikipedia.org/wiki/Blockade_(video_game)
+// https://en.wikipedia.org/wiki/Nibbles_(video_game)
+//
+// This implementation is Copyright (c) 2021, Damian Coventry
+// All rights reserved
+// Written for Massey University course 159.261 Game Programming (Assignment 1)
+//
+
+package com.snakegame.application;
+
+import com.jme3.bullet.PhysicsSpace;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * This class owns the physics space and steps it at a fixed rate on its own thread, so that a slow physics step never
+ * holds up drawing. Bullet isn't thread safe, so other threads never touch the physics space directly. They submit
+ * commands instead, which are run on the physics thread before the next step, and they read the results from the
+ * snapshots that the step listeners publish. When the thread isn't started, e.g. for the deterministic benchmark,
+ * the owner calls step() itself once per tick.
+ * */
+public class PhysicsWorker {
+    public interface IStepListener {
+        // Called on the physics thread after each step, nowMs is the simulated time
+        void physicsStepped(PhysicsSpace physicsSpace, long nowMs);
+    }
+
+    // A physics thread that falls further behind than this skips ahead rather than trying to catch up
+    private static final int s_MaxTicksBehind = 5;
+
+    private final PhysicsSpace m_PhysicsSpace;
+    private final long m_NsPerTick;
+    private final float m_SecondsPerTick;
+    private final ConcurrentLinkedQueue<Consumer<PhysicsSpace>> m_Commands;
+    private final CopyOnWriteArrayList<IStepListener> m_StepListeners;
+    private Thread m_Thread;
+    private volatile boolean m_StopRequested;
+    private volatile int m_NumRigidBodies;
+    private volatile long m_LastStepNs;
+    // Set when a step or a command on the physics thread threw, which ends the thread
+    private volatile Exception m_Error;
+    private long m_NumTicks;
+
+    public PhysicsWorker(long nsPerTick) {
+        m_PhysicsSpace = new PhysicsSpace(PhysicsSpace.BroadphaseType.DBVT);
+        m_NsPerTick = nsPerTick;
+        m_SecondsPerTick = nsPerTick / 1_000_000_000.0f;
+        m_Commands = new ConcurrentLinkedQueue<>();
+        m_StepListeners = new CopyOnWriteArrayList<>();
+        m_Thread = null;
+        m_StopRequested = false;
+        m_NumRigidBodies = 0;
+        m_LastStepNs = 0;
+        m_NumTicks = 0;
+        m_Error = null;
+    }
+
+    public void start() {
+        if (m_Thread != null) {
+            throw new RuntimeException("The physics thread has already been started");
+        }
+        m_Thread = new Thread(this::runThread, "Physics");
+        m_Thread.setDaemon(true);
+        m_Thread.start();
+    }
+
+    public void stop() {
+        if (m_Thread == null) {
+            return;
+        }
+        m_StopRequested = true;
+        LockSupport.unpark(m_Thread);
+        try {
+            m_Thread.join();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        m_Thread = null;
+    }
+
+    public boolean isThreaded() {
+        return m_Thread != null;
+    }
+
+    public void addStepListener(IStepListener listener) {
+        m_StepListeners.add(listener);
+    }
+
+    // The command is run on the physics thread before the next step
+    public void submit(Consumer<PhysicsSpace> command) {
+        m_Commands.add(command);
+    }
+
+    public int getNumRigidBodies() {
+        return m_NumRigidBodies;
+    }
+
+    public long getLastStepNs() {
+        return m_LastStepNs;
+    }
+
+    public void step() {
+        long startNs = System.nanoTime();
+        Consumer<PhysicsSpace> command;
+        while ((command = m_Commands.poll()) != null) {
+            command.accept(m_PhysicsSpace);
+        }
+
+        m_PhysicsSpace.update(m_SecondsPerTick, 0);
+        long nowMs = ++m_NumTicks * m_NsPerTick / 1_000_000L;
+        for (IStepListener listener : m_StepListeners) {
+            listener.physicsStepped(m_PhysicsSpace, nowMs);
+        }
+
+        m_NumRigidBodies = m_PhysicsSpace.countRigidBodies();
+        m_LastStepNs = System.nanoTime() - startNs;
+    }
+
+    // Rethrows the exception that ended the physics thread, if there was one. The main thread calls this once per
+    // tick, so that a failure reaches the main loop rather than leaving the giblets frozen.
+    public void checkForError() {
+        Exception error = m_Error;
+        if (error != null) {
+            throw new RuntimeException("The physics thread failed", error);
+        }
+    }
+
+    private void runThread() {
+        try {
+            long nextTickNs = System.nanoTime();
+            while (!m_StopRequested) {
+                long nowNs = System.nanoTime();
+                if (nowNs < nextTickNs) {
+                    LockSupport.parkNanos(nextTickNs - nowNs);
+                    continue;
+                }
+                step();
+                nextTickNs += m_NsPerTick;
+                if (System.nanoTime() - nextTickNs > s_MaxTicksBehind * m_NsPerTick) {
+                    nextTickNs = System.nanoTime();
+                }
+            }
+        }
+        catch (Exception e) {
+            m_Error = e;
+        }
+    }
+}
@@ -52,11 +52,10 @@ public class PlayingGameAppState implements IAppState {
             return;
         }
 
-        processKeyPress(m_Controller.getSnakes()[0], GLFW_KEY_W, GLFW_KEY_S, GLFW_KEY_A, GLFW_KEY_D, key);
-
-        if (m_Controller.getMode() == IGameController.Mode.TWO_PLAYERS) {
-            processKeyPress(m_Controller.getSnakes()[1], GLFW_KEY_UP, GLFW_KEY_DOWN, GLFW_KEY_LEFT, GLFW_KEY_RIGHT, key);
-        }
+        // The snakes belong to the simulation thread while the game's being played. The key press is queued on the
+        // snake rather than applied, so it's picked up by the snake's next move however soon that is.
+        long inputNs = System.nanoTime();
+        m_Context.getSimulationWorker().submit(() -> steerSnakes(key, inputNs));
     }
 
     @Override
@@ -90,22 +89,27 @@ public class PlayingGameAppState implements IAppState {
         m_View.draw2d(nowMs);
     }
 
-    private void processKeyPress(Snake snake, int upKey, int downKey, int leftKey, int rightKey, int keyPressed) {
-        if (snake.getDirection() == Snake.Direction.Left || snake.getDirection() == Snake.Direction.Right) {
-            if (keyPressed == upKey) {
-                snake.setDirection(Snake.Direction.Up);
-            }
-            if (keyPressed == downKey) {
-                snake.setDirection(Snake.Direction.Down);
-            }
+    private void steerSnakes(int key, long inputNs) {
+        processKeyPress(m_Controller.getSnakes()[0], GLFW_KEY_W, GLFW_KEY_S, GLFW_KEY_A, GLFW_KEY_D, key, inputNs);
+
+        if (m_Controller.getMode() == IGameController.Mode.TWO_PLAYERS) {
+            processKeyPress(m_Controller.getSnakes()[1], GLFW_KEY_UP, GLFW_KEY_DOWN, GLFW_KEY_LEFT, GLFW_KEY_RIGHT, key, inputNs);
+        }
+    }
+
+    // The snake ignores a direction that would reverse it, or that it's already heading in
+    private void processKeyPress(Snake snake, int upKey, int downKey, int leftKey, int rightKey, int keyPressed, long inputNs) {
+        if (keyPressed == upKey) {
+            snake.queueDirection(Snake.Direction.Up, inputNs);
+        }
+        else if (keyPressed == downKey) {
+            snake.queueDirection(Snake.Direction.Down, inputNs);
+        }
+        else if (keyPressed == leftKey) {
+            snake.queueDirection(Snake.Direction.Left, inputNs);
         }
-        if (snake.getDirection() == Snake.Direction.Up || snake.getDirection() == Snake.Direction.Down) {
-            if (keyPressed == leftKey) {
-                snake.setDirection(Snake.Direction.Left);
-            }
-            if (keyPressed == rightKey) {
-                snake.setDirection(Snake.Direction.Right);
-            }
+        else if (keyPressed == rightKey) {
+            snake.queueDirection(Snake.Direction.Right, inputNs);
         }
     }
 }
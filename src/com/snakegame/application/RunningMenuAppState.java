@@ -20,7 +20,6 @@ import org.joml.Matrix4f;
 import org.joml.Vector3f;
 import org.joml.Vector4f;
 
-import javax.imageio.ImageIO;
 import java.io.*;
 
 import static org.lwjgl.glfw.GLFW.*;
@@ -31,7 +30,6 @@ public class RunningMenuAppState implements IAppState {
     private static final float s_AppleXPosition = 0.65f;
     private static final float s_AppleZPosition = 1.0f;
     private static final float s_HorizontalScrollSpeed = 50.0f; // pixels per second
-    private static final float s_MsPerFrame = 0.01666666f;
     private static final float s_BackgroundAlpha = 0.075f;
     private static final float s_LightIntensity = 2.0f;
     private static final float s_LightShininess = 16.0f;
@@ -88,9 +86,9 @@ public class RunningMenuAppState implements IAppState {
 
     @Override
     public void begin(long nowMs) throws Exception {
-        m_View.unloadResources();
+        m_View.resetSnakeGiblets();
 
-        m_AppleDisplayMesh = m_View.loadDisplayMesh("meshes/AppleHiResDisplayMesh.obj");
+        m_AppleDisplayMesh = m_Context.getResourceCache().getDisplayMesh("meshes/AppleHiResDisplayMesh.obj");
 
         loadMenuBackground();
         loadButtons();
@@ -110,17 +108,7 @@ public class RunningMenuAppState implements IAppState {
 
     @Override
     public void end(long nowMs) {
-        for (var menuPage : m_MenuPagePolyhedra) {
-            menuPage.freeNativeResources();
-        }
-        m_BackgroundTextPolyhedron.freeNativeResources();
-        m_BackgroundPolyhedron.freeNativeResources();
-        m_AppleDisplayMesh.freeNativeResources();
-        m_SinglePlayerGameButton.freeNativeResources();
-        m_TwoPlayersGameButton.freeNativeResources();
-        m_HelpGameButton.freeNativeResources();
-        m_ExitGameButton.freeNativeResources();
-        m_BackGameButton.freeNativeResources();
+        // No work to do
     }
 
     @Override
@@ -193,14 +181,14 @@ public class RunningMenuAppState implements IAppState {
 
     @Override
     public void think(long nowMs) {
-        m_ScrollOffsetX += s_HorizontalScrollSpeed * s_MsPerFrame;
+        m_ScrollOffsetX += s_HorizontalScrollSpeed * Application.s_SecondsPerTick;
         if (m_ScrollOffsetX >= m_Context.getWindowWidth()) {
             m_ScrollOffsetX -= m_Context.getWindowWidth();
         }
 
         if (m_FadingOut) {
-            m_FadingOutBackgroundAlpha = Math.max(0.0f, m_FadingOutBackgroundAlpha - (s_FadeOutSpeed * 0.5f) * s_MsPerFrame);
-            m_FadingOutAlpha = Math.max(0.0f, m_FadingOutAlpha - s_FadeOutSpeed * s_MsPerFrame);
+            m_FadingOutBackgroundAlpha = Math.max(0.0f, m_FadingOutBackgroundAlpha - (s_FadeOutSpeed * 0.5f) * Application.s_SecondsPerTick);
+            m_FadingOutAlpha = Math.max(0.0f, m_FadingOutAlpha - s_FadeOutSpeed * Application.s_SecondsPerTick);
         }
 
         animateApple();
@@ -225,26 +213,21 @@ public class RunningMenuAppState implements IAppState {
     }
 
     private void loadMenuBackground() throws IOException {
-        GLTexture backgroundTexture = new GLTexture(ImageIO.read(new File("images/MainMenuBackground.png")));
-        m_BackgroundPolyhedron = m_View.createPolyhedron(0, 0, backgroundTexture.getWidth(), backgroundTexture.getHeight(), backgroundTexture);
-
-        GLTexture backgroundTextTexture = new GLTexture(ImageIO.read(new File("images/MainMenuBackgroundText.png")));
-        m_BackgroundTextPolyhedron = m_View.createPolyhedron(0, 0, backgroundTextTexture.getWidth(), backgroundTextTexture.getHeight(), backgroundTextTexture);
+        ResourceCache resourceCache = m_Context.getResourceCache();
+        m_BackgroundPolyhedron = resourceCache.getPolyhedron("images/MainMenuBackground.png");
+        m_BackgroundTextPolyhedron = resourceCache.getPolyhedron("images/MainMenuBackgroundText.png");
 
         m_MenuPagePolyhedra = new GLStaticPolyhedronVxTc[2];
-
-        GLTexture mainMenuTexture = new GLTexture(ImageIO.read(new File("images/MainMenu.png")));
-        m_MenuPagePolyhedra[0] = m_View.createCenteredPolyhedron(mainMenuTexture.getWidth(), mainMenuTexture.getHeight(), mainMenuTexture);
-
-        GLTexture helpMenuTexture = new GLTexture(ImageIO.read(new File("images/HelpMenu.png")));
-        m_MenuPagePolyhedra[1] = m_View.createPolyhedron(0, 0, helpMenuTexture.getWidth(), helpMenuTexture.getHeight(), helpMenuTexture);
+        m_MenuPagePolyhedra[0] = resourceCache.getCenteredPolyhedron("images/MainMenu.png");
+        m_MenuPagePolyhedra[1] = resourceCache.getPolyhedron("images/HelpMenu.png");
     }
 
     private void loadButtons() throws IOException {
+        ResourceCache resourceCache = m_Context.getResourceCache();
         float oneThird = (float)Math.floor(m_Context.getWindowWidth() * 0.3333f);
         float y = m_Context.getWindowHeight() - 384.0f;
 
-        m_SinglePlayerGameButton = new Button(m_View,
+        m_SinglePlayerGameButton = new Button(m_View, resourceCache,
                 "images/SinglePlayerNP.png",
                 "images/SinglePlayerNPF.png",
                 "images/SinglePlayerP.png");
@@ -254,7 +237,7 @@ public class RunningMenuAppState implements IAppState {
                 (value) -> startNewGame(IGameController.Mode.SINGLE_PLAYER));
         y -= m_SinglePlayerGameButton.getHeight();
 
-        m_TwoPlayersGameButton = new Button(m_View,
+        m_TwoPlayersGameButton = new Button(m_View, resourceCache,
                 "images/TwoPlayersNP.png",
                 "images/TwoPlayersNPF.png",
                 "images/TwoPlayersP.png");
@@ -263,7 +246,7 @@ public class RunningMenuAppState implements IAppState {
                 (value) -> startNewGame(IGameController.Mode.TWO_PLAYERS));
         y -= m_TwoPlayersGameButton.getHeight();
 
-        m_HelpGameButton = new Button(m_View,
+        m_HelpGameButton = new Button(m_View, resourceCache,
                 "images/HelpNP.png",
                 "images/HelpNPF.png",
                 "images/HelpP.png");
@@ -271,14 +254,14 @@ public class RunningMenuAppState implements IAppState {
         m_HelpGameButton.setOnClickFunction((value) -> m_Page = Page.HELP);
         y -= m_HelpGameButton.getHeight();
 
-        m_ExitGameButton = new Button(m_View,
+        m_ExitGameButton = new Button(m_View, resourceCache,
                 "images/ExitNP.png",
                 "images/ExitNPF.png",
                 "images/ExitP.png");
         m_ExitGameButton.setPosition(x, y);
         m_ExitGameButton.setOnClickFunction((value) -> m_Context.exitApplication());
 
-        m_BackGameButton = new Button(m_View,
+        m_BackGameButton = new Button(m_View, resourceCache,
                 "images/BackNP.png",
                 "images/BackNPF.png",
                 "images/BackP.png");
@@ -0,0 +1,223 @@
+//
+// Snake Game
+// https://en.wikipedia.org/wiki/Snake_(video_game_genre)
+//
+// Based on the 1976 arcade game Blockade, and the 1991 game Nibbles
+// https://en.wikipedia.org/wiki/Blockade_(video_game)
+// https://en.wikipedia.org/wiki/Nibbles_(video_game)
+//
+// This implementation is Copyright (c) 2021, Damian Coventry
+// All rights reserved
+// Written for Massey University course 159.261 Game Programming (Assignment 1)
+//
+
+package com.snakegame.application;
+
+import com.snakegame.client.IClock;
+import com.snakegame.client.TimeoutManager;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+/**
+ * This class runs the game rules' timeouts on their own thread, so the snakes move on time however long a frame
+ * takes to draw. The rules' state is only touched by the simulation thread while it's running. Other threads submit
+ * commands instead, which are run on the simulation thread before its next tick, and they read the rules' state from
+ * the snapshots that the tick listeners publish. While the simulation is paused the thread is parked, and the main
+ * thread owns the rules' state again. When the thread isn't started, e.g. for the deterministic benchmark, the owner
+ * calls tick() itself once per tick.
+ * */
+public class SimulationWorker {
+    public interface ITickListener {
+        // Called on the simulation thread after each tick
+        void simulationTicked(long nowMs);
+    }
+
+    private static final int s_Paused = 0;
+    private static final int s_Running = 1;
+    private static final int s_PauseRequested = 2;
+    private static final long s_PausePollNs = 50_000L;
+    // A timeout that's dispatched later than this is rescheduled from the time it was dispatched instead
+    private static final long s_MaxLateMs = 250L;
+
+    private final IClock m_Clock;
+    private final TimeoutManager m_TimeoutManager;
+    private final ConcurrentLinkedQueue<Runnable> m_Commands;
+    private final CopyOnWriteArrayList<ITickListener> m_TickListeners;
+    private final AtomicInteger m_State;
+    private Thread m_Thread;
+    private volatile boolean m_StopRequested;
+    private volatile int m_NumActiveTimeouts;
+    // Set when a tick on the simulation thread threw, which ends the thread
+    private volatile Exception m_Error;
+
+    public SimulationWorker(IClock clock) {
+        m_Clock = clock;
+        m_TimeoutManager = new TimeoutManager(clock);
+        m_Commands = new ConcurrentLinkedQueue<>();
+        m_TickListeners = new CopyOnWriteArrayList<>();
+        m_State = new AtomicInteger(s_Paused);
+        m_Thread = null;
+        m_StopRequested = false;
+        m_NumActiveTimeouts = 0;
+        m_Error = null;
+    }
+
+    public void start() {
+        if (m_Thread != null) {
+            throw new RuntimeException("The simulation thread has already been started");
+        }
+        m_Thread = new Thread(this::runThread, "Simulation");
+        m_Thread.setDaemon(true);
+        m_Thread.start();
+    }
+
+    public void stop() {
+        if (m_Thread == null) {
+            return;
+        }
+        m_StopRequested = true;
+        LockSupport.unpark(m_Thread);
+        try {
+            m_Thread.join();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        m_Thread = null;
+    }
+
+    public boolean isThreaded() {
+        return m_Thread != null;
+    }
+
+    public void addTickListener(ITickListener listener) {
+        m_TickListeners.add(listener);
+    }
+
+    // These two may only be called on the simulation thread, or while the simulation is paused
+    public int addTimeout(long timeoutMs, Function<Integer, TimeoutManager.CallbackResult> callback) {
+        return m_TimeoutManager.addTimeout(timeoutMs, callback);
+    }
+
+    public void removeTimeout(int timeoutId) {
+        m_TimeoutManager.removeTimeout(timeoutId);
+    }
+
+    public int getNumActiveTimeouts() {
+        return m_NumActiveTimeouts;
+    }
+
+    // The command is run on the simulation thread before its next tick. It's dropped if the simulation is paused first.
+    public void submit(Runnable command) {
+        m_Commands.add(command);
+    }
+
+    // True when the simulation thread isn't touching the rules' state, so the caller may read or change it directly
+    public boolean isPaused() {
+        return m_State.get() == s_Paused;
+    }
+
+    public void resume() {
+        checkForError();
+        if (!m_State.compareAndSet(s_Paused, s_Running)) {
+            throw new RuntimeException("The simulation isn't paused");
+        }
+        if (m_Thread != null) {
+            LockSupport.unpark(m_Thread);
+        }
+    }
+
+    // Returns once the simulation thread has finished its current tick
+    public void pause() {
+        if (m_State.compareAndSet(s_Running, s_PauseRequested) || m_State.get() == s_PauseRequested) {
+            if (m_Thread == null) {
+                m_State.set(s_Paused);
+            }
+            else {
+                LockSupport.unpark(m_Thread);
+                // The thread sets the state to paused when it fails, too
+                while (m_State.get() != s_Paused) {
+                    LockSupport.parkNanos(s_PausePollNs);
+                }
+            }
+        }
+        m_Commands.clear();
+        m_NumActiveTimeouts = m_TimeoutManager.getNumActiveTimeouts();
+    }
+
+    // Rethrows the exception that ended the simulation thread, if there was one. The main thread calls this once per
+    // tick, so that a failure within the rules reaches the main loop just as it would have in the inline mode.
+    public void checkForError() {
+        Exception error = m_Error;
+        if (error != null) {
+            throw new RuntimeException("The simulation thread failed", error);
+        }
+    }
+
+    // Called from within a timeout on the simulation thread, the simulation pauses once the current tick has finished
+    public void requestPause() {
+        m_State.compareAndSet(s_Running, s_PauseRequested);
+    }
+
+    // Returns the number of timeouts that were called. Only call this when the thread hasn't been started.
+    public int tick(long nowMs) {
+        if (m_State.get() != s_Running) {
+            return 0;
+        }
+        int numCalled = runTick(nowMs);
+        m_State.compareAndSet(s_PauseRequested, s_Paused);
+        return numCalled;
+    }
+
+    private int runTick(long nowMs) {
+        Runnable command;
+        while ((command = m_Commands.poll()) != null) {
+            command.run();
+        }
+
+        int numCalled = m_TimeoutManager.dispatchTimeouts(nowMs);
+        for (ITickListener listener : m_TickListeners) {
+            listener.simulationTicked(nowMs);
+        }
+
+        m_NumActiveTimeouts = m_TimeoutManager.getNumActiveTimeouts();
+        return numCalled;
+    }
+
+    private void runThread() {
+        try {
+            while (!m_StopRequested) {
+                int state = m_State.get();
+                if (state == s_PauseRequested) {
+                    m_State.set(s_Paused);
+                    continue;
+                }
+                if (state == s_Paused) {
+                    LockSupport.park(this);
+                    continue;
+                }
+
+                long nowNs = m_Clock.nowNs();
+                long dueMs = m_TimeoutManager.getNextDueMs();
+                long dueNs = dueMs == Long.MAX_VALUE ? Long.MAX_VALUE : dueMs * 1_000_000L;
+                if (nowNs < dueNs) {
+                    LockSupport.parkNanos(this, dueNs - nowNs);
+                    continue;
+                }
+
+                // Dispatching at the due time rather than the time the thread woke up keeps the snakes' cadence exact,
+                // because a timeout that keeps calling is rescheduled from the time it's dispatched at
+                long nowMs = nowNs / 1_000_000L;
+                runTick(nowMs - dueMs <= s_MaxLateMs ? dueMs : nowMs);
+            }
+        }
+        catch (Exception e) {
+            m_Error = e;
+            m_State.set(s_Paused);
+        }
+    }
+}
@@ -15,11 +15,9 @@ package com.snakegame.application;
 
 import com.snakegame.client.*;
 import com.snakegame.opengl.GLStaticPolyhedronVxTc;
-import com.snakegame.opengl.GLTexture;
 import com.snakegame.rules.IGameController;
 import org.joml.Matrix4f;
 
-import javax.imageio.ImageIO;
 import java.io.*;
 
 public class SnakeDyingAppState implements IAppState {
@@ -52,16 +50,11 @@ public class SnakeDyingAppState implements IAppState {
 
     @Override
     public void begin(long nowMs) throws IOException {
+        ResourceCache resourceCache = m_Context.getResourceCache();
         m_Polyhedra = new GLStaticPolyhedronVxTc[3];
-
-        GLTexture player1DiedTexture = new GLTexture(ImageIO.read(new File("images/Player1Died.png")));
-        m_Polyhedra[0] = m_View.createCenteredPolyhedron(player1DiedTexture.getWidth(), player1DiedTexture.getHeight(), player1DiedTexture);
-
-        GLTexture layer2DiedTexture = new GLTexture(ImageIO.read(new File("images/Player2Died.png")));
-        m_Polyhedra[1] = m_View.createCenteredPolyhedron(layer2DiedTexture.getWidth(), layer2DiedTexture.getHeight(), layer2DiedTexture);
-
-        GLTexture bothPlayersDiedTexture = new GLTexture(ImageIO.read(new File("images/BothSnakesDied.png")));
-        m_Polyhedra[2] = m_View.createCenteredPolyhedron(bothPlayersDiedTexture.getWidth(), bothPlayersDiedTexture.getHeight(), bothPlayersDiedTexture);
+        m_Polyhedra[0] = resourceCache.getCenteredPolyhedron("images/Player1Died.png");
+        m_Polyhedra[1] = resourceCache.getCenteredPolyhedron("images/Player2Died.png");
+        m_Polyhedra[2] = resourceCache.getCenteredPolyhedron("images/BothSnakesDied.png");
 
         if (m_BothSnakes) {
             m_Controller.getSnakes()[0].setDead(); // This stops this snake being displayed
@@ -84,9 +77,7 @@ public class SnakeDyingAppState implements IAppState {
 
     @Override
     public void end(long nowMs) {
-        for (var r : m_Polyhedra) {
-            r.freeNativeResources();
-        }
+        // No work to do
     }
 
     @Override
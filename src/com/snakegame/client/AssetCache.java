@@ -0,0 +1,169 @@
+//
+// Snake Game
+// https://en.wikipedia.org/wiki/Snake_(video_game_genre)
+//
+// Based on the 1976 arcade game Blockade, and the 1991 game Nibbles
+// https://en.wikipedia.org/wiki/Blockade_(video_game)
+// https://en.wikipedia.org/wiki/Nibbles_(video_game)
+//
+// This implementation is Copyright (c) 2021, Damian Coventry
+// All rights reserved
+// Written for Massey University course 159.261 Game Programming (Assignment 1)
+//
+
+package com.snakegame.client;
+
+import org.lwjgl.PointerBuffer;
+import org.lwjgl.system.MemoryStack;
+import org.lwjgl.util.lz4.LZ4FDecompressOptions;
+import org.lwjgl.util.lz4.LZ4FFrameInfo;
+import org.lwjgl.util.lz4.LZ4FPreferences;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.function.Consumer;
+
+import static org.lwjgl.system.MemoryUtil.*;
+import static org.lwjgl.util.lz4.LZ4Frame.*;
+
+/**
+ * This class keeps decoded textures and compiled meshes on disk as LZ4 frames, one file per asset, so that the next
+ * run can skip PNG decoding and OBJ parsing. A cached file is used only while it's newer than the asset it was made
+ * from. A file is written under a temporary name and then renamed, so a crash or another run can't leave a partly
+ * written file in its place. The buffers returned by find() are allocated with MemoryUtil, and the caller must free
+ * them with memFree().
+ * */
+public class AssetCache {
+    public static final String s_DirectoryName = "cache";
+    private static final String s_FileExtension = ".lz4";
+
+    private final String m_DirectoryName;
+
+    public AssetCache(String directoryName) {
+        m_DirectoryName = directoryName;
+    }
+
+    // Returns the decompressed asset, or null if it isn't cached, the cached copy is out of date, or it can't be decoded
+    public ByteBuffer find(String fileName) throws IOException {
+        File source = new File(fileName);
+        File cached = getCachedFile(fileName);
+        if (!cached.isFile() || cached.lastModified() < source.lastModified()) {
+            return null;
+        }
+
+        try (FileChannel channel = FileChannel.open(cached.toPath(), StandardOpenOption.READ)) {
+            MappedByteBuffer compressed = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return decompress(compressed);
+        }
+        catch (RuntimeException e) {
+            // The caller falls back to the source file, and stores a fresh copy
+            e.printStackTrace();
+            try {
+                Files.deleteIfExists(cached.toPath());
+            }
+            catch (IOException deleteError) {
+                deleteError.printStackTrace();
+            }
+            return null;
+        }
+    }
+
+    public void store(String fileName, int size, Consumer<ByteBuffer> writer) throws IOException {
+        File cached = getCachedFile(fileName);
+        Files.createDirectories(cached.getParentFile().toPath());
+
+        ByteBuffer uncompressed = memAlloc(size).order(ByteOrder.nativeOrder());
+        ByteBuffer compressed = null;
+        Path temporary = null;
+        try (MemoryStack stack = MemoryStack.stackPush()) {
+            writer.accept(uncompressed.duplicate().order(ByteOrder.nativeOrder()));
+
+            // The content size is recorded in the frame header, so find() knows how much to allocate
+            LZ4FPreferences preferences = LZ4FPreferences.callocStack(stack);
+            preferences.frameInfo(LZ4FFrameInfo.callocStack(stack).contentSize(size));
+
+            compressed = memAlloc((int)LZ4F_compressFrameBound(size, preferences));
+            long compressedSize = check(LZ4F_compressFrame(compressed, uncompressed, preferences));
+            compressed.limit((int)compressedSize);
+
+            temporary = Files.createTempFile(cached.getParentFile().toPath(), cached.getName(), ".tmp");
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                while (compressed.hasRemaining()) {
+                    channel.write(compressed);
+                }
+            }
+            Files.move(temporary, cached.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            temporary = null;
+        }
+        finally {
+            if (temporary != null) {
+                Files.deleteIfExists(temporary);
+            }
+            memFree(uncompressed);
+            if (compressed != null) {
+                memFree(compressed);
+            }
+        }
+    }
+
+    private File getCachedFile(String fileName) {
+        return new File(m_DirectoryName, fileName + s_FileExtension);
+    }
+
+    private static ByteBuffer decompress(ByteBuffer compressed) {
+        try (MemoryStack stack = MemoryStack.stackPush()) {
+            PointerBuffer pointer = stack.mallocPointer(1);
+            check(LZ4F_createDecompressionContext(pointer, LZ4F_VERSION));
+            long context = pointer.get(0);
+
+            ByteBuffer uncompressed = null;
+            try {
+                LZ4FFrameInfo frameInfo = LZ4FFrameInfo.callocStack(stack);
+                PointerBuffer sourceSize = stack.mallocPointer(1).put(0, compressed.remaining());
+                check(LZ4F_getFrameInfo(context, frameInfo, compressed, sourceSize));
+                compressed.position(compressed.position() + (int)sourceSize.get(0));
+
+                uncompressed = memAlloc((int)frameInfo.contentSize()).order(ByteOrder.nativeOrder());
+                PointerBuffer destinationSize = stack.mallocPointer(1);
+                LZ4FDecompressOptions options = LZ4FDecompressOptions.callocStack(stack);
+
+                // Each call reports how much it consumed and produced, a result of 0 means the frame is complete
+                long result;
+                do {
+                    sourceSize.put(0, compressed.remaining());
+                    destinationSize.put(0, uncompressed.remaining());
+                    result = check(LZ4F_decompress(context, uncompressed, destinationSize, compressed, sourceSize, options));
+                    compressed.position(compressed.position() + (int)sourceSize.get(0));
+                    uncompressed.position(uncompressed.position() + (int)destinationSize.get(0));
+                }
+                while (result != 0 && compressed.hasRemaining());
+
+                if (result != 0 || uncompressed.hasRemaining()) {
+                    throw new RuntimeException("The cached asset is truncated");
+                }
+                return uncompressed.flip();
+            }
+            catch (RuntimeException e) {
+                if (uncompressed != null) {
+                    memFree(uncompressed);
+                }
+                throw e;
+            }
+            finally {
+                LZ4F_freeDecompressionContext(context);
+            }
+        }
+    }
+
+    private static long check(long result) {
+        if (LZ4F_isError(result)) {
+            throw new RuntimeException("LZ4 error: " + LZ4F_getErrorName(result));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,223 @@
+//
+// Snake Game
+// https://en.wikipedia.org/wiki/Snake_(video_game_genre)
+//
+// Based on the 1976 arcade game Blockade, and the 1991 game Nibbles
+// https://en.wikipedia.org/wiki/Blockade_(video_game)
+// https://en.wikipedia.org/wiki/Nibbles_(video_game)
+//
+// This implementation is Copyright (c) 2021, Damian Coventry
+// All rights reserved
+// Written for Massey University course 159.261 Game Programming (Assignment 1)
+//
+
+package com.snakegame.client;
+
+import com.snakegame.opengl.*;
+import com.snakegame.profiling.AssetLoadEvent;
+import org.lwjgl.PointerBuffer;
+import org.lwjgl.system.MemoryStack;
+import org.lwjgl.util.lmdb.MDBVal;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import static org.lwjgl.system.MemoryUtil.memFree;
+import static org.lwjgl.util.lmdb.LMDB.*;
+
+/**
+ * This class reads the game's assets from the LMDB environment written by AssetPackBuilder. The environment is memory
+ * mapped, and a single read only transaction is held open until freeNativeResources() is called, so the buffers this
+ * class returns point straight into the mapped file. When there's no asset pack on disk, or an asset isn't within it,
+ * textures and meshes come from the asset cache, and the rest is read from its loose file.
+ * */
+public class AssetPack {
+    public static final String s_FileName = "assets.lmdb";
+
+    private final long m_Environment;
+    private final long m_Transaction;
+    private final int m_Database;
+    private final AssetCache m_AssetCache;
+
+    public AssetPack(String fileName, AssetCache assetCache) {
+        m_AssetCache = assetCache;
+        if (!new File(fileName).isFile()) {
+            m_Environment = 0;
+            m_Transaction = 0;
+            m_Database = 0;
+            return;
+        }
+
+        try (MemoryStack stack = MemoryStack.stackPush()) {
+            PointerBuffer pointer = stack.mallocPointer(1);
+            check(mdb_env_create(pointer));
+            m_Environment = pointer.get(0);
+
+            // The pack is never written at runtime, so there's no need for a lock file. The read transaction isn't tied
+            // to the thread that began it, because the game's resources are read on the background loader's thread.
+            check(mdb_env_open(m_Environment, fileName, MDB_NOSUBDIR | MDB_RDONLY | MDB_NOLOCK | MDB_NOTLS, 0));
+
+            check(mdb_txn_begin(m_Environment, 0, MDB_RDONLY, pointer));
+            m_Transaction = pointer.get(0);
+
+            IntBuffer database = stack.mallocInt(1);
+            check(mdb_dbi_open(m_Transaction, (CharSequence)null, 0, database));
+            m_Database = database.get(0);
+        }
+    }
+
+    public void freeNativeResources() {
+        if (m_Environment != 0) {
+            mdb_txn_abort(m_Transaction);
+            mdb_env_close(m_Environment);
+        }
+    }
+
+    public AssetCache getAssetCache() {
+        return m_AssetCache;
+    }
+
+    // Returns a view onto the mapped file, or null if the asset isn't in the pack
+    public ByteBuffer find(String fileName) {
+        if (m_Environment == 0) {
+            return null;
+        }
+        try (MemoryStack stack = MemoryStack.stackPush()) {
+            MDBVal key = MDBVal.callocStack(stack).mv_data(stack.UTF8(fileName, false));
+            MDBVal data = MDBVal.callocStack(stack);
+            int result = mdb_get(m_Transaction, m_Database, key, data);
+            if (result == MDB_NOTFOUND) {
+                return null;
+            }
+            check(result);
+            return data.mv_data().order(ByteOrder.nativeOrder());
+        }
+    }
+
+    public String readText(String fileName) throws IOException {
+        ByteBuffer text = find(fileName);
+        if (text == null) {
+            return Files.readString(Paths.get(fileName), StandardCharsets.US_ASCII);
+        }
+        return StandardCharsets.US_ASCII.decode(text).toString();
+    }
+
+    // The GL objects created while loading an asset are attributed to it within the GLResourceRegistry
+    public GLTexture loadTexture(String fileName) throws IOException {
+        GLResourceRegistry.beginAsset(fileName);
+        try {
+            return loadTextureAsset(fileName);
+        }
+        finally {
+            GLResourceRegistry.endAsset();
+        }
+    }
+
+    public GLStaticPolyhedronVxTcNm loadDisplayMesh(String fileName) throws Exception {
+        GLResourceRegistry.beginAsset(fileName);
+        try {
+            return loadDisplayMeshAsset(fileName);
+        }
+        finally {
+            GLResourceRegistry.endAsset();
+        }
+    }
+
+    private GLTexture loadTextureAsset(String fileName) throws IOException {
+        AssetLoadEvent event = beginLoadEvent(fileName);
+        ByteBuffer texture = find(fileName);
+        if (texture != null) {
+            commitLoadEvent(event, AssetLoadEvent.s_FromPack);
+            return createTexture(texture);
+        }
+
+        texture = m_AssetCache.find(fileName);
+        if (texture != null) {
+            try {
+                return createTexture(texture);
+            }
+            finally {
+                memFree(texture);
+                commitLoadEvent(event, AssetLoadEvent.s_FromCache);
+            }
+        }
+
+        BufferedImage image = ImageIO.read(new File(fileName));
+        ByteBuffer pixels = GLTexture.toRgbaPixels(image);
+        m_AssetCache.store(fileName, getTextureSizeInBytes(pixels), (destination) -> writeTexture(destination, image, pixels));
+        GLTexture glTexture = new GLTexture(image.getWidth(), image.getHeight(), pixels);
+        commitLoadEvent(event, AssetLoadEvent.s_FromFile);
+        return glTexture;
+    }
+
+    private GLStaticPolyhedronVxTcNm loadDisplayMeshAsset(String fileName) throws Exception {
+        AssetLoadEvent event = beginLoadEvent(fileName);
+        ByteBuffer mesh = find(fileName);
+        if (mesh != null) {
+            GLStaticPolyhedronVxTcNm polyhedron = CompiledMesh.read(mesh).createDisplayMesh(this);
+            commitLoadEvent(event, AssetLoadEvent.s_FromPack);
+            return polyhedron;
+        }
+
+        // glBufferData copies the vertex data, so the decompressed mesh can be freed as soon as it's uploaded
+        mesh = m_AssetCache.find(fileName);
+        if (mesh != null) {
+            try {
+                return CompiledMesh.read(mesh).createDisplayMesh(this);
+            }
+            finally {
+                memFree(mesh);
+                commitLoadEvent(event, AssetLoadEvent.s_FromCache);
+            }
+        }
+
+        CompiledMesh compiledMesh = CompiledMesh.compile(fileName);
+        m_AssetCache.store(fileName, compiledMesh.getSizeInBytes(), compiledMesh::write);
+        GLStaticPolyhedronVxTcNm polyhedron = compiledMesh.createDisplayMesh(this);
+        commitLoadEvent(event, AssetLoadEvent.s_FromFile);
+        return polyhedron;
+    }
+
+    private static AssetLoadEvent beginLoadEvent(String fileName) {
+        AssetLoadEvent event = new AssetLoadEvent();
+        event.m_FileName = fileName;
+        event.begin();
+        return event;
+    }
+
+    private static void commitLoadEvent(AssetLoadEvent event, String source) {
+        event.m_Source = source;
+        event.commit();
+    }
+
+    // A texture is stored as its width and height, followed by the pixels in the order that glTexImage2D expects
+    static int getTextureSizeInBytes(ByteBuffer pixels) {
+        return 2 * Integer.BYTES + pixels.remaining();
+    }
+
+    static void writeTexture(ByteBuffer destination, BufferedImage image, ByteBuffer pixels) {
+        destination.putInt(image.getWidth());
+        destination.putInt(image.getHeight());
+        destination.put(pixels.duplicate());
+    }
+
+    private static GLTexture createTexture(ByteBuffer texture) {
+        int width = texture.getInt(0);
+        int height = texture.getInt(Integer.BYTES);
+        return new GLTexture(width, height, texture.duplicate().position(2 * Integer.BYTES).slice());
+    }
+
+    static void check(int result) {
+        if (result != MDB_SUCCESS) {
+            throw new RuntimeException("LMDB error: " + mdb_strerror(result));
+        }
+    }
+}
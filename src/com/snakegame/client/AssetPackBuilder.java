@@ -0,0 +1,161 @@
+//
+// Snake Game
+// https://en.wikipedia.org/wiki/Snake_(video_game_genre)
+//
+// Based on the 1976 arcade game Blockade, and the 1991 game Nibbles
+// https://en.wikipedia.org/wiki/Blockade_(video_game)
+// https://en.wikipedia.org/wiki/Nibbles_(video_game)
+//
+// This implementation is Copyright (c) 2021, Damian Coventry
+// All rights reserved
+// Written for Massey University course 159.261 Game Programming (Assignment 1)
+//
+
+package com.snakegame.client;
+
+import com.snakegame.opengl.GLTexture;
+import org.lwjgl.PointerBuffer;
+import org.lwjgl.system.MemoryStack;
+import org.lwjgl.util.lmdb.MDBVal;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.function.Consumer;
+
+import static com.snakegame.client.AssetPack.check;
+import static org.lwjgl.util.lmdb.LMDB.*;
+
+/**
+ * This program packs the compiled display meshes, the textures as RGBA pixels, the shader sources and the level files
+ * into a single LMDB environment that AssetPack reads at runtime. Run it from the game's working directory whenever an
+ * asset changes. Each asset's key is the path the game already uses to load it, e.g. "meshes/SnakeGib.obj".
+ * */
+public class AssetPackBuilder {
+    private static final long s_MapSizeSlack = 16 * 1024 * 1024;
+
+    private final ArrayList<Entry> m_Entries;
+    private long m_TotalBytes;
+
+    private static class Entry {
+        private final String m_FileName;
+        private final int m_Size;
+        private final Consumer<ByteBuffer> m_Writer;
+        public Entry(String fileName, int size, Consumer<ByteBuffer> writer) {
+            m_FileName = fileName;
+            m_Size = size;
+            m_Writer = writer;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        String fileName = args.length > 0 ? args[0] : AssetPack.s_FileName;
+
+        AssetPackBuilder builder = new AssetPackBuilder();
+        for (var file : listFiles("meshes", ".obj")) {
+            // The collision mesh is for the physics engine, it doesn't have materials
+            if (!file.getName().equals("LevelCollisionMesh.obj")) {
+                builder.addMesh("meshes/" + file.getName());
+            }
+        }
+        for (var file : listFiles("meshes", ".png")) {
+            builder.addTexture("meshes/" + file.getName());
+        }
+        for (var file : listFiles("images", ".png")) {
+            builder.addTexture("images/" + file.getName());
+        }
+        for (var file : listFiles("shaders", "")) {
+            builder.addFile("shaders/" + file.getName());
+        }
+        for (var file : listFiles("levels", ".txt")) {
+            builder.addFile("levels/" + file.getName());
+        }
+
+        Files.deleteIfExists(new File(fileName).toPath());
+        builder.write(fileName);
+        System.out.printf("Wrote %d assets, %d bytes, to %s\n", builder.m_Entries.size(), builder.m_TotalBytes, fileName);
+    }
+
+    private AssetPackBuilder() {
+        m_Entries = new ArrayList<>();
+        m_TotalBytes = 0;
+    }
+
+    private void addMesh(String fileName) throws Exception {
+        CompiledMesh compiledMesh = CompiledMesh.compile(fileName);
+        addEntry(fileName, compiledMesh.getSizeInBytes(), compiledMesh::write);
+    }
+
+    private void addTexture(String fileName) throws Exception {
+        BufferedImage image = ImageIO.read(new File(fileName));
+        ByteBuffer pixels = GLTexture.toRgbaPixels(image);
+        addEntry(fileName, AssetPack.getTextureSizeInBytes(pixels), (destination) -> AssetPack.writeTexture(destination, image, pixels));
+    }
+
+    private void addFile(String fileName) throws Exception {
+        byte[] contents = Files.readAllBytes(new File(fileName).toPath());
+        addEntry(fileName, contents.length, (destination) -> destination.put(contents));
+    }
+
+    private void addEntry(String fileName, int size, Consumer<ByteBuffer> writer) {
+        m_Entries.add(new Entry(fileName, size, writer));
+        m_TotalBytes += size;
+    }
+
+    private void write(String fileName) {
+        long environment = 0;
+        long transaction = 0;
+        try (MemoryStack stack = MemoryStack.stackPush()) {
+            PointerBuffer pointer = stack.mallocPointer(1);
+            check(mdb_env_create(pointer));
+            environment = pointer.get(0);
+
+            // Every asset is known by now, so the map can be sized to fit them all, plus room for LMDB's own pages
+            check(mdb_env_set_mapsize(environment, m_TotalBytes * 2 + s_MapSizeSlack));
+            check(mdb_env_open(environment, fileName, MDB_NOSUBDIR | MDB_NOLOCK, 0664));
+
+            check(mdb_txn_begin(environment, 0, 0, pointer));
+            transaction = pointer.get(0);
+
+            IntBuffer database = stack.mallocInt(1);
+            check(mdb_dbi_open(transaction, (CharSequence)null, 0, database));
+
+            for (var entry : m_Entries) {
+                try (MemoryStack entryStack = stack.push()) {
+                    // MDB_RESERVE hands back space within the map, so each asset is written straight into the file
+                    MDBVal key = MDBVal.callocStack(entryStack).mv_data(entryStack.UTF8(entry.m_FileName, false));
+                    MDBVal data = MDBVal.callocStack(entryStack).mv_size(entry.m_Size);
+                    check(mdb_put(transaction, database.get(0), key, data, MDB_RESERVE));
+                    entry.m_Writer.accept(data.mv_data().order(ByteOrder.nativeOrder()));
+                }
+            }
+
+            // The transaction is freed by the commit, whether or not it succeeds
+            long committing = transaction;
+            transaction = 0;
+            check(mdb_txn_commit(committing));
+        }
+        finally {
+            // An entry's writer or mdb_put() threw, so the assets written so far are discarded
+            if (transaction != 0) {
+                mdb_txn_abort(transaction);
+            }
+            if (environment != 0) {
+                mdb_env_close(environment);
+            }
+        }
+    }
+
+    private static File[] listFiles(String directoryName, String extension) {
+        File[] files = new File(directoryName).listFiles((file) -> file.isFile() && file.getName().endsWith(extension));
+        if (files == null) {
+            throw new RuntimeException("Unable to list the files within [" + directoryName + "]");
+        }
+        return files;
+    }
+}
@@ -16,8 +16,6 @@ package com.snakegame.client;
 import com.snakegame.opengl.*;
 import org.joml.Matrix4f;
 
-import javax.imageio.ImageIO;
-import java.io.File;
 import java.io.IOException;
 import java.util.function.Consumer;
 
@@ -36,12 +34,12 @@ public class Button {
     private boolean m_Focused;
     private boolean m_Pressed;
 
-    public Button(IGameView view, String notPressedFileName, String notPressedFocusedFileName, String pressedFileName) throws IOException {
+    public Button(IGameView view, ResourceCache resourceCache, String notPressedFileName, String notPressedFocusedFileName, String pressedFileName) throws IOException {
         m_View = view;
-        m_NotPressedTexture = new GLTexture(ImageIO.read(new File(notPressedFileName)));
-        m_NotPressedFocusedTexture = new GLTexture(ImageIO.read(new File(notPressedFocusedFileName)));
-        m_PressedTexture = new GLTexture(ImageIO.read(new File(pressedFileName)));
-        m_Polyhedron = m_View.createPolyhedron(0, 0, m_NotPressedTexture.getWidth(), m_NotPressedTexture.getHeight(), m_NotPressedTexture);
+        m_NotPressedTexture = resourceCache.getTexture(notPressedFileName);
+        m_NotPressedFocusedTexture = resourceCache.getTexture(notPressedFocusedFileName);
+        m_PressedTexture = resourceCache.getTexture(pressedFileName);
+        m_Polyhedron = resourceCache.getPolyhedron(notPressedFileName);
         m_ModelMatrix = new Matrix4f();
         m_X = m_Y = 0;
     }
@@ -56,13 +54,6 @@ public class Button {
         }
     }
 
-    public void freeNativeResources() {
-        m_NotPressedTexture.freeNativeResource();
-        m_NotPressedFocusedTexture.freeNativeResource();
-        m_PressedTexture.freeNativeResource();
-        m_Polyhedron.freeNativeResources();
-    }
-
     public void setPosition(float x, float y) {
         m_X = x;
         m_Y = y;
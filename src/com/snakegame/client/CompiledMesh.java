@@ -0,0 +1,221 @@
+//
+// Snake Game
+// https://en.wikipedia.org/wiki/Snake_(video_game_genre)
+//
+// Based on the 1976 arcade game Blockade, and the 1991 game Nibbles
+// https://en.wikipedia.org/wiki/Blockade_(video_game)
+// https://en.wikipedia.org/wiki/Nibbles_(video_game)
+//
+// This implementation is Copyright (c) 2021, Damian Coventry
+// All rights reserved
+// Written for Massey University course 159.261 Game Programming (Assignment 1)
+//
+
+package com.snakegame.client;
+
+import com.snakegame.opengl.*;
+import org.lwjgl.BufferUtils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+
+/**
+ * This class holds a display mesh as flat arrays of vertices, texture coordinates and normals, one set per piece,
+ * ready to be copied into vertex buffer objects. It's created either by parsing a Wavefront .obj file, or by reading
+ * the binary form that write() produces. The binary form is read in place, the float buffers of each piece are views
+ * onto the source buffer.
+ * */
+public class CompiledMesh {
+    private final ArrayList<Piece> m_Pieces;
+
+    public static class Piece {
+        private final String m_DiffuseTextureFileName;
+        private final FloatBuffer m_Vertices;
+        private final FloatBuffer m_TexCoordinates;
+        private final FloatBuffer m_Normals;
+        public Piece(String diffuseTextureFileName, FloatBuffer vertices, FloatBuffer texCoordinates, FloatBuffer normals) {
+            m_DiffuseTextureFileName = diffuseTextureFileName;
+            m_Vertices = vertices;
+            m_TexCoordinates = texCoordinates;
+            m_Normals = normals;
+        }
+        public String getDiffuseTextureFileName() {
+            return m_DiffuseTextureFileName;
+        }
+        public int getNumVertices() {
+            return m_Vertices.remaining() / 3;
+        }
+        public FloatBuffer getVertices() {
+            return m_Vertices;
+        }
+        public FloatBuffer getTexCoordinates() {
+            return m_TexCoordinates;
+        }
+        public FloatBuffer getNormals() {
+            return m_Normals;
+        }
+    }
+
+    private CompiledMesh() {
+        m_Pieces = new ArrayList<>();
+    }
+
+    public ArrayList<Piece> getPieces() {
+        return m_Pieces;
+    }
+
+    public static CompiledMesh compile(String fileName) throws Exception {
+        final ObjFile objFile = new ObjFile(fileName);
+        if (objFile.getObjects() == null || objFile.getObjects().isEmpty()) {
+            throw new RuntimeException("Object file has no objects");
+        }
+
+        final ObjFile.Object object = objFile.getObjects().get(0);
+        if (object.getPieces() == null || object.getPieces().isEmpty()) {
+            throw new RuntimeException("Object has no pieces");
+        }
+
+        final ArrayList<MtlFile> materialFiles = new ArrayList<>();
+        for (var materialFileName : objFile.getMaterialFileNames()) {
+            materialFiles.add(new MtlFile("meshes/" + materialFileName));
+        }
+
+        CompiledMesh compiledMesh = new CompiledMesh();
+        for (var piece : object.getPieces()) {
+            compiledMesh.m_Pieces.add(new Piece(
+                    findDiffuseTextureFileName(materialFiles, piece),
+                    loadVertices(objFile, piece),
+                    loadTexCoordinates(objFile, piece),
+                    loadNormals(objFile, piece)));
+        }
+        return compiledMesh;
+    }
+
+    // The layout is the number of pieces, then for each piece: the length of the diffuse texture's file name, the file
+    // name padded to a multiple of 4 bytes, the number of vertices, the vertices, the texture coordinates and the normals
+    public static CompiledMesh read(ByteBuffer buffer) {
+        ByteBuffer source = buffer.slice().order(ByteOrder.nativeOrder());
+        CompiledMesh compiledMesh = new CompiledMesh();
+
+        int numPieces = source.getInt();
+        for (int i = 0; i < numPieces; ++i) {
+            int fileNameLength = source.getInt();
+            byte[] fileName = new byte[fileNameLength];
+            source.get(fileName);
+            source.position(source.position() + getPadding(fileNameLength));
+
+            int numVertices = source.getInt();
+            FloatBuffer vertices = sliceFloats(source, numVertices * 3);
+            FloatBuffer texCoordinates = sliceFloats(source, numVertices * 2);
+            FloatBuffer normals = sliceFloats(source, numVertices * 3);
+
+            compiledMesh.m_Pieces.add(new Piece(new String(fileName, StandardCharsets.UTF_8), vertices, texCoordinates, normals));
+        }
+        return compiledMesh;
+    }
+
+    public int getSizeInBytes() {
+        int size = Integer.BYTES;
+        for (var piece : m_Pieces) {
+            int fileNameLength = piece.m_DiffuseTextureFileName.getBytes(StandardCharsets.UTF_8).length;
+            size += Integer.BYTES + fileNameLength + getPadding(fileNameLength);
+            size += Integer.BYTES + piece.getNumVertices() * (3 + 2 + 3) * Float.BYTES;
+        }
+        return size;
+    }
+
+    public void write(ByteBuffer buffer) {
+        ByteBuffer destination = buffer.slice().order(ByteOrder.nativeOrder());
+        destination.putInt(m_Pieces.size());
+        for (var piece : m_Pieces) {
+            byte[] fileName = piece.m_DiffuseTextureFileName.getBytes(StandardCharsets.UTF_8);
+            destination.putInt(fileName.length);
+            destination.put(fileName);
+            destination.position(destination.position() + getPadding(fileName.length));
+
+            destination.putInt(piece.getNumVertices());
+            destination.asFloatBuffer().put(piece.m_Vertices.duplicate());
+            destination.position(destination.position() + piece.m_Vertices.remaining() * Float.BYTES);
+            destination.asFloatBuffer().put(piece.m_TexCoordinates.duplicate());
+            destination.position(destination.position() + piece.m_TexCoordinates.remaining() * Float.BYTES);
+            destination.asFloatBuffer().put(piece.m_Normals.duplicate());
+            destination.position(destination.position() + piece.m_Normals.remaining() * Float.BYTES);
+        }
+    }
+
+    public GLStaticPolyhedronVxTcNm createDisplayMesh(AssetPack assetPack) throws IOException {
+        GLStaticPolyhedronVxTcNm displayMesh = new GLStaticPolyhedronVxTcNm();
+        for (var piece : m_Pieces) {
+            GLTexture diffuseTexture = assetPack.loadTexture(piece.m_DiffuseTextureFileName);
+            displayMesh.addPiece(new GLStaticPolyhedronPieceVxTcNm(diffuseTexture,
+                    piece.m_Vertices, piece.m_TexCoordinates, piece.m_Normals));
+        }
+        return displayMesh;
+    }
+
+    private static int getPadding(int length) {
+        return (Integer.BYTES - (length % Integer.BYTES)) % Integer.BYTES;
+    }
+
+    private static FloatBuffer sliceFloats(ByteBuffer source, int numFloats) {
+        ByteBuffer floats = source.slice().order(ByteOrder.nativeOrder());
+        floats.limit(numFloats * Float.BYTES);
+        source.position(source.position() + numFloats * Float.BYTES);
+        return floats.asFloatBuffer();
+    }
+
+    private static String findDiffuseTextureFileName(ArrayList<MtlFile> materialFiles, ObjFile.Piece piece) {
+        String diffuseTextureFileName = null;
+        for (var materialFile : materialFiles) {
+            for (var material : materialFile.getMaterials()) {
+                if (material.getName().equalsIgnoreCase(piece.getMaterialName())) {
+                    if (material.getDiffuseTexture() == null) {
+                        throw new RuntimeException("Material [" + material.getName() + "] does not have a diffuse texture");
+                    }
+                    diffuseTextureFileName = "meshes/" + material.getDiffuseTexture();
+                }
+            }
+        }
+        if (diffuseTextureFileName == null) {
+            throw new RuntimeException("The level file does not have a valid diffuse texture within a piece");
+        }
+        return diffuseTextureFileName;
+    }
+
+    private static FloatBuffer loadVertices(ObjFile objFile, ObjFile.Piece piece) {
+        FloatBuffer vertices = BufferUtils.createFloatBuffer(piece.getFaces().size() * 3 * 3);
+        for (var face : piece.getFaces()) {
+            for (int i = 0; i < 3; ++i) {
+                ObjFile.Vertex vertex = objFile.getVertices().get(face.m_Vertices[i]);
+                vertices.put(vertex.m_X).put(vertex.m_Y).put(vertex.m_Z);
+            }
+        }
+        return vertices.flip();
+    }
+
+    private static FloatBuffer loadTexCoordinates(ObjFile objFile, ObjFile.Piece piece) {
+        FloatBuffer texCoordinates = BufferUtils.createFloatBuffer(piece.getFaces().size() * 3 * 2);
+        for (var face : piece.getFaces()) {
+            for (int i = 0; i < 3; ++i) {
+                ObjFile.TexCoordinate texCoordinate = objFile.getTexCoordinates().get(face.m_TexCoordinates[i]);
+                texCoordinates.put(texCoordinate.m_U).put(1 - texCoordinate.m_V);
+            }
+        }
+        return texCoordinates.flip();
+    }
+
+    private static FloatBuffer loadNormals(ObjFile objFile, ObjFile.Piece piece) {
+        FloatBuffer normals = BufferUtils.createFloatBuffer(piece.getFaces().size() * 3 * 3);
+        for (var face : piece.getFaces()) {
+            for (int i = 0; i < 3; ++i) {
+                ObjFile.Vertex normal = objFile.getNormals().get(face.m_Normals[i]);
+                normals.put(normal.m_X).put(normal.m_Y).put(normal.m_Z);
+            }
+        }
+        return normals.flip();
+    }
+}
@@ -0,0 +1,306 @@
+//
+// Snake Game
+// https://en.wikipedia.org/wiki/Snake_(video_game_genre)
+//
+// Based on the 1976 arcade game Blockade, and the 1991 game Nibbles
+// https://en.wikipedia.org/wiki/Blockade_(video_game)
+// https://en.wikipedia.org/wiki/Nibbles_(video_game)
+//
+// This implementation is Copyright (c) 2021, Damian Coventry
+// All rights reserved
+// Written for Massey University course 159.261 Game Programming (Assignment 1)
+//
+
+package com.snakegame.client;
+
+import com.snakegame.opengl.GLTexture;
+import com.snakegame.rules.GameField;
+import org.joml.Matrix4f;
+
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+/**
+ * This class is a cheaper alternative to Bullet for the purely cosmetic giblets. Each piece is a small sphere that
+ * bounces off the ground plane and the walls of the game field, and that tumbles without colliding with the other
+ * pieces. The state of the pieces is kept as a structure of arrays of primitives, so updating them is a few tight
+ * loops over memory that's already in the cache, and a large number of them is updated in parallel on the common
+ * fork join pool. All of this runs on the main thread, within GameView.think().
+ * */
+public class DebrisSystem {
+    private static final int s_Capacity = 8192;
+    private static final int s_MaxTextures = 8;
+    // Fewer pieces than this are updated on the calling thread, handing them out costs more than it saves
+    private static final int s_MinParallelPieces = 2048;
+    private static final int s_PiecesPerTask = 512;
+    private static final float s_Gravity = -9.81f;
+    private static final float s_Restitution = 0.35f;
+    private static final float s_GroundFriction = 0.9f;
+    private static final float s_WallHeight = 1.0f;
+    private static final float s_LifetimeSeconds = 8.0f;
+
+    private final float m_Radius;
+    private final float m_CellSize;
+    private final float m_FieldMinX;
+    private final float m_FieldMaxZ;
+    private final boolean[] m_WallCells;
+    private final GLTexture[] m_Textures;
+    private int m_NumTextures;
+
+    // Indexed by piece, pieces [0, m_NumPieces) are alive
+    private final float[] m_PositionX, m_PositionY, m_PositionZ;
+    private final float[] m_VelocityX, m_VelocityY, m_VelocityZ;
+    private final float[] m_OrientationX, m_OrientationY, m_OrientationZ, m_OrientationW;
+    private final float[] m_SpinX, m_SpinY, m_SpinZ;
+    private final float[] m_AgeSeconds;
+    private final byte[] m_TextureIndices;
+    private int m_NumPieces;
+
+    private final Matrix4f m_Matrix;
+    private final int[] m_TextureCounts;
+    private float m_SecondsPerUpdate;
+
+    public DebrisSystem(float radius, float cellSize) {
+        m_Radius = radius;
+        m_CellSize = cellSize;
+        m_FieldMinX = GameField.WIDTH / 2.0f * -cellSize;
+        m_FieldMaxZ = GameField.HEIGHT / 2.0f * cellSize;
+        m_WallCells = new boolean[GameField.TOTAL_CELLS];
+        m_Textures = new GLTexture[s_MaxTextures];
+        m_NumTextures = 0;
+
+        m_PositionX = new float[s_Capacity];
+        m_PositionY = new float[s_Capacity];
+        m_PositionZ = new float[s_Capacity];
+        m_VelocityX = new float[s_Capacity];
+        m_VelocityY = new float[s_Capacity];
+        m_VelocityZ = new float[s_Capacity];
+        m_OrientationX = new float[s_Capacity];
+        m_OrientationY = new float[s_Capacity];
+        m_OrientationZ = new float[s_Capacity];
+        m_OrientationW = new float[s_Capacity];
+        m_SpinX = new float[s_Capacity];
+        m_SpinY = new float[s_Capacity];
+        m_SpinZ = new float[s_Capacity];
+        m_AgeSeconds = new float[s_Capacity];
+        m_TextureIndices = new byte[s_Capacity];
+        m_NumPieces = 0;
+
+        m_Matrix = new Matrix4f();
+        m_TextureCounts = new int[s_MaxTextures];
+    }
+
+    public int getCapacity() {
+        return s_Capacity;
+    }
+
+    public int getNumPieces() {
+        return m_NumPieces;
+    }
+
+    // The walls are copied, so the pieces can be updated on other threads while the rules change the game field
+    public void setWalls(GameField gameField) {
+        for (int z = 0; z < GameField.HEIGHT; ++z) {
+            for (int x = 0; x < GameField.WIDTH; ++x) {
+                m_WallCells[z * GameField.WIDTH + x] = gameField.getCellType(x, z) == GameField.CellType.WALL;
+            }
+        }
+    }
+
+    public void clear() {
+        m_NumPieces = 0;
+        m_NumTextures = 0;
+        Arrays.fill(m_Textures, null);
+    }
+
+    // When every piece is in use the new piece is dropped, the ones already flying are more noticeable
+    public void spawn(float x, float y, float z, Random rng, GLTexture texture) {
+        if (m_NumPieces == s_Capacity) {
+            return;
+        }
+        int textureIndex = getTextureIndex(texture);
+        if (textureIndex == -1) {
+            return;
+        }
+
+        int i = m_NumPieces++;
+        m_PositionX[i] = x;
+        m_PositionY[i] = y;
+        m_PositionZ[i] = z;
+        m_VelocityX[i] = rng.nextFloat() * 2.0f - 1.0f;
+        m_VelocityY[i] = rng.nextFloat() * 2.0f;
+        m_VelocityZ[i] = rng.nextFloat() * 2.0f - 1.0f;
+        m_SpinX[i] = rng.nextFloat() * 10.0f - 5.0f;
+        m_SpinY[i] = rng.nextFloat() * 10.0f - 5.0f;
+        m_SpinZ[i] = rng.nextFloat() * 10.0f - 5.0f;
+        m_AgeSeconds[i] = 0.0f;
+        m_TextureIndices[i] = (byte)textureIndex;
+
+        // A uniformly random orientation, see Shoemake's "Uniform Random Rotations" in Graphics Gems III
+        float u1 = rng.nextFloat(), u2 = rng.nextFloat() * 2.0f * (float)Math.PI, u3 = rng.nextFloat() * 2.0f * (float)Math.PI;
+        float a = (float)Math.sqrt(1.0f - u1), b = (float)Math.sqrt(u1);
+        m_OrientationX[i] = a * (float)Math.sin(u2);
+        m_OrientationY[i] = a * (float)Math.cos(u2);
+        m_OrientationZ[i] = b * (float)Math.sin(u3);
+        m_OrientationW[i] = b * (float)Math.cos(u3);
+    }
+
+    private int getTextureIndex(GLTexture texture) {
+        for (int i = 0; i < m_NumTextures; ++i) {
+            if (m_Textures[i] == texture) {
+                return i;
+            }
+        }
+        if (m_NumTextures == s_MaxTextures) {
+            return -1;
+        }
+        m_Textures[m_NumTextures] = texture;
+        return m_NumTextures++;
+    }
+
+    public void update(float seconds) {
+        if (m_NumPieces == 0) {
+            return;
+        }
+        m_SecondsPerUpdate = seconds;
+        if (m_NumPieces < s_MinParallelPieces) {
+            update(0, m_NumPieces);
+        }
+        else {
+            int numTasks = (m_NumPieces + s_PiecesPerTask - 1) / s_PiecesPerTask;
+            IntStream.range(0, numTasks).parallel().forEach(this::updateTask);
+        }
+        removeExpiredPieces();
+    }
+
+    private void updateTask(int task) {
+        int first = task * s_PiecesPerTask;
+        update(first, Math.min(m_NumPieces, first + s_PiecesPerTask));
+    }
+
+    // Only touches the pieces within [first, last), so the tasks never write to the same elements
+    private void update(int first, int last) {
+        float dt = m_SecondsPerUpdate;
+        for (int i = first; i < last; ++i) {
+            m_AgeSeconds[i] += dt;
+            m_VelocityY[i] += s_Gravity * dt;
+
+            float oldX = m_PositionX[i];
+            float oldZ = m_PositionZ[i];
+            float x = oldX + m_VelocityX[i] * dt;
+            float y = m_PositionY[i] + m_VelocityY[i] * dt;
+            float z = oldZ + m_VelocityZ[i] * dt;
+
+            // Each axis is tested on its own, so a piece slides along a wall rather than sticking to it. A piece that
+            // was above the walls isn't pushed back, it lands on top of them instead.
+            if (m_PositionY[i] < s_WallHeight + m_Radius) {
+                if (isWall(x, oldZ)) {
+                    x = oldX;
+                    m_VelocityX[i] *= -s_Restitution;
+                }
+                if (isWall(x, z)) {
+                    z = oldZ;
+                    m_VelocityZ[i] *= -s_Restitution;
+                }
+            }
+
+            float groundY = (isWall(x, z) ? s_WallHeight : 0.0f) + m_Radius;
+            if (y < groundY) {
+                y = groundY;
+                if (m_VelocityY[i] < 0.0f) {
+                    m_VelocityY[i] *= -s_Restitution;
+                }
+                m_VelocityX[i] *= s_GroundFriction;
+                m_VelocityZ[i] *= s_GroundFriction;
+                m_SpinX[i] *= s_GroundFriction;
+                m_SpinY[i] *= s_GroundFriction;
+                m_SpinZ[i] *= s_GroundFriction;
+            }
+
+            m_PositionX[i] = x;
+            m_PositionY[i] = y;
+            m_PositionZ[i] = z;
+
+            // dq/dt = 0.5 * (0, spin) * q, followed by renormalising
+            float qx = m_OrientationX[i], qy = m_OrientationY[i], qz = m_OrientationZ[i], qw = m_OrientationW[i];
+            float sx = m_SpinX[i] * 0.5f * dt, sy = m_SpinY[i] * 0.5f * dt, sz = m_SpinZ[i] * 0.5f * dt;
+            float nx = qx + sx * qw + sy * qz - sz * qy;
+            float ny = qy + sy * qw + sz * qx - sx * qz;
+            float nz = qz + sz * qw + sx * qy - sy * qx;
+            float nw = qw - sx * qx - sy * qy - sz * qz;
+            float inverseLength = 1.0f / (float)Math.sqrt(nx * nx + ny * ny + nz * nz + nw * nw);
+            m_OrientationX[i] = nx * inverseLength;
+            m_OrientationY[i] = ny * inverseLength;
+            m_OrientationZ[i] = nz * inverseLength;
+            m_OrientationW[i] = nw * inverseLength;
+        }
+    }
+
+    // Anything outside of the game field counts as a wall
+    private boolean isWall(float x, float z) {
+        int cellX = (int)Math.floor((x - m_FieldMinX) / m_CellSize);
+        int cellZ = (int)Math.floor((m_FieldMaxZ - z) / m_CellSize);
+        if (cellX < 0 || cellX >= GameField.WIDTH || cellZ < 0 || cellZ >= GameField.HEIGHT) {
+            return true;
+        }
+        return m_WallCells[cellZ * GameField.WIDTH + cellX];
+    }
+
+    // The last piece is moved into each expired piece's place
+    private void removeExpiredPieces() {
+        int i = 0;
+        while (i < m_NumPieces) {
+            if (m_AgeSeconds[i] < s_LifetimeSeconds) {
+                ++i;
+                continue;
+            }
+            int last = --m_NumPieces;
+            m_PositionX[i] = m_PositionX[last];
+            m_PositionY[i] = m_PositionY[last];
+            m_PositionZ[i] = m_PositionZ[last];
+            m_VelocityX[i] = m_VelocityX[last];
+            m_VelocityY[i] = m_VelocityY[last];
+            m_VelocityZ[i] = m_VelocityZ[last];
+            m_OrientationX[i] = m_OrientationX[last];
+            m_OrientationY[i] = m_OrientationY[last];
+            m_OrientationZ[i] = m_OrientationZ[last];
+            m_OrientationW[i] = m_OrientationW[last];
+            m_SpinX[i] = m_SpinX[last];
+            m_SpinY[i] = m_SpinY[last];
+            m_SpinZ[i] = m_SpinZ[last];
+            m_AgeSeconds[i] = m_AgeSeconds[last];
+            m_TextureIndices[i] = m_TextureIndices[last];
+        }
+    }
+
+    // Each texture's pieces are written as one run within the snapshot, so each texture is drawn with one call
+    public void writeSnapshot(GibletSnapshot snapshot) {
+        snapshot.clear();
+        if (m_NumPieces == 0) {
+            return;
+        }
+
+        Arrays.fill(m_TextureCounts, 0);
+        for (int i = 0; i < m_NumPieces; ++i) {
+            ++m_TextureCounts[m_TextureIndices[i]];
+        }
+
+        FloatBuffer transforms = snapshot.getTransforms();
+        for (int texture = 0; texture < m_NumTextures; ++texture) {
+            if (m_TextureCounts[texture] == 0) {
+                continue;
+            }
+            snapshot.beginRun(m_Textures[texture]);
+            for (int i = 0; i < m_NumPieces; ++i) {
+                if (m_TextureIndices[i] != texture) {
+                    continue;
+                }
+                m_Matrix.translationRotate(m_PositionX[i], m_PositionY[i], m_PositionZ[i],
+                        m_OrientationX[i], m_OrientationY[i], m_OrientationZ[i], m_OrientationW[i]);
+                m_Matrix.get(snapshot.add(), transforms);
+            }
+        }
+    }
+}
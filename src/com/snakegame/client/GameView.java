@@ -13,19 +13,18 @@
 
 package com.snakegame.client;
 
-import com.jme3.bullet.collision.shapes.*;
-import com.jme3.bullet.collision.shapes.infos.IndexedMesh;
-import com.jme3.bullet.objects.PhysicsRigidBody;
+import com.jme3.bullet.PhysicsSpace;
 import com.jme3.math.*;
+import com.snakegame.application.Application;
 import com.snakegame.application.IAppStateContext;
 import com.snakegame.opengl.*;
+import com.snakegame.profiling.ResourcesLoadEvent;
 import com.snakegame.rules.*;
 import com.snakegame.rules.Number;
 import org.joml.Matrix4f;
 import org.joml.Vector3f;
 import org.joml.Vector4f;
 
-import javax.imageio.ImageIO;
 import java.io.*;
 import java.lang.Math;
 import java.util.*;
@@ -47,9 +46,10 @@ public class GameView implements IGameView {
     private static final float s_ItemXRotationRadians = (float)Math.toRadians(7.5f);
     private static final float s_ItemBobOffsetMax = 0.30f;
     private static final float s_ItemBobRotationInc = 180.0f;
-    private static final float s_MsPerFrame = 0.01666666f;
     private static final float s_LightShininess = 32.0f;
     private static final float s_SnakeGibletHalfSize = 0.25f;
+    // The engine used by spawnSnakeGiblets(Snake), e.g. -Dsnakegame.giblets=particles
+    private static final GibletEngine s_DefaultGibletEngine = readGibletEngineProperty();
     private static final long s_MaxRandomPowerUpTypeTime = 250;
     private static final float s_AppleNumberScale = 0.05f;
     private static final float s_PowerUpScaleStart = 0.03f;
@@ -57,6 +57,16 @@ public class GameView implements IGameView {
     private static final float s_PowerUpVerticalMovement = 0.03222f;
     private static final float s_PowerUpFadeOutInc = 0.004f;
     private static final Vector4f s_Yellow = new Vector4f(1.0f, 1.0f, 0.0f, 1.0f);
+    private static final Vector4f s_Red = new Vector4f(1.0f, 0.0f, 0.0f, 1.0f);
+    private static final Vector4f s_Green = new Vector4f(0.0f, 1.0f, 0.0f, 1.0f);
+    private static final String[][] s_ShaderFileNames = {
+            { GLDiffuseTextureProgram.s_VertexShaderFileName, GLDiffuseTextureProgram.s_FragmentShaderFileName },
+            { GLSpecularDirectionalLightProgram.s_VertexShaderFileName, GLSpecularDirectionalLightProgram.s_FragmentShaderFileName },
+            { GLDirectionalLightProgram.s_VertexShaderFileName, GLDirectionalLightProgram.s_FragmentShaderFileName },
+            { GLDiffuseTextureAlphaFadeProgram.s_VertexShaderFileName, GLDiffuseTextureAlphaFadeProgram.s_FragmentShaderFileName },
+            { GLSpecularDirectionalLightClipPlaneProgram.s_VertexShaderFileName, GLSpecularDirectionalLightClipPlaneProgram.s_FragmentShaderFileName },
+            { GLSpecularDirectionalLightInstancedProgram.s_VertexShaderFileName, GLSpecularDirectionalLightInstancedProgram.s_FragmentShaderFileName },
+    };
 
     private final Matrix4f m_MvMatrix;
     private final Matrix4f m_MvpMatrix;
@@ -64,8 +74,10 @@ public class GameView implements IGameView {
     private final Matrix4f m_ModelMatrix;
     private final Matrix4f m_ViewMatrix;
 
+    private final AssetPack m_AssetPack;
     private final GLDiffuseTextureProgram m_DiffuseTexturedProgram;
     private final GLSpecularDirectionalLightProgram m_SpecularDirectionalLightProgram;
+    private final GLSpecularDirectionalLightInstancedProgram m_SpecularDirectionalLightInstancedProgram;
     private final GLDirectionalLightProgram m_DirectionalLightProgram;
     private final GLDiffuseTextureAlphaFadeProgram m_DiffuseTextureAlphaFadeProgram;
     private final GLSpecularDirectionalLightClipPlaneProgram m_SpecularDirectionalLightClipPlaneProgram;
@@ -101,6 +113,7 @@ public class GameView implements IGameView {
 
     private IAppStateContext m_Context;
     private Toolbar m_Toolbar;
+    private RulesSnapshot m_RulesSnapshot;
     private GameField m_GameField;
     private Snake[] m_Snakes;
     private float m_ItemYRotation;
@@ -109,47 +122,76 @@ public class GameView implements IGameView {
     private float m_PowerUpScale;
     private int m_RandomPowerUpType;
     private long m_LastRandomPowerUpTypeTime;
-
-    private static class SnakeGiblet {
-        PhysicsRigidBody m_RigidBody;
-        GLTexture m_SnakeSkinTexture;
-        public SnakeGiblet(PhysicsRigidBody rigidBody, GLTexture snakeSkinTexture) {
-            m_RigidBody = rigidBody;
-            m_SnakeSkinTexture = snakeSkinTexture;
+    private boolean m_ResourcesLoaded;
+    private WorldCollisionProxy m_WorldCollisionProxy;
+
+    // The pool belongs to the physics thread, this thread only reads the snapshots it publishes
+    private final GibletPool m_GibletPool;
+    private final SnapshotBuffer<GibletSnapshot> m_GibletSnapshots;
+    private final GLInstanceBuffer m_GibletInstanceBuffer;
+    private final DebrisSystem m_DebrisSystem;
+    private final GibletSnapshot m_DebrisSnapshot;
+
+    // An unknown engine is reported and the default used instead, so a typo doesn't stop the view from loading
+    private static GibletEngine readGibletEngineProperty() {
+        String value = System.getProperty("snakegame.giblets", "bullet");
+        try {
+            return GibletEngine.valueOf(value.toUpperCase());
+        }
+        catch (IllegalArgumentException e) {
+            // The message names the unknown value
+            e.printStackTrace();
+            return GibletEngine.BULLET;
         }
     }
 
-    private final ArrayList<SnakeGiblet> m_SnakeGibRigidBodies;
-
-    public GameView() throws Exception {
+    public GameView(AssetPack assetPack, Random rng) throws Exception {
+        m_AssetPack = assetPack;
         m_MvMatrix = new Matrix4f();
         m_MvpMatrix = new Matrix4f();
         m_ProjectionMatrix = new Matrix4f();
         m_ModelMatrix = new Matrix4f();
         m_ViewMatrix = new Matrix4f();
 
-        m_SnakeGibRigidBodies = new ArrayList<>();
-        m_Rng = new Random();
+        m_GibletPool = new GibletPool(s_SnakeGibletHalfSize);
+        m_GibletSnapshots = new SnapshotBuffer<>(() -> new GibletSnapshot(m_GibletPool.getCapacity()));
+        m_DebrisSystem = new DebrisSystem(s_SnakeGibletHalfSize, s_CellSize);
+        m_DebrisSnapshot = new GibletSnapshot(m_DebrisSystem.getCapacity());
+        // The one buffer is shared by both kinds of giblets, a vertex array can only have one attached
+        m_GibletInstanceBuffer = new GLInstanceBuffer(Math.max(m_GibletPool.getCapacity(), m_DebrisSystem.getCapacity()));
+        m_Rng = rng;
 
         m_ViewMatrix.rotate((float)Math.toRadians(-s_CameraXRotation), 1.0f, 0.0f, 0.0f)
                     .translate(0, -s_CameraYPosition, -s_CameraZPosition);
 
-        m_DiffuseTexturedProgram = new GLDiffuseTextureProgram();
+        // All the programs are submitted to the driver before any of them is waited on
+        GLProgramCache programCache = new GLProgramCache(AssetCache.s_DirectoryName);
+        for (var fileNames : s_ShaderFileNames) {
+            programCache.startLinking(m_AssetPack.readText(fileNames[0]), m_AssetPack.readText(fileNames[1]));
+        }
+
+        m_DiffuseTexturedProgram = new GLDiffuseTextureProgram(m_AssetPack::readText, programCache);
 
         Vector3f lightDirection = new Vector3f(-0.5f, 0.0f, 1.0f).normalize();
 
-        m_SpecularDirectionalLightProgram = new GLSpecularDirectionalLightProgram();
+        m_SpecularDirectionalLightProgram = new GLSpecularDirectionalLightProgram(m_AssetPack::readText, programCache);
         m_SpecularDirectionalLightProgram.setAmbientLight(new Vector3f(0.15f, 0.15f, 0.15f));
         m_SpecularDirectionalLightProgram.setLightDirection(lightDirection);
         m_SpecularDirectionalLightProgram.setLightIntensity(s_LightIntensity);
         m_SpecularDirectionalLightProgram.setShininess(s_LightShininess);
 
-        m_DirectionalLightProgram = new GLDirectionalLightProgram();
+        m_SpecularDirectionalLightInstancedProgram = new GLSpecularDirectionalLightInstancedProgram(m_AssetPack::readText, programCache);
+        m_SpecularDirectionalLightInstancedProgram.setAmbientLight(new Vector3f(0.15f, 0.15f, 0.15f));
+        m_SpecularDirectionalLightInstancedProgram.setLightDirection(lightDirection);
+        m_SpecularDirectionalLightInstancedProgram.setLightIntensity(s_LightIntensity);
+        m_SpecularDirectionalLightInstancedProgram.setShininess(s_LightShininess);
+
+        m_DirectionalLightProgram = new GLDirectionalLightProgram(m_AssetPack::readText, programCache);
         m_DirectionalLightProgram.setLightDirection(lightDirection);
         m_DirectionalLightProgram.setLightIntensity(s_LightIntensity);
 
-        m_DiffuseTextureAlphaFadeProgram = new GLDiffuseTextureAlphaFadeProgram();
-        m_SpecularDirectionalLightClipPlaneProgram = new GLSpecularDirectionalLightClipPlaneProgram("meshes/Noise64x64.png");
+        m_DiffuseTextureAlphaFadeProgram = new GLDiffuseTextureAlphaFadeProgram(m_AssetPack::readText, programCache);
+        m_SpecularDirectionalLightClipPlaneProgram = new GLSpecularDirectionalLightClipPlaneProgram(m_AssetPack::readText, programCache, m_AssetPack.loadTexture("meshes/Noise64x64.png"));
 
         m_PowerUpTypes = new PowerUp.Type[] {
                 PowerUp.Type.INC_SPEED, PowerUp.Type.DEC_SPEED,
@@ -164,14 +206,32 @@ public class GameView implements IGameView {
         m_ItemYRotation = 0.0f;
         m_ItemBobRotation = 0.0f;
         m_ItemBobOffset = 0.0f;
+        m_ResourcesLoaded = false;
     }
 
     @Override
     public void setAppStateContext(IAppStateContext context) throws IOException {
+        if (m_Context != context) {
+            context.getPhysicsWorker().addStepListener(this::physicsStepped);
+        }
         m_Context = context;
-        m_GameField = m_Context.getController().getGameField();
-        m_Snakes = m_Context.getController().getSnakes();
-        m_Toolbar = new Toolbar(m_Context);
+        readRulesSnapshot();
+        if (m_Toolbar == null) {
+            m_Toolbar = new Toolbar(m_Context);
+        }
+    }
+
+    // The rules may be running on the simulation thread, so the game field and the snakes are drawn from the rules'
+    // latest snapshot rather than the controller's own state
+    private void readRulesSnapshot() {
+        m_RulesSnapshot = m_Context.getController().getRenderSnapshot();
+        m_GameField = m_RulesSnapshot.getGameField();
+        m_Snakes = m_RulesSnapshot.getSnakes();
+    }
+
+    @Override
+    public RulesSnapshot getRulesSnapshot() {
+        return m_RulesSnapshot;
     }
 
     @Override
@@ -179,6 +239,16 @@ public class GameView implements IGameView {
         final long numberOfThingsToLoad = 26 + s_NumWallMeshes; // <-- there are 26 calls to loadXYZ() within this method
         long numLoaded = 0;
 
+        ResourcesLoadEvent event = new ResourcesLoadEvent();
+        event.begin();
+        if (m_ResourcesLoaded) {
+            // These resources stay resident until unloadResources() is called
+            progress.accept(numberOfThingsToLoad, numberOfThingsToLoad);
+            event.m_AlreadyLoaded = true;
+            event.commit();
+            return;
+        }
+
         progress.accept(numLoaded, numberOfThingsToLoad);
 
         m_SnakeBodyPolyhedra = new GLStaticPolyhedronVxTcNm[2];
@@ -217,10 +287,11 @@ public class GameView implements IGameView {
         progress.accept(++numLoaded, numberOfThingsToLoad);
 
         m_SnakeGibPolyhedron = loadDisplayMesh("meshes/SnakeGib.obj");
+        m_SnakeGibPolyhedron.attachInstanceBuffer(m_GibletInstanceBuffer);
         progress.accept(++numLoaded, numberOfThingsToLoad);
 
         m_BlueSnakeSkinTexture = m_SnakeBodyPolyhedra[0].getPiece(0).getDiffuseTexture();
-        m_RedSnakeSkinTexture = new GLTexture(ImageIO.read(new File("meshes/SnakeSkinRed.png")));
+        m_RedSnakeSkinTexture = m_AssetPack.loadTexture("meshes/SnakeSkinRed.png");
         progress.accept(++numLoaded, numberOfThingsToLoad);
 
         m_WorldDisplayMesh = loadDisplayMesh("meshes/LevelDisplayMesh.obj");
@@ -250,33 +321,33 @@ public class GameView implements IGameView {
         progress.accept(++numLoaded, numberOfThingsToLoad);
 
         m_PowerUpTextTextures = new GLTexture[PowerUp.s_NumPowerUps];
-        m_PowerUpTextTextures[0] = new GLTexture(ImageIO.read(new File("images/PowerUpTextSpeedUp.png")));
-        m_PowerUpTextTextures[1] = new GLTexture(ImageIO.read(new File("images/PowerUpTextSpeedDown.png")));
-        m_PowerUpTextTextures[2] = new GLTexture(ImageIO.read(new File("images/PowerUpTextExtraSnake.png")));
-        m_PowerUpTextTextures[3] = new GLTexture(ImageIO.read(new File("images/PowerUpTextLoseASnake.png")));
-        m_PowerUpTextTextures[4] = new GLTexture(ImageIO.read(new File("images/PowerUpText1kPoints.png")));
-        m_PowerUpTextTextures[5] = new GLTexture(ImageIO.read(new File("images/PowerUpText-1kPoints.png")));
-        m_PowerUpTextTextures[6] = new GLTexture(ImageIO.read(new File("images/PowerUpTextDecreaseLength.png")));
+        m_PowerUpTextTextures[0] = m_AssetPack.loadTexture("images/PowerUpTextSpeedUp.png");
+        m_PowerUpTextTextures[1] = m_AssetPack.loadTexture("images/PowerUpTextSpeedDown.png");
+        m_PowerUpTextTextures[2] = m_AssetPack.loadTexture("images/PowerUpTextExtraSnake.png");
+        m_PowerUpTextTextures[3] = m_AssetPack.loadTexture("images/PowerUpTextLoseASnake.png");
+        m_PowerUpTextTextures[4] = m_AssetPack.loadTexture("images/PowerUpText1kPoints.png");
+        m_PowerUpTextTextures[5] = m_AssetPack.loadTexture("images/PowerUpText-1kPoints.png");
+        m_PowerUpTextTextures[6] = m_AssetPack.loadTexture("images/PowerUpTextDecreaseLength.png");
         m_PowerUpTextPolyhedron = createPolyhedron(
                 -m_PowerUpTextTextures[0].getWidth() / 2.0f, -m_PowerUpTextTextures[0].getHeight() / 2.0f,
                 m_PowerUpTextTextures[0].getWidth(), m_PowerUpTextTextures[0].getHeight(), m_PowerUpTextTextures[0]);
 
-        loadWorldCollisionMesh();
+        loadWorldCollisionProxy();
+        m_ResourcesLoaded = true;
+        event.commit();
         progress.accept(numberOfThingsToLoad, numberOfThingsToLoad);
     }
 
     @Override
     public void unloadResources() {
+        m_ResourcesLoaded = false;
+
         if (m_PowerUpTextTimeoutId != 0) {
             m_Context.removeTimeout(m_PowerUpTextTimeoutId);
             m_PowerUpTextTimeoutId = 0;
         }
 
-        for (var rigidBody : m_SnakeGibRigidBodies) {
-            m_Context.getPhysicsSpace().remove(rigidBody.m_RigidBody);
-            rigidBody.m_SnakeSkinTexture.freeNativeResource();
-        }
-        m_SnakeGibRigidBodies.clear();
+        resetSnakeGiblets();
 
         if (m_PowerUpTextPolyhedron != null) {
             m_PowerUpTextPolyhedron.freeNativeResources();
@@ -371,16 +442,20 @@ public class GameView implements IGameView {
         m_DiffuseTexturedProgram.freeNativeResource();
         m_DirectionalLightProgram.freeNativeResource();
         m_SpecularDirectionalLightProgram.freeNativeResource();
+        m_SpecularDirectionalLightInstancedProgram.freeNativeResource();
+        m_GibletInstanceBuffer.freeNativeResources();
     }
 
     @Override
     public void think(long nowMs) {
-        m_ItemYRotation += s_MsPerFrame * s_ItemYRotationInc;
+        readRulesSnapshot();
+
+        m_ItemYRotation += Application.s_SecondsPerTick * s_ItemYRotationInc;
         if (m_ItemYRotation >= 360.0f) {
             m_ItemYRotation -= 360.0f;
         }
 
-        m_ItemBobRotation += s_MsPerFrame * s_ItemBobRotationInc;
+        m_ItemBobRotation += Application.s_SecondsPerTick * s_ItemBobRotationInc;
         if (m_ItemBobRotation >= 360.0f) {
             m_ItemBobRotation -= 360.0f;
         }
@@ -398,6 +473,13 @@ public class GameView implements IGameView {
             m_Toolbar.think();
         }
 
+        // Picks up the walls of a newly loaded level, and those GameController inserts during a game
+        if (m_WorldCollisionProxy != null && m_GameField != null) {
+            m_WorldCollisionProxy.update(m_GameField, m_Context.getPhysicsWorker());
+        }
+
+        m_DebrisSystem.update(Application.s_SecondsPerTick);
+
         if (m_PowerUpAnimationActive) {
             m_PowerUpScale += s_PowerUpScaleInc;
             m_PowerUpAnimationPosition.y += s_PowerUpVerticalMovement;
@@ -410,10 +492,20 @@ public class GameView implements IGameView {
         if (m_Context == null) {
             throw new RuntimeException("Application state context hasn't been set");
         }
+        readRulesSnapshot();
+        GLPassTimer<RenderPass> passTimer = m_Context.getPassTimer();
+        passTimer.begin(RenderPass.WORLD);
         drawWorld();
+        passTimer.end();
+        passTimer.begin(RenderPass.FIELD);
         drawGameField();
+        passTimer.end();
+        passTimer.begin(RenderPass.SNAKES);
         drawSnakes();
+        passTimer.end();
+        passTimer.begin(RenderPass.GIBLETS);
         drawGiblets();
+        passTimer.end();
     }
 
     @Override
@@ -421,9 +513,15 @@ public class GameView implements IGameView {
         if (m_Context == null) {
             throw new RuntimeException("Application state context hasn't been set");
         }
+        readRulesSnapshot();
+        GLPassTimer<RenderPass> passTimer = m_Context.getPassTimer();
+        passTimer.begin(RenderPass.OVERLAY);
         drawGameFieldNumbers();
         drawPowerUpTextAnimation();
-        m_Toolbar.draw2d();
+        passTimer.end();
+        passTimer.begin(RenderPass.TOOLBAR);
+        m_Toolbar.draw2d(m_Snakes);
+        passTimer.end();
     }
 
     @Override
@@ -470,17 +568,18 @@ public class GameView implements IGameView {
     }
 
     @Override
-    public void startRemainingSnakesAnimation(int playerId, Vector4f colour) {
-        m_Toolbar.startRemainingSnakesAnimation(playerId, colour);
+    public void startRemainingSnakesAnimation(int playerId, boolean increased) {
+        m_Toolbar.startRemainingSnakesAnimation(playerId, increased ? s_Green : s_Red);
     }
 
     @Override
-    public void startScoreAnimation(int playerId, Vector4f colour) {
-        m_Toolbar.startScoreAnimation(playerId, colour);
+    public void startScoreAnimation(int playerId, boolean increased) {
+        m_Toolbar.startScoreAnimation(playerId, increased ? s_Green : s_Red);
     }
 
     @Override
     public void startPowerUpAnimation(int playerId, PowerUp.Type powerUpType) {
+        readRulesSnapshot();
         if (m_PowerUpTextTimeoutId != 0) {
             m_Context.removeTimeout(m_PowerUpTextTimeoutId);
             m_PowerUpTextTimeoutId = 0;
@@ -533,15 +632,33 @@ public class GameView implements IGameView {
 
     @Override
     public void resetSnakeGiblets() {
-        m_SnakeGibRigidBodies.clear();
+        m_Context.getPhysicsWorker().submit(m_GibletPool::despawnAll);
+        m_DebrisSystem.clear();
+    }
+
+    // Called on the physics thread after each step
+    private void physicsStepped(PhysicsSpace physicsSpace, long nowMs) {
+        m_GibletPool.think(physicsSpace, nowMs);
+        m_GibletPool.writeSnapshot(m_GibletSnapshots.getBack());
+        m_GibletSnapshots.publish();
     }
 
     @Override
     public void spawnSnakeGiblets(Snake snake) {
+        spawnSnakeGiblets(snake, s_DefaultGibletEngine);
+    }
+
+    @Override
+    public void spawnSnakeGiblets(Snake snake, GibletEngine engine) {
+        readRulesSnapshot();
+        if (engine == GibletEngine.PARTICLES) {
+            m_DebrisSystem.setWalls(m_GameField);
+        }
+
         float startX = GameField.WIDTH / 2.0f * -s_CellSize;
         float startZ = GameField.HEIGHT / 2.0f * -s_CellSize;
 
-        BoxCollisionShape bcs = new BoxCollisionShape(s_SnakeGibletHalfSize, s_SnakeGibletHalfSize, s_SnakeGibletHalfSize);
+        GLTexture snakeSkin = snake.getId() == 0 ? m_BlueSnakeSkinTexture : m_RedSnakeSkinTexture;
 
         for (int bodyPart = 1; bodyPart < snake.getBodyParts().size(); ++bodyPart) { // <-- note we don't start from 0, because the head will be oob
             float x = (startX + snake.getBodyParts().get(bodyPart).m_Location.m_X * s_CellSize) + s_HalfCellSize;
@@ -555,15 +672,19 @@ public class GameView implements IGameView {
 
                 int numRows = 2 + m_Rng.nextInt(2); // random int in the range (2, 3)
                 for (int row = 0; row < numRows; ++row) {
-                    PhysicsRigidBody rigidBody = new PhysicsRigidBody(bcs, 1.0f);
-                    rigidBody.setPhysicsLocation(new com.jme3.math.Vector3f(x + xOffset, (row + 1) * s_ObjectYPosition, z + zOffset));
-                    rigidBody.setPhysicsRotation(new Quaternion().fromAngles(
-                            0.0f, (float) Math.toRadians(m_Rng.nextFloat() * 360.0f),
-                            (float) Math.toRadians(m_Rng.nextFloat() * 360.0f)));
-                    GLTexture snakeSkin = snake.getId() == 0 ? m_BlueSnakeSkinTexture : m_RedSnakeSkinTexture;
-                    m_SnakeGibRigidBodies.add(new SnakeGiblet(rigidBody, snakeSkin));
-
-                    m_Context.getPhysicsSpace().addCollisionObject(rigidBody);
+                    if (engine == GibletEngine.PARTICLES) {
+                        m_DebrisSystem.spawn(x + xOffset, (row + 1) * s_ObjectYPosition, z + zOffset, m_Rng, snakeSkin);
+                        continue;
+                    }
+
+                    // The random numbers are drawn on this thread, so the benchmark's sequence doesn't depend on physics
+                    Quaternion rotation = new Quaternion().fromAngles(0.0f, (float) Math.toRadians(m_Rng.nextFloat() * 360.0f),
+                            (float) Math.toRadians(m_Rng.nextFloat() * 360.0f));
+                    float gibletX = x + xOffset;
+                    float gibletY = (row + 1) * s_ObjectYPosition;
+                    float gibletZ = z + zOffset;
+                    m_Context.getPhysicsWorker().submit(physicsSpace ->
+                            m_GibletPool.spawn(physicsSpace, gibletX, gibletY, gibletZ, rotation, snakeSkin));
                 }
             }
         }
@@ -621,32 +742,7 @@ public class GameView implements IGameView {
 
     @Override
     public GLStaticPolyhedronVxTcNm loadDisplayMesh(String fileName) throws Exception {
-        final ObjFile objFile = new ObjFile(fileName);
-        if (objFile.getObjects() == null || objFile.getObjects().isEmpty()) {
-            throw new RuntimeException("Object file has no objects");
-        }
-
-        final ObjFile.Object object = objFile.getObjects().get(0);
-        if (object.getPieces() == null || object.getPieces().isEmpty()) {
-            throw new RuntimeException("Object has no pieces");
-        }
-
-        final ArrayList<MtlFile> materialFiles = new ArrayList<>();
-        for (var materialFileName : objFile.getMaterialFileNames()) {
-            materialFiles.add(new MtlFile("meshes/" + materialFileName));
-        }
-
-        GLStaticPolyhedronVxTcNm displayMesh = new GLStaticPolyhedronVxTcNm();
-
-        for (var piece : object.getPieces()) {
-            GLTexture diffuseTexture = loadDiffuseTexture(materialFiles, piece);
-            float[] vertices = loadVertices(objFile, piece);
-            float[] texCoordinates = loadTexCoordinates(objFile, piece);
-            float[] normals = loadNormals(objFile, piece);
-            displayMesh.addPiece(new GLStaticPolyhedronPieceVxTcNm(diffuseTexture, vertices, texCoordinates, normals));
-        }
-
-        return displayMesh;
+        return m_AssetPack.loadDisplayMesh(fileName);
     }
 
     @Override
@@ -697,129 +793,16 @@ public class GameView implements IGameView {
         }
     }
 
-    private GLTexture loadDiffuseTexture(ArrayList<MtlFile> materialFiles, ObjFile.Piece piece) throws IOException {
-        GLTexture diffuseTexture = null;
-        for (var materialFile : materialFiles) {
-            for (var material : materialFile.getMaterials()) {
-                if (material.getName().equalsIgnoreCase(piece.getMaterialName())) {
-                    if (diffuseTexture != null) {
-                        diffuseTexture.freeNativeResource();
-                    }
-                    if (material.getDiffuseTexture() == null) {
-                        throw new RuntimeException("Material [" + material.getName() + "] does not have a diffuse texture");
-                    }
-                    diffuseTexture = new GLTexture(ImageIO.read(new File("meshes/" + material.getDiffuseTexture())));
-                }
-            }
-        }
-        if (diffuseTexture == null) {
-            throw new RuntimeException("The level file does not have a valid diffuse texture within a piece");
-        }
-        return diffuseTexture;
-    }
-
-    private float[] loadVertices(ObjFile objFile, ObjFile.Piece piece) {
-        int numFloats = piece.getFaces().size() * 3 * 3;
-        int floatCount = 0;
-
-        float[] vertices = new float[numFloats];
-        for (int faceIndex = 0; faceIndex < piece.getFaces().size(); ++faceIndex) {
-            ObjFile.Face face = piece.getFaces().get(faceIndex);
-
-            vertices[floatCount++] = objFile.getVertices().get(face.m_Vertices[0]).m_X;
-            vertices[floatCount++] = objFile.getVertices().get(face.m_Vertices[0]).m_Y;
-            vertices[floatCount++] = objFile.getVertices().get(face.m_Vertices[0]).m_Z;
-
-            vertices[floatCount++] = objFile.getVertices().get(face.m_Vertices[1]).m_X;
-            vertices[floatCount++] = objFile.getVertices().get(face.m_Vertices[1]).m_Y;
-            vertices[floatCount++] = objFile.getVertices().get(face.m_Vertices[1]).m_Z;
-
-            vertices[floatCount++] = objFile.getVertices().get(face.m_Vertices[2]).m_X;
-            vertices[floatCount++] = objFile.getVertices().get(face.m_Vertices[2]).m_Y;
-            vertices[floatCount++] = objFile.getVertices().get(face.m_Vertices[2]).m_Z;
-        }
-
-        return vertices;
-    }
-
-    private float[] loadTexCoordinates(ObjFile objFile, ObjFile.Piece piece) {
-        int numFloats = piece.getFaces().size() * 3 * 2;
-        int floatCount = 0;
-
-        float[] texCoordinates = new float[numFloats];
-        for (int faceIndex = 0; faceIndex < piece.getFaces().size(); ++faceIndex) {
-            ObjFile.Face face = piece.getFaces().get(faceIndex);
-
-            texCoordinates[floatCount++] = objFile.getTexCoordinates().get(face.m_TexCoordinates[0]).m_U;
-            texCoordinates[floatCount++] = 1-objFile.getTexCoordinates().get(face.m_TexCoordinates[0]).m_V;
-
-            texCoordinates[floatCount++] = objFile.getTexCoordinates().get(face.m_TexCoordinates[1]).m_U;
-            texCoordinates[floatCount++] = 1-objFile.getTexCoordinates().get(face.m_TexCoordinates[1]).m_V;
-
-            texCoordinates[floatCount++] = objFile.getTexCoordinates().get(face.m_TexCoordinates[2]).m_U;
-            texCoordinates[floatCount++] = 1-objFile.getTexCoordinates().get(face.m_TexCoordinates[2]).m_V;
-        }
-
-        return texCoordinates;
-    }
-
-    private float[] loadNormals(ObjFile objFile, ObjFile.Piece piece) {
-        int numFloats = piece.getFaces().size() * 3 * 3;
-        int floatCount = 0;
-
-        float[] normals = new float[numFloats];
-        for (int faceIndex = 0; faceIndex < piece.getFaces().size(); ++faceIndex) {
-            ObjFile.Face face = piece.getFaces().get(faceIndex);
-
-            normals[floatCount++] = objFile.getNormals().get(face.m_Normals[0]).m_X;
-            normals[floatCount++] = objFile.getNormals().get(face.m_Normals[0]).m_Y;
-            normals[floatCount++] = objFile.getNormals().get(face.m_Normals[0]).m_Z;
-
-            normals[floatCount++] = objFile.getNormals().get(face.m_Normals[1]).m_X;
-            normals[floatCount++] = objFile.getNormals().get(face.m_Normals[1]).m_Y;
-            normals[floatCount++] = objFile.getNormals().get(face.m_Normals[1]).m_Z;
-
-            normals[floatCount++] = objFile.getNormals().get(face.m_Normals[2]).m_X;
-            normals[floatCount++] = objFile.getNormals().get(face.m_Normals[2]).m_Y;
-            normals[floatCount++] = objFile.getNormals().get(face.m_Normals[2]).m_Z;
-        }
-
-        return normals;
-    }
-
-    private void loadWorldCollisionMesh() throws Exception {
+    private void loadWorldCollisionProxy() {
         if (m_Context == null) {
             throw new RuntimeException("Application state context hasn't been set");
         }
-        final ObjFile objFile = new ObjFile("meshes/LevelCollisionMesh.obj");
-        if (objFile.getObjects() == null || objFile.getObjects().isEmpty()) {
-            throw new RuntimeException("Object file has no objects");
-        }
-
-        var positionArray = new com.jme3.math.Vector3f[objFile.getVertices().size()];
-        for (int i = 0; i < objFile.getVertices().size(); ++i) {
-            ObjFile.Vertex vertex = objFile.getVertices().get(i);
-            positionArray[i] = new com.jme3.math.Vector3f(vertex.m_X, vertex.m_Y, vertex.m_Z);
-        }
 
-        int totalVertices = 0;
-        for (var piece : objFile.getObjects().get(0).getPieces()) {
-            totalVertices += piece.getFaces().size() * 3;
+        // The world is static, so its body is created once and stays within the physics space between games
+        if (m_WorldCollisionProxy == null) {
+            m_WorldCollisionProxy = new WorldCollisionProxy(s_CellSize);
         }
-
-        final int[] indexArray = new int[totalVertices];
-        int count = 0;
-        for (var piece : objFile.getObjects().get(0).getPieces()) {
-            for (var face : piece.getFaces()) {
-                indexArray[count++] = face.m_Vertices[0];
-                indexArray[count++] = face.m_Vertices[1];
-                indexArray[count++] = face.m_Vertices[2];
-            }
-        }
-
-        IndexedMesh indexedMesh = new IndexedMesh(positionArray, indexArray);
-        MeshCollisionShape mcs = new MeshCollisionShape(true, indexedMesh);
-        m_Context.getPhysicsSpace().addCollisionObject(new PhysicsRigidBody(mcs, 0f));
+        m_WorldCollisionProxy.addToSpace(m_Context.getPhysicsWorker());
     }
 
     private void drawWorld() {
@@ -971,38 +954,23 @@ public class GameView implements IGameView {
     }
 
     private void drawGiblets() {
-        Transform transform = new Transform();
-        com.jme3.math.Matrix4f transformMatrix = new com.jme3.math.Matrix4f();
-
-        for (var giblet : m_SnakeGibRigidBodies) {
-            transform = giblet.m_RigidBody.getMotionState().physicsTransform(transform);
-            transformMatrix = transform.toTransformMatrix(transformMatrix);
-
-            m_ModelMatrix.m00(transformMatrix.m00);
-            m_ModelMatrix.m01(transformMatrix.m10);
-            m_ModelMatrix.m02(transformMatrix.m20);
-            m_ModelMatrix.m03(transformMatrix.m30);
-
-            m_ModelMatrix.m10(transformMatrix.m01);
-            m_ModelMatrix.m11(transformMatrix.m11);
-            m_ModelMatrix.m12(transformMatrix.m21);
-            m_ModelMatrix.m13(transformMatrix.m31);
-
-            m_ModelMatrix.m20(transformMatrix.m02);
-            m_ModelMatrix.m21(transformMatrix.m12);
-            m_ModelMatrix.m22(transformMatrix.m22);
-            m_ModelMatrix.m23(transformMatrix.m32);
-
-            m_ModelMatrix.m30(transformMatrix.m03);
-            m_ModelMatrix.m31(transformMatrix.m13);
-            m_ModelMatrix.m32(transformMatrix.m23);
-            m_ModelMatrix.m33(transformMatrix.m33);
-
-            m_MvMatrix.identity().mul(m_ViewMatrix).mul(m_ModelMatrix);
-            m_ProjectionMatrix.set(m_Context.getPerspectiveMatrix());
-            m_SpecularDirectionalLightProgram.activate(m_MvMatrix, m_ProjectionMatrix);
-            m_SnakeGibPolyhedron.getPiece(0).setDiffuseTexture(giblet.m_SnakeSkinTexture);
-            m_SnakeGibPolyhedron.draw();
+        drawGiblets(m_GibletSnapshots.getLatest());
+        m_DebrisSystem.writeSnapshot(m_DebrisSnapshot);
+        drawGiblets(m_DebrisSnapshot);
+    }
+
+    // All the giblets are drawn with one instanced call per snake skin texture
+    private void drawGiblets(GibletSnapshot snapshot) {
+        if (snapshot.getNumGiblets() == 0) {
+            return;
+        }
+        m_GibletInstanceBuffer.upload(snapshot.getTransforms(), snapshot.getNumGiblets());
+
+        m_ProjectionMatrix.set(m_Context.getPerspectiveMatrix());
+        m_SpecularDirectionalLightInstancedProgram.activate(m_ViewMatrix, m_ProjectionMatrix);
+        for (int run = 0; run < snapshot.getNumRuns(); ++run) {
+            m_SnakeGibPolyhedron.getPiece(0).setDiffuseTexture(snapshot.getRunTexture(run));
+            m_SnakeGibPolyhedron.drawInstanced(snapshot.getRunFirstGiblet(run), snapshot.getRunNumGiblets(run));
         }
     }
 
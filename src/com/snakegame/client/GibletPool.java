@@ -0,0 +1,176 @@
+//
+// Snake Game
+// https://en.wikipedia.org/wiki/Snake_(video_game_genre)
+//
+// Based on the 1976 arcade game Blockade, and the 1991 game Nibbles
+// https://en.wikipedia.org/wiki/Blockade_(video_game)
+// https://en.wikipedia.org/wiki/Nibbles_(video_game)
+//
+// This implementation is Copyright (c) 2021, Damian Coventry
+// All rights reserved
+// Written for Massey University course 159.261 Game Programming (Assignment 1)
+//
+
+package com.snakegame.client;
+
+import com.jme3.bullet.PhysicsSpace;
+import com.jme3.bullet.collision.shapes.BoxCollisionShape;
+import com.jme3.bullet.objects.PhysicsRigidBody;
+import com.jme3.math.Quaternion;
+import com.jme3.math.Vector3f;
+import com.snakegame.opengl.GLTexture;
+import org.joml.Matrix4f;
+
+import java.nio.FloatBuffer;
+
+/**
+ * This class owns a fixed number of giblet rigid bodies, which all share the one collision shape. Spawning a giblet
+ * reuses the next slot in turn, so when every slot is in use the oldest giblet is recycled. Giblets are removed from
+ * the physics space once they've fallen asleep or outlived their lifetime, so the cost of simulating them has a hard
+ * ceiling no matter how many snakes die. Every method is called on the physics thread, see PhysicsWorker, and the
+ * renderer only ever sees the transforms that writeSnapshot() copies out.
+ * */
+public class GibletPool {
+    private static final int s_Capacity = 256;
+    private static final long s_LifetimeMs = 8000;
+
+    private final BoxCollisionShape m_CollisionShape;
+    private final PhysicsRigidBody[] m_RigidBodies;
+    private final GLTexture[] m_Textures;
+    private final long[] m_SpawnTimesMs;
+    private final boolean[] m_Alive;
+    private final Vector3f m_Location;
+    private final Vector3f m_Zero;
+    private final Quaternion m_Rotation;
+    private final Matrix4f m_Matrix;
+    private final GLTexture[] m_SnapshotTextures;
+    private int m_NextSlot;
+    private int m_NumAlive;
+    private long m_NowMs;
+
+    public GibletPool(float halfSize) {
+        m_CollisionShape = new BoxCollisionShape(halfSize, halfSize, halfSize);
+        m_RigidBodies = new PhysicsRigidBody[s_Capacity];
+        m_Textures = new GLTexture[s_Capacity];
+        m_SpawnTimesMs = new long[s_Capacity];
+        m_Alive = new boolean[s_Capacity];
+        m_Location = new Vector3f();
+        m_Zero = new Vector3f();
+        m_Rotation = new Quaternion();
+        m_Matrix = new Matrix4f();
+        m_SnapshotTextures = new GLTexture[s_Capacity];
+        m_NextSlot = 0;
+        m_NumAlive = 0;
+        m_NowMs = 0;
+    }
+
+    public int getCapacity() {
+        return s_Capacity;
+    }
+
+    public int getNumAlive() {
+        return m_NumAlive;
+    }
+
+    public void spawn(PhysicsSpace physicsSpace, float x, float y, float z, Quaternion rotation, GLTexture texture) {
+        int slot = m_NextSlot;
+        m_NextSlot = (m_NextSlot + 1) % s_Capacity;
+
+        PhysicsRigidBody rigidBody = m_RigidBodies[slot];
+        if (rigidBody == null) {
+            // The bodies are created on first use, there's no need to pay for all of them up front
+            rigidBody = new PhysicsRigidBody(m_CollisionShape, 1.0f);
+            m_RigidBodies[slot] = rigidBody;
+        }
+        else if (m_Alive[slot]) {
+            despawn(physicsSpace, slot);
+        }
+
+        // A recycled body still has the velocities and forces it had when it was despawned
+        m_Location.set(x, y, z);
+        rigidBody.setPhysicsLocation(m_Location);
+        rigidBody.setPhysicsRotation(rotation);
+        rigidBody.setLinearVelocity(m_Zero);
+        rigidBody.setAngularVelocity(m_Zero);
+        rigidBody.clearForces();
+        rigidBody.activate(true);
+        physicsSpace.addCollisionObject(rigidBody);
+
+        m_Textures[slot] = texture;
+        m_SpawnTimesMs[slot] = m_NowMs;
+        m_Alive[slot] = true;
+        ++m_NumAlive;
+    }
+
+    // Call this once per tick, after the physics space has been updated
+    public void think(PhysicsSpace physicsSpace, long nowMs) {
+        m_NowMs = nowMs;
+        if (m_NumAlive == 0) {
+            return;
+        }
+        for (int slot = 0; slot < s_Capacity; ++slot) {
+            if (m_Alive[slot] && (!m_RigidBodies[slot].isActive() || nowMs - m_SpawnTimesMs[slot] >= s_LifetimeMs)) {
+                despawn(physicsSpace, slot);
+            }
+        }
+    }
+
+    // Giblets that share a texture are written next to each other, so each texture is drawn with one call
+    public void writeSnapshot(GibletSnapshot snapshot) {
+        snapshot.clear();
+        if (m_NumAlive == 0) {
+            return;
+        }
+
+        int numTextures = 0;
+        for (int slot = 0; slot < s_Capacity; ++slot) {
+            if (m_Alive[slot] && indexOf(m_SnapshotTextures, numTextures, m_Textures[slot]) == -1) {
+                m_SnapshotTextures[numTextures++] = m_Textures[slot];
+            }
+        }
+
+        FloatBuffer transforms = snapshot.getTransforms();
+        for (int i = 0; i < numTextures; ++i) {
+            snapshot.beginRun(m_SnapshotTextures[i]);
+            for (int slot = 0; slot < s_Capacity; ++slot) {
+                if (!m_Alive[slot] || m_Textures[slot] != m_SnapshotTextures[i]) {
+                    continue;
+                }
+                // The giblets aren't scaled, so their location and rotation are all that's needed
+                PhysicsRigidBody rigidBody = m_RigidBodies[slot];
+                rigidBody.getPhysicsLocation(m_Location);
+                rigidBody.getPhysicsRotation(m_Rotation);
+                m_Matrix.translationRotate(m_Location.x, m_Location.y, m_Location.z,
+                        m_Rotation.getX(), m_Rotation.getY(), m_Rotation.getZ(), m_Rotation.getW());
+                m_Matrix.get(snapshot.add(), transforms);
+            }
+            m_SnapshotTextures[i] = null;
+        }
+    }
+
+    private static int indexOf(GLTexture[] textures, int numTextures, GLTexture texture) {
+        for (int i = 0; i < numTextures; ++i) {
+            if (textures[i] == texture) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public void despawnAll(PhysicsSpace physicsSpace) {
+        for (int slot = 0; slot < s_Capacity; ++slot) {
+            if (m_Alive[slot]) {
+                despawn(physicsSpace, slot);
+            }
+        }
+        m_NextSlot = 0;
+    }
+
+    private void despawn(PhysicsSpace physicsSpace, int slot) {
+        physicsSpace.removeCollisionObject(m_RigidBodies[slot]);
+        // The giblets share the snake skin textures, they don't own them
+        m_Textures[slot] = null;
+        m_Alive[slot] = false;
+        --m_NumAlive;
+    }
+}
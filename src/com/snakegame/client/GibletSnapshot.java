@@ -0,0 +1,85 @@
+//
+// Snake Game
+// https://en.wikipedia.org/wiki/Snake_(video_game_genre)
+//
+// Based on the 1976 arcade game Blockade, and the 1991 game Nibbles
+// https://en.wikipedia.org/wiki/Blockade_(video_game)
+// https://en.wikipedia.org/wiki/Nibbles_(video_game)
+//
+// This implementation is Copyright (c) 2021, Damian Coventry
+// All rights reserved
+// Written for Massey University course 159.261 Game Programming (Assignment 1)
+//
+
+package com.snakegame.client;
+
+import com.snakegame.opengl.GLInstanceBuffer;
+import com.snakegame.opengl.GLTexture;
+import org.lwjgl.BufferUtils;
+
+import java.nio.FloatBuffer;
+
+/**
+ * This class holds the model matrices of the living giblets as they were after one physics step. The matrices are
+ * stored column major within one direct buffer, in the layout GLInstanceBuffer uploads, and giblets that share a
+ * texture are stored next to each other so that each run of them can be drawn with one instanced call.
+ * */
+public class GibletSnapshot {
+    private final FloatBuffer m_Transforms;
+    private final GLTexture[] m_RunTextures;
+    private final int[] m_RunFirstGiblets;
+    private final int[] m_RunNumGiblets;
+    private int m_NumRuns;
+    private int m_NumGiblets;
+
+    public GibletSnapshot(int capacity) {
+        m_Transforms = BufferUtils.createFloatBuffer(capacity * GLInstanceBuffer.s_FloatsPerInstance);
+        m_RunTextures = new GLTexture[capacity];
+        m_RunFirstGiblets = new int[capacity];
+        m_RunNumGiblets = new int[capacity];
+        m_NumRuns = 0;
+        m_NumGiblets = 0;
+    }
+
+    public int getNumGiblets() {
+        return m_NumGiblets;
+    }
+
+    public FloatBuffer getTransforms() {
+        return m_Transforms;
+    }
+
+    public int getNumRuns() {
+        return m_NumRuns;
+    }
+
+    public GLTexture getRunTexture(int run) {
+        return m_RunTextures[run];
+    }
+
+    public int getRunFirstGiblet(int run) {
+        return m_RunFirstGiblets[run];
+    }
+
+    public int getRunNumGiblets(int run) {
+        return m_RunNumGiblets[run];
+    }
+
+    public void beginRun(GLTexture texture) {
+        m_RunTextures[m_NumRuns] = texture;
+        m_RunFirstGiblets[m_NumRuns] = m_NumGiblets;
+        m_RunNumGiblets[m_NumRuns] = 0;
+        ++m_NumRuns;
+    }
+
+    // Returns the index within getTransforms() at which the new giblet's matrix is to be written
+    public int add() {
+        ++m_RunNumGiblets[m_NumRuns - 1];
+        return m_NumGiblets++ * GLInstanceBuffer.s_FloatsPerInstance;
+    }
+
+    public void clear() {
+        m_NumRuns = 0;
+        m_NumGiblets = 0;
+    }
+}
@@ -0,0 +1,26 @@
+//
+// Snake Game
+// https://en.wikipedia.org/wiki/Snake_(video_game_genre)
+//
+// Based on the 1976 arcade game Blockade, and the 1991 game Nibbles
+// https://en.wikipedia.org/wiki/Blockade_(video_game)
+// https://en.wikipedia.org/wiki/Nibbles_(video_game)
+//
+// This implementation is Copyright (c) 2021, Damian Coventry
+// All rights reserved
+// Written for Massey University course 159.261 Game Programming (Assignment 1)
+//
+
+package com.snakegame.client;
+
+/**
+ * This interface is the source of game time. The application reads it once per frame and passes the time down to the
+ * app states, the controller and the timeout manager, so game time only moves as fast as the clock says it does.
+ * */
+public interface IClock {
+    long nowNs();
+
+    default long nowMs() {
+        return nowNs() / 1_000_000L;
+    }
+}
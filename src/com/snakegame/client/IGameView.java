@@ -16,21 +16,29 @@ package com.snakegame.client;
 import com.snakegame.application.IAppStateContext;
 import com.snakegame.opengl.*;
 import com.snakegame.rules.PowerUp;
+import com.snakegame.rules.RulesSnapshot;
 import com.snakegame.rules.Snake;
 import org.joml.Matrix4f;
-import org.joml.Vector4f;
 
 import java.io.IOException;
 import java.util.function.BiConsumer;
 
 // https://en.wikipedia.org/wiki/Model%E2%80%93view%E2%80%93controller
 public interface IGameView {
+    // BULLET simulates each giblet as a rigid body, PARTICLES uses the much cheaper DebrisSystem
+    enum GibletEngine { BULLET, PARTICLES }
+
     void setAppStateContext(IAppStateContext context) throws IOException;
 
+    // Called on the background loader's thread, see GLBackgroundLoader
     void loadResources(BiConsumer<Long, Long> progress) throws Exception;
     void unloadResources();
     void freeNativeResources();
 
+    // The snapshot of the rules the view is drawing. The view is the only reader of the controller's render snapshot,
+    // so anything else on the main thread that wants the rules' state reads it from here.
+    RulesSnapshot getRulesSnapshot();
+
     void think(long nowMs);
     void draw3d(long nowMs);
     void draw2d(long nowMs) throws IOException;
@@ -38,12 +46,13 @@ public interface IGameView {
     void drawOrthographicPolyhedron(GLStaticPolyhedronVxTc polyhedron, Matrix4f modelMatrix, float alpha);
     void drawOrthographicPolyhedronWithFadeRange(GLStaticPolyhedronVxTc polyhedron, Matrix4f modelMatrix, float fadeRange);
 
-    void startRemainingSnakesAnimation(int playerId, Vector4f colour);
-    void startScoreAnimation(int playerId, Vector4f colour);
+    void startRemainingSnakesAnimation(int playerId, boolean increased);
+    void startScoreAnimation(int playerId, boolean increased);
     void startPowerUpAnimation(int playerId, PowerUp.Type powerUpType);
 
     void resetSnakeGiblets();
     void spawnSnakeGiblets(Snake snake);
+    void spawnSnakeGiblets(Snake snake, GibletEngine engine);
 
     void activateArrowMouseCursor();
     void activateHandMouseCursor();
@@ -0,0 +1,43 @@
+//
+// Snake Game
+// https://en.wikipedia.org/wiki/Snake_(video_game_genre)
+//
+// Based on the 1976 arcade game Blockade, and the 1991 game Nibbles
+// https://en.wikipedia.org/wiki/Blockade_(video_game)
+// https://en.wikipedia.org/wiki/Nibbles_(video_game)
+//
+// This implementation is Copyright (c) 2021, Damian Coventry
+// All rights reserved
+// Written for Massey University course 159.261 Game Programming (Assignment 1)
+//
+
+package com.snakegame.client;
+
+// A clock that only moves when it's told to, for headless simulation and replays
+public class ManualClock implements IClock {
+    private long m_NowNs;
+
+    public ManualClock() {
+        m_NowNs = 0;
+    }
+
+    @Override
+    public long nowNs() {
+        return m_NowNs;
+    }
+
+    public void advanceNs(long ns) {
+        if (ns < 0) {
+            throw new RuntimeException("The clock can't go backwards");
+        }
+        m_NowNs += ns;
+    }
+
+    public void advanceMs(long ms) {
+        advanceNs(ms * 1_000_000L);
+    }
+
+    public void advanceToMs(long ms) {
+        advanceNs(Math.max(0, ms * 1_000_000L - m_NowNs));
+    }
+}
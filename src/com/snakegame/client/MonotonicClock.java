@@ -0,0 +1,28 @@
+//
+// Snake Game
+// https://en.wikipedia.org/wiki/Snake_(video_game_genre)
+//
+// Based on the 1976 arcade game Blockade, and the 1991 game Nibbles
+// https://en.wikipedia.org/wiki/Blockade_(video_game)
+// https://en.wikipedia.org/wiki/Nibbles_(video_game)
+//
+// This implementation is Copyright (c) 2021, Damian Coventry
+// All rights reserved
+// Written for Massey University course 159.261 Game Programming (Assignment 1)
+//
+
+package com.snakegame.client;
+
+// The clock for live play. Unlike System.currentTimeMillis(), it doesn't jump when the system time is changed.
+public class MonotonicClock implements IClock {
+    private final long m_OriginNs;
+
+    public MonotonicClock() {
+        m_OriginNs = System.nanoTime();
+    }
+
+    @Override
+    public long nowNs() {
+        return System.nanoTime() - m_OriginNs;
+    }
+}
@@ -0,0 +1,115 @@
+//
+// Snake Game
+// https://en.wikipedia.org/wiki/Snake_(video_game_genre)
+//
+// Based on the 1976 arcade game Blockade, and the 1991 game Nibbles
+// https://en.wikipedia.org/wiki/Blockade_(video_game)
+// https://en.wikipedia.org/wiki/Nibbles_(video_game)
+//
+// This implementation is Copyright (c) 2021, Damian Coventry
+// All rights reserved
+// Written for Massey University course 159.261 Game Programming (Assignment 1)
+//
+
+package com.snakegame.client;
+
+import com.snakegame.opengl.*;
+
+import java.io.IOException;
+import java.util.HashMap;
+
+/**
+ * This class keeps textures, polyhedra and display meshes resident for the lifetime of the application. Each resource
+ * is loaded from disk the first time it's requested, and every later request returns the same object. The app states
+ * request their resources from here so that a state transition doesn't decode images or allocate OpenGL objects.
+ * */
+public class ResourceCache {
+    private final IGameView m_View;
+    private final AssetPack m_AssetPack;
+    private final HashMap<String, GLTexture> m_Textures;
+    private final HashMap<String, GLStaticPolyhedronVxTc> m_Polyhedra;
+    private final HashMap<String, GLStaticPolyhedronVxTc> m_CenteredPolyhedra;
+    private final HashMap<String, GLStaticPolyhedronVxTcNm> m_DisplayMeshes;
+    private NumberFont m_ToolbarNumberFont;
+
+    public ResourceCache(IGameView view, AssetPack assetPack) {
+        m_View = view;
+        m_AssetPack = assetPack;
+        m_Textures = new HashMap<>();
+        m_Polyhedra = new HashMap<>();
+        m_CenteredPolyhedra = new HashMap<>();
+        m_DisplayMeshes = new HashMap<>();
+        m_ToolbarNumberFont = null;
+    }
+
+    public void freeNativeResources() {
+        // The polyhedra share the cached textures, so only their vertex data is freed here
+        for (var polyhedron : m_Polyhedra.values()) {
+            polyhedron.freeVertexResources();
+        }
+        m_Polyhedra.clear();
+        for (var polyhedron : m_CenteredPolyhedra.values()) {
+            polyhedron.freeVertexResources();
+        }
+        m_CenteredPolyhedra.clear();
+        for (var texture : m_Textures.values()) {
+            texture.freeNativeResource();
+        }
+        m_Textures.clear();
+        for (var displayMesh : m_DisplayMeshes.values()) {
+            displayMesh.freeNativeResources();
+        }
+        m_DisplayMeshes.clear();
+        if (m_ToolbarNumberFont != null) {
+            m_ToolbarNumberFont.freeNativeResource();
+            m_ToolbarNumberFont = null;
+        }
+    }
+
+    public GLTexture getTexture(String fileName) throws IOException {
+        GLTexture texture = m_Textures.get(fileName);
+        if (texture == null) {
+            texture = m_AssetPack.loadTexture(fileName);
+            m_Textures.put(fileName, texture);
+        }
+        return texture;
+    }
+
+    // Returns a polyhedron the size of the image, with its bottom left corner at the origin
+    public GLStaticPolyhedronVxTc getPolyhedron(String fileName) throws IOException {
+        GLStaticPolyhedronVxTc polyhedron = m_Polyhedra.get(fileName);
+        if (polyhedron == null) {
+            GLTexture texture = getTexture(fileName);
+            polyhedron = m_View.createPolyhedron(0, 0, texture.getWidth(), texture.getHeight(), texture);
+            m_Polyhedra.put(fileName, polyhedron);
+        }
+        return polyhedron;
+    }
+
+    // Returns a polyhedron the size of the image, centered within the window
+    public GLStaticPolyhedronVxTc getCenteredPolyhedron(String fileName) throws IOException {
+        GLStaticPolyhedronVxTc polyhedron = m_CenteredPolyhedra.get(fileName);
+        if (polyhedron == null) {
+            GLTexture texture = getTexture(fileName);
+            polyhedron = m_View.createCenteredPolyhedron(texture.getWidth(), texture.getHeight(), texture);
+            m_CenteredPolyhedra.put(fileName, polyhedron);
+        }
+        return polyhedron;
+    }
+
+    public GLStaticPolyhedronVxTcNm getDisplayMesh(String fileName) throws Exception {
+        GLStaticPolyhedronVxTcNm displayMesh = m_DisplayMeshes.get(fileName);
+        if (displayMesh == null) {
+            displayMesh = m_View.loadDisplayMesh(fileName);
+            m_DisplayMeshes.put(fileName, displayMesh);
+        }
+        return displayMesh;
+    }
+
+    public NumberFont getToolbarNumberFont() throws IOException {
+        if (m_ToolbarNumberFont == null) {
+            m_ToolbarNumberFont = new ToolbarNumberFont(m_View.getTexturedProgram());
+        }
+        return m_ToolbarNumberFont;
+    }
+}
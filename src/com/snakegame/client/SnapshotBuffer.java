@@ -0,0 +1,62 @@
+//
+// Snake Game
+// https://en.wikipedia.org/wiki/Snake_(video_game_genre)
+//
+// Based on the 1976 arcade game Blockade, and the 1991 game Nibbles
+// https://en.wikipedia.org/wiki/Blockade_(video_game)
+// https://en.wikipedia.org/wiki/Nibbles_(video_game)
+//
+// This implementation is Copyright (c) 2021, Damian Coventry
+// All rights reserved
+// Written for Massey University course 159.261 Game Programming (Assignment 1)
+//
+
+package com.snakegame.client;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * This class hands snapshots from one writer thread to one reader thread without locking. There are three buffers:
+ * the writer fills the back buffer, the reader reads the front buffer, and the most recently published buffer waits
+ * between them. Publishing and reading each swap buffers with a single atomic exchange, so neither thread ever waits
+ * for the other, and the reader never sees a buffer that's still being written.
+ * */
+public class SnapshotBuffer<T> {
+    private static final int s_IndexMask = 3;
+    private static final int s_NewBit = 4;
+
+    private final T[] m_Buffers;
+    // The index of the buffer that's between the writer and the reader, with s_NewBit set if it hasn't been read yet
+    private final AtomicInteger m_Middle;
+    private int m_Back;
+    private int m_Front;
+
+    @SuppressWarnings("unchecked")
+    public SnapshotBuffer(Supplier<T> factory) {
+        m_Buffers = (T[])new Object[3];
+        for (int i = 0; i < m_Buffers.length; ++i) {
+            m_Buffers[i] = factory.get();
+        }
+        m_Front = 0;
+        m_Middle = new AtomicInteger(1);
+        m_Back = 2;
+    }
+
+    // Only the writer thread may call these two
+    public T getBack() {
+        return m_Buffers[m_Back];
+    }
+
+    public void publish() {
+        m_Back = m_Middle.getAndSet(m_Back | s_NewBit) & s_IndexMask;
+    }
+
+    // Only the reader thread may call this. The returned buffer stays valid until the next call.
+    public T getLatest() {
+        if ((m_Middle.get() & s_NewBit) != 0) {
+            m_Front = m_Middle.getAndSet(m_Front) & s_IndexMask;
+        }
+        return m_Buffers[m_Front];
+    }
+}
@@ -13,74 +13,252 @@
 
 package com.snakegame.client;
 
-import java.util.*;
+import com.snakegame.profiling.TimeoutDispatchEvent;
+
+import java.util.Arrays;
 import java.util.function.Function;
 
+/**
+ * This class calls back after a timeout has elapsed. The timeouts are kept within a binary min-heap ordered by the
+ * time they're due, so dispatchTimeouts() only touches the timeouts that are due. Each timeout lives in a slot of a
+ * set of parallel arrays, and the slots are reused, so adding a timeout doesn't allocate once the arrays have grown
+ * to the peak number of timeouts.
+ * */
 public class TimeoutManager {
-    private static int s_UniqueId = 0;
-    private static class TimeoutInfo {
-        public long m_TimeoutMs;
-        public long m_LastCallTimeMs;
-        public int m_CallCount;
-        public Function<Integer, CallbackResult> m_Callback;
-        public TimeoutInfo(long nowMs, long timeoutMs, Function<Integer, CallbackResult> callback) {
-            m_TimeoutMs = timeoutMs;
-            m_LastCallTimeMs = nowMs;
-            m_CallCount = 0;
-            m_Callback = callback;
-        }
-    }
+    private static final int s_InitialCapacity = 32;
+    private static final int s_SlotBits = 16;
+    private static final int s_SlotMask = (1 << s_SlotBits) - 1;
+    private static final int s_NotInHeap = -1;
+
+    private final IClock m_Clock;
+
+    // Indexed by slot
+    private long[] m_DueMs;
+    private long[] m_TimeoutMs;
+    private int[] m_CallCounts;
+    private int[] m_Generations;
+    private int[] m_HeapIndices;
+    private Function<Integer, CallbackResult>[] m_Callbacks;
+
+    private int[] m_Heap;
+    private int m_HeapSize;
+    private int[] m_FreeSlots;
+    private int m_NumFreeSlots;
+    private int m_NumSlots;
 
-    private final ArrayList<Integer> m_PendingRemovals;
-    private final Map<Integer, TimeoutInfo> m_PendingAdditions;
-    private final Map<Integer, TimeoutInfo> m_CurrentTimeouts;
+    // Timeouts added or kept during dispatchTimeouts() are held back until it has finished, so that a callback
+    // can't be called twice within the same dispatch
+    private int[] m_DeferredSlots;
+    private int m_NumDeferredSlots;
+    private boolean m_Dispatching;
 
-    public TimeoutManager() {
-        m_PendingRemovals = new ArrayList<>();
-        m_PendingAdditions = new HashMap<>();
-        m_CurrentTimeouts = new HashMap<>();
+    public TimeoutManager(IClock clock) {
+        m_Clock = clock;
+        m_DueMs = new long[s_InitialCapacity];
+        m_TimeoutMs = new long[s_InitialCapacity];
+        m_CallCounts = new int[s_InitialCapacity];
+        m_Generations = new int[s_InitialCapacity];
+        m_HeapIndices = new int[s_InitialCapacity];
+        m_Callbacks = createCallbackArray(s_InitialCapacity);
+        m_Heap = new int[s_InitialCapacity];
+        m_FreeSlots = new int[s_InitialCapacity];
+        m_DeferredSlots = new int[s_InitialCapacity];
+        m_HeapSize = 0;
+        m_NumFreeSlots = 0;
+        m_NumSlots = 0;
+        m_NumDeferredSlots = 0;
+        m_Dispatching = false;
     }
 
     public enum CallbackResult { KEEP_CALLING, REMOVE_THIS_CALLBACK }
 
     public int addTimeout(long timeoutMs, Function<Integer, CallbackResult> callback) {
-        int timeoutId = ++s_UniqueId;
-        m_PendingAdditions.put(timeoutId, new TimeoutInfo(System.currentTimeMillis(), timeoutMs, callback));
-        return timeoutId;
+        int slot = allocateSlot();
+        m_TimeoutMs[slot] = timeoutMs;
+        m_DueMs[slot] = m_Clock.nowMs() + timeoutMs;
+        m_CallCounts[slot] = 0;
+        m_Callbacks[slot] = callback;
+        schedule(slot);
+        // The slot is within the low bits and the generation within the high bits, so an id is never 0, and
+        // the id of a removed timeout doesn't match the next timeout to use the same slot
+        return (m_Generations[slot] << s_SlotBits) | (slot + 1);
     }
 
     public void removeTimeout(int timeoutId) {
-        m_PendingRemovals.add(timeoutId);
+        int slot = (timeoutId & s_SlotMask) - 1;
+        if (slot < 0 || slot >= m_NumSlots || m_Callbacks[slot] == null || (timeoutId >>> s_SlotBits) != m_Generations[slot]) {
+            return;
+        }
+        if (m_HeapIndices[slot] != s_NotInHeap) {
+            removeFromHeap(m_HeapIndices[slot]);
+            freeSlot(slot);
+        }
+        else {
+            // The timeout is being dispatched or is deferred, it's freed once dispatchTimeouts() sees it's cancelled
+            m_Callbacks[slot] = null;
+        }
+    }
+
+    public int getNumActiveTimeouts() {
+        return m_NumSlots - m_NumFreeSlots;
+    }
+
+    // A simulation driven by a ManualClock can advance straight to this time instead of stepping towards it
+    public long getNextDueMs() {
+        return m_HeapSize > 0 ? m_DueMs[m_Heap[0]] : Long.MAX_VALUE;
+    }
+
+    // Returns the number of callbacks that were called
+    public int dispatchTimeouts(long nowMs) {
+        int numCalled = 0;
+        m_Dispatching = true;
+        while (m_HeapSize > 0 && m_DueMs[m_Heap[0]] <= nowMs) {
+            int slot = m_Heap[0];
+            removeFromHeap(0);
+
+            TimeoutDispatchEvent event = new TimeoutDispatchEvent();
+            event.begin();
+            CallbackResult result = m_Callbacks[slot].apply(++m_CallCounts[slot]);
+            event.end();
+            if (event.shouldCommit()) {
+                event.m_TimeoutMs = m_TimeoutMs[slot];
+                event.m_CallCount = m_CallCounts[slot];
+                event.m_KeepCalling = result == CallbackResult.KEEP_CALLING;
+                event.commit();
+            }
+            ++numCalled;
+            if (result == CallbackResult.KEEP_CALLING && m_Callbacks[slot] != null) {
+                m_DueMs[slot] = nowMs + m_TimeoutMs[slot];
+                defer(slot);
+            }
+            else {
+                freeSlot(slot);
+            }
+        }
+        m_Dispatching = false;
+
+        for (int i = 0; i < m_NumDeferredSlots; ++i) {
+            int slot = m_DeferredSlots[i];
+            if (m_Callbacks[slot] != null) {
+                pushOntoHeap(slot);
+            }
+            else {
+                freeSlot(slot);
+            }
+        }
+        m_NumDeferredSlots = 0;
+        return numCalled;
     }
 
-    public void dispatchTimeouts(long nowMs) {
-        performPendingRemovals();
-        performPendingAdditions();
-        dispatchCurrentTimeouts(nowMs);
+    private void schedule(int slot) {
+        if (m_Dispatching) {
+            defer(slot);
+        }
+        else {
+            pushOntoHeap(slot);
+        }
+    }
+
+    private void defer(int slot) {
+        m_HeapIndices[slot] = s_NotInHeap;
+        if (m_NumDeferredSlots == m_DeferredSlots.length) {
+            m_DeferredSlots = Arrays.copyOf(m_DeferredSlots, m_DeferredSlots.length * 2);
+        }
+        m_DeferredSlots[m_NumDeferredSlots++] = slot;
+    }
+
+    private int allocateSlot() {
+        if (m_NumFreeSlots > 0) {
+            return m_FreeSlots[--m_NumFreeSlots];
+        }
+        if (m_NumSlots == s_SlotMask) {
+            throw new RuntimeException("There are too many timeouts");
+        }
+        if (m_NumSlots == m_DueMs.length) {
+            grow(m_NumSlots * 2);
+        }
+        int slot = m_NumSlots++;
+        m_HeapIndices[slot] = s_NotInHeap;
+        return slot;
+    }
+
+    private void freeSlot(int slot) {
+        m_Callbacks[slot] = null;
+        m_HeapIndices[slot] = s_NotInHeap;
+        m_Generations[slot] = (m_Generations[slot] + 1) & (Integer.MAX_VALUE >>> s_SlotBits);
+        m_FreeSlots[m_NumFreeSlots++] = slot;
     }
 
-    private void performPendingAdditions() {
-        m_CurrentTimeouts.putAll(m_PendingAdditions);
-        m_PendingAdditions.clear();
+    private void grow(int capacity) {
+        m_DueMs = Arrays.copyOf(m_DueMs, capacity);
+        m_TimeoutMs = Arrays.copyOf(m_TimeoutMs, capacity);
+        m_CallCounts = Arrays.copyOf(m_CallCounts, capacity);
+        m_Generations = Arrays.copyOf(m_Generations, capacity);
+        m_HeapIndices = Arrays.copyOf(m_HeapIndices, capacity);
+        m_Callbacks = Arrays.copyOf(m_Callbacks, capacity);
+        m_Heap = Arrays.copyOf(m_Heap, capacity);
+        m_FreeSlots = Arrays.copyOf(m_FreeSlots, capacity);
     }
 
-    private void performPendingRemovals() {
-        for (var id : m_PendingRemovals) {
-            m_CurrentTimeouts.remove(id);
+    private void pushOntoHeap(int slot) {
+        m_Heap[m_HeapSize] = slot;
+        m_HeapIndices[slot] = m_HeapSize;
+        siftUp(m_HeapSize++);
+    }
+
+    private void removeFromHeap(int heapIndex) {
+        int slot = m_Heap[heapIndex];
+        m_HeapIndices[slot] = s_NotInHeap;
+        if (--m_HeapSize == heapIndex) {
+            return;
+        }
+        int lastSlot = m_Heap[m_HeapSize];
+        m_Heap[heapIndex] = lastSlot;
+        m_HeapIndices[lastSlot] = heapIndex;
+        siftDown(heapIndex);
+        siftUp(m_HeapIndices[lastSlot]);
+    }
+
+    private void siftUp(int heapIndex) {
+        int slot = m_Heap[heapIndex];
+        while (heapIndex > 0) {
+            int parentIndex = (heapIndex - 1) / 2;
+            int parentSlot = m_Heap[parentIndex];
+            if (m_DueMs[parentSlot] <= m_DueMs[slot]) {
+                break;
+            }
+            m_Heap[heapIndex] = parentSlot;
+            m_HeapIndices[parentSlot] = heapIndex;
+            heapIndex = parentIndex;
         }
-        m_PendingRemovals.clear();
-    }
-
-    private void dispatchCurrentTimeouts(long nowMs) {
-        for (var timeout : m_CurrentTimeouts.entrySet()) {
-            TimeoutInfo info = timeout.getValue();
-            if (nowMs - info.m_LastCallTimeMs >= info.m_TimeoutMs) {
-                info.m_LastCallTimeMs = nowMs;
-                TimeoutManager.CallbackResult result = info.m_Callback.apply(++info.m_CallCount);
-                if (result == CallbackResult.REMOVE_THIS_CALLBACK) {
-                    m_PendingRemovals.add(timeout.getKey());
-                }
+        m_Heap[heapIndex] = slot;
+        m_HeapIndices[slot] = heapIndex;
+    }
+
+    private void siftDown(int heapIndex) {
+        int slot = m_Heap[heapIndex];
+        while (true) {
+            int childIndex = heapIndex * 2 + 1;
+            if (childIndex >= m_HeapSize) {
+                break;
+            }
+            if (childIndex + 1 < m_HeapSize && m_DueMs[m_Heap[childIndex + 1]] < m_DueMs[m_Heap[childIndex]]) {
+                ++childIndex;
             }
+            int childSlot = m_Heap[childIndex];
+            if (m_DueMs[slot] <= m_DueMs[childSlot]) {
+                break;
+            }
+            m_Heap[heapIndex] = childSlot;
+            m_HeapIndices[childSlot] = heapIndex;
+            heapIndex = childIndex;
         }
+        m_Heap[heapIndex] = slot;
+        m_HeapIndices[slot] = heapIndex;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Function<Integer, CallbackResult>[] createCallbackArray(int capacity) {
+        return (Function<Integer, CallbackResult>[])new Function[capacity];
     }
 }
@@ -0,0 +1,97 @@
+//
+// Snake Game
+// https://en.wikipedia.org/wiki/Snake_(video_game_genre)
+//
+// Based on the 1976 arcade game Blockade, and the 1991 game Nibbles
+// https://en.wikipedia.org/wiki/Blockade_(video_game)
+// https://en.wikipedia.org/wiki/Nibbles_(video_game)
+//
+// This implementation is Copyright (c) 2021, Damian Coventry
+// All rights reserved
+// Written for Massey University course 159.261 Game Programming (Assignment 1)
+//
+
+package com.snakegame.client;
+
+import java.util.Arrays;
+
+/**
+ * This class counts durations in nanoseconds within log-linear buckets. Each power of two is split into 16 buckets,
+ * so a percentile is accurate to within about 6%, and the maximum is kept exactly. The bucket array is allocated
+ * once, so recording a duration never allocates.
+ * */
+public class TimingHistogram {
+    private static final int s_SubBucketBits = 4;
+    private static final int s_NumSubBuckets = 1 << s_SubBucketBits;
+    private static final int s_NumBuckets = (64 - s_SubBucketBits) * s_NumSubBuckets;
+
+    private final long[] m_Counts;
+    private long m_TotalCount;
+    private long m_MaxNs;
+
+    public TimingHistogram() {
+        m_Counts = new long[s_NumBuckets];
+        reset();
+    }
+
+    public void reset() {
+        Arrays.fill(m_Counts, 0);
+        m_TotalCount = 0;
+        m_MaxNs = 0;
+    }
+
+    public void record(long ns) {
+        if (ns < 0) {
+            ns = 0;
+        }
+        ++m_Counts[getBucketIndex(ns)];
+        ++m_TotalCount;
+        if (ns > m_MaxNs) {
+            m_MaxNs = ns;
+        }
+    }
+
+    public long getCount() {
+        return m_TotalCount;
+    }
+
+    public long getMaxNs() {
+        return m_MaxNs;
+    }
+
+    // Returns the upper bound of the bucket that holds the given percentile, e.g. 99.0 for p99
+    public long getPercentileNs(double percentile) {
+        if (m_TotalCount == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long)Math.ceil(m_TotalCount * percentile / 100.0));
+        long count = 0;
+        for (int i = 0; i < s_NumBuckets; ++i) {
+            count += m_Counts[i];
+            if (count >= rank) {
+                return Math.min(getBucketUpperBound(i), m_MaxNs);
+            }
+        }
+        return m_MaxNs;
+    }
+
+    private static int getBucketIndex(long ns) {
+        if (ns < s_NumSubBuckets) {
+            return (int)ns;
+        }
+        // The top 5 bits of the duration select the bucket within its power of two
+        int exponent = 63 - Long.numberOfLeadingZeros(ns);
+        int shift = exponent - s_SubBucketBits;
+        int subBucket = (int)(ns >>> shift) & (s_NumSubBuckets - 1);
+        return (shift + 1) * s_NumSubBuckets + subBucket;
+    }
+
+    private static long getBucketUpperBound(int index) {
+        if (index < s_NumSubBuckets) {
+            return index;
+        }
+        int shift = index / s_NumSubBuckets - 1;
+        long lowerBound = (long)(s_NumSubBuckets + index % s_NumSubBuckets) << shift;
+        return lowerBound + (1L << shift) - 1;
+    }
+}
@@ -13,16 +13,16 @@
 
 package com.snakegame.client;
 
+import com.snakegame.application.Application;
 import com.snakegame.application.IAppStateContext;
 import com.snakegame.opengl.GLStaticPolyhedronVxTc;
 import com.snakegame.opengl.GLTexture;
 import com.snakegame.rules.IGameController;
+import com.snakegame.rules.Snake;
 import com.snakegame.rules.Vector2i;
 import org.joml.Matrix4f;
 import org.joml.Vector4f;
 
-import javax.imageio.ImageIO;
-import java.io.File;
 import java.io.IOException;
 
 import static org.lwjgl.opengl.GL11.glDepthMask;
@@ -30,7 +30,6 @@ import static org.lwjgl.opengl.GL11.glDepthMask;
 public class Toolbar {
     private static final float s_TextAnimationSpeed = 6.0f;
     private static final float s_HorizontalScrollSpeed = 50.0f; // pixels per second
-    private static final float s_MsPerFrame = 0.01666666f;
     private static final float s_BackgroundAlpha = 0.075f;
 
     private static final int s_P1RemainingSnakesAnimation = 0;
@@ -85,7 +84,7 @@ public class Toolbar {
         m_Controller = m_Context.getController();
 
         m_ModelMatrix = new Matrix4f();
-        m_NumberFont = new ToolbarNumberFont(m_View.getTexturedProgram());
+        m_NumberFont = m_Context.getResourceCache().getToolbarNumberFont();
         m_ScrollOffsetX = 0.0f;
         
         m_TextAnimations = new Animation[4];
@@ -94,15 +93,17 @@ public class Toolbar {
             m_TextAnimations[i].setColour(s_Yellow);
         }
 
-        GLTexture toolbarTexture = new GLTexture(ImageIO.read(new File("images/ToolbarBackgroundText.png")));
+        // The textures are owned by the resource cache, this class only owns the polyhedra
+        ResourceCache resourceCache = m_Context.getResourceCache();
+        GLTexture toolbarTexture = resourceCache.getTexture("images/ToolbarBackgroundText.png");
         float y = m_Context.getWindowHeight() - toolbarTexture.getHeight();
         m_AnimatedText = m_View.createPolyhedron(0.0f, y, toolbarTexture.getWidth(), toolbarTexture.getHeight(), toolbarTexture);
 
-        toolbarTexture = new GLTexture(ImageIO.read(new File("images/ToolbarPlaques.png")));
+        toolbarTexture = resourceCache.getTexture("images/ToolbarPlaques.png");
         y = m_Context.getWindowHeight() - toolbarTexture.getHeight();
         m_Plaques = m_View.createPolyhedron(0.0f, y, toolbarTexture.getWidth(), toolbarTexture.getHeight(), toolbarTexture);
 
-        toolbarTexture = new GLTexture(ImageIO.read(new File("images/ToolbarBackgroundGradient.png")));
+        toolbarTexture = resourceCache.getTexture("images/ToolbarBackgroundGradient.png");
         y = m_Context.getWindowHeight() - toolbarTexture.getHeight();
         m_Gradient = m_View.createPolyhedron(0.0f, y, toolbarTexture.getWidth(), toolbarTexture.getHeight(), toolbarTexture);
     }
@@ -113,18 +114,17 @@ public class Toolbar {
 
     void freeNativeResources() {
         if (m_AnimatedText != null) {
-            m_AnimatedText.freeNativeResources();
+            m_AnimatedText.freeVertexResources();
             m_AnimatedText = null;
         }
         if (m_Plaques != null) {
-            m_Plaques.freeNativeResources();
+            m_Plaques.freeVertexResources();
             m_Plaques = null;
         }
         if (m_Gradient != null) {
-            m_Gradient.freeNativeResources();
+            m_Gradient.freeVertexResources();
             m_Gradient = null;
         }
-        m_NumberFont.freeNativeResource();
     }
 
     public void startRemainingSnakesAnimation(int playerId, Vector4f colour) {
@@ -140,18 +140,19 @@ public class Toolbar {
     }
 
     public void think() {
-        m_ScrollOffsetX += s_HorizontalScrollSpeed * s_MsPerFrame;
+        m_ScrollOffsetX += s_HorizontalScrollSpeed * Application.s_SecondsPerTick;
         if (m_ScrollOffsetX >= m_Context.getWindowWidth()) {
             m_ScrollOffsetX -= m_Context.getWindowWidth();
         }
         updateTextAnimations();
     }
 
-    public void draw2d() {
+    // The snakes come from the view's snapshot of the rules, see IGameController.getRenderSnapshot()
+    public void draw2d(Snake[] snakes) {
         drawBackground();
         drawLevelState();
-        drawPlayer1State();
-        drawPlayer2State();
+        drawPlayer1State(snakes);
+        drawPlayer2State(snakes);
     }
 
     private void drawBackground() {
@@ -184,38 +185,38 @@ public class Toolbar {
         m_NumberFont.drawNumber(projectionMatrix, m_Controller.getLevelCount(), s_NumLevels.m_X, s_NumLevels.m_Z, 1.0f, s_Yellow);
     }
 
-    private void drawPlayer1State() {
+    private void drawPlayer1State(Snake[] snakes) {
         Matrix4f projectionMatrix = m_Context.getOrthographicMatrix();
 
         Animation animation = m_TextAnimations[s_P1RemainingSnakesAnimation];
-        m_NumberFont.drawNumber(projectionMatrix, m_Controller.getSnakes()[0].getNumLives(), s_P1Snakes.m_X, s_P1Snakes.m_Z,
+        m_NumberFont.drawNumber(projectionMatrix, snakes[0].getNumLives(), s_P1Snakes.m_X, s_P1Snakes.m_Z,
                 animation.getValue(), animation.getColour());
 
         animation = m_TextAnimations[s_P1ScoreAnimation];
-        m_NumberFont.drawNumber(projectionMatrix, m_Controller.getSnakes()[0].getPoints(), s_P1Score.m_X, s_P1Score.m_Z,
+        m_NumberFont.drawNumber(projectionMatrix, snakes[0].getPoints(), s_P1Score.m_X, s_P1Score.m_Z,
                 animation.getValue(), animation.getColour());
     }
 
-    private void drawPlayer2State() {
-        if (m_Controller.getSnakes().length < 2) {
+    private void drawPlayer2State(Snake[] snakes) {
+        if (snakes.length < 2) {
             return;
         }
 
         Matrix4f projectionMatrix = m_Context.getOrthographicMatrix();
 
         Animation animation = m_TextAnimations[s_P2RemainingSnakesAnimation];
-        m_NumberFont.drawNumber(projectionMatrix, m_Controller.getSnakes()[1].getNumLives(), s_P2Snakes.m_X, s_P2Snakes.m_Z,
+        m_NumberFont.drawNumber(projectionMatrix, snakes[1].getNumLives(), s_P2Snakes.m_X, s_P2Snakes.m_Z,
                 animation.getValue(), animation.getColour());
 
         animation = m_TextAnimations[s_P2ScoreAnimation];
-        m_NumberFont.drawNumber(projectionMatrix, m_Controller.getSnakes()[1].getPoints(), s_P2Score.m_X, s_P2Score.m_Z,
+        m_NumberFont.drawNumber(projectionMatrix, snakes[1].getPoints(), s_P2Score.m_X, s_P2Score.m_Z,
                 animation.getValue(), animation.getColour());
     }
 
     private void updateTextAnimations() {
         for (Animation animation : m_TextAnimations) {
             if (animation.getValue() > 1.0f) {
-                animation.setValue(animation.getValue() - s_TextAnimationSpeed * s_MsPerFrame);
+                animation.setValue(animation.getValue() - s_TextAnimationSpeed * Application.s_SecondsPerTick);
                 if (animation.getValue() < 1.0f) {
                     animation.setValue(1.0f);
                     animation.setColour(s_Yellow);
@@ -0,0 +1,126 @@
+//
+// Snake Game
+// https://en.wikipedia.org/wiki/Snake_(video_game_genre)
+//
+// Based on the 1976 arcade game Blockade, and the 1991 game Nibbles
+// https://en.wikipedia.org/wiki/Blockade_(video_game)
+// https://en.wikipedia.org/wiki/Nibbles_(video_game)
+//
+// This implementation is Copyright (c) 2021, Damian Coventry
+// All rights reserved
+// Written for Massey University course 159.261 Game Programming (Assignment 1)
+//
+
+package com.snakegame.client;
+
+import com.jme3.bullet.PhysicsSpace;
+import com.jme3.bullet.collision.shapes.BoxCollisionShape;
+import com.jme3.bullet.collision.shapes.CompoundCollisionShape;
+import com.jme3.bullet.objects.PhysicsRigidBody;
+import com.snakegame.application.PhysicsWorker;
+import com.snakegame.rules.GameField;
+
+/**
+ * This class is the static collision shape of the world, built from the game field rather than from a triangle mesh.
+ * It's a compound of boxes: one for the floor, one for each side of the arena, and one for each wall cell. Boxes are
+ * much cheaper for Bullet to collide against than triangles, and the wall cells match what's drawn, including the
+ * walls that GameController inserts during a game. update() compares the game field with the walls it last saw and
+ * hands only the differences to the physics thread.
+ * */
+public class WorldCollisionProxy {
+    private static final float s_ArenaHeight = 13.0f;
+    // The wall display meshes are a little taller than a cell is wide
+    private static final float s_WallHalfHeight = 0.55f;
+
+    private final float m_CellSize;
+    private final CompoundCollisionShape m_CompoundShape;
+    private final PhysicsRigidBody m_RigidBody;
+    // Only the physics thread touches these, indexed by cell
+    private final BoxCollisionShape[] m_WallShapes;
+    // Only the main thread touches these, indexed by cell
+    private final boolean[] m_Walls;
+
+    public WorldCollisionProxy(float cellSize) {
+        m_CellSize = cellSize;
+        m_CompoundShape = new CompoundCollisionShape(GameField.TOTAL_CELLS + 5);
+        m_WallShapes = new BoxCollisionShape[GameField.TOTAL_CELLS];
+        m_Walls = new boolean[GameField.TOTAL_CELLS];
+
+        float halfWidth = GameField.WIDTH / 2.0f * cellSize;
+        float halfHeight = GameField.HEIGHT / 2.0f * cellSize;
+        float halfArenaHeight = s_ArenaHeight / 2.0f;
+        m_CompoundShape.addChildShape(new BoxCollisionShape(halfWidth, 0.5f, halfHeight), 0.0f, -0.5f, 0.0f);
+        m_CompoundShape.addChildShape(new BoxCollisionShape(0.5f, halfArenaHeight, halfHeight), -halfWidth - 0.5f, halfArenaHeight, 0.0f);
+        m_CompoundShape.addChildShape(new BoxCollisionShape(0.5f, halfArenaHeight, halfHeight), halfWidth + 0.5f, halfArenaHeight, 0.0f);
+        m_CompoundShape.addChildShape(new BoxCollisionShape(halfWidth, halfArenaHeight, 0.5f), 0.0f, halfArenaHeight, -halfHeight - 0.5f);
+        m_CompoundShape.addChildShape(new BoxCollisionShape(halfWidth, halfArenaHeight, 0.5f), 0.0f, halfArenaHeight, halfHeight + 0.5f);
+
+        m_RigidBody = new PhysicsRigidBody(m_CompoundShape, 0.0f);
+    }
+
+    public void addToSpace(PhysicsWorker physicsWorker) {
+        physicsWorker.submit(physicsSpace -> {
+            if (!physicsSpace.contains(m_RigidBody)) {
+                physicsSpace.addCollisionObject(m_RigidBody);
+            }
+        });
+    }
+
+    // Call this on the main thread whenever the game field might have changed, it does nothing when it hasn't
+    public void update(GameField gameField, PhysicsWorker physicsWorker) {
+        int numChanges = 0;
+        for (int i = 0; i < GameField.TOTAL_CELLS; ++i) {
+            if (isWall(gameField, i) != m_Walls[i]) {
+                ++numChanges;
+            }
+        }
+        if (numChanges == 0) {
+            return;
+        }
+
+        // A cell that's gained a wall is stored as its index, one that's lost it as -(index + 1)
+        int[] changes = new int[numChanges];
+        numChanges = 0;
+        for (int i = 0; i < GameField.TOTAL_CELLS; ++i) {
+            boolean wall = isWall(gameField, i);
+            if (wall != m_Walls[i]) {
+                m_Walls[i] = wall;
+                changes[numChanges++] = wall ? i : -(i + 1);
+            }
+        }
+        physicsWorker.submit(physicsSpace -> applyChanges(physicsSpace, changes));
+    }
+
+    private static boolean isWall(GameField gameField, int cell) {
+        return gameField.getCellType(cell % GameField.WIDTH, cell / GameField.WIDTH) == GameField.CellType.WALL;
+    }
+
+    // Bullet caches the body's bounds within the broadphase, so it's taken out of the space while its shape changes
+    private void applyChanges(PhysicsSpace physicsSpace, int[] changes) {
+        boolean inSpace = physicsSpace.contains(m_RigidBody);
+        if (inSpace) {
+            physicsSpace.removeCollisionObject(m_RigidBody);
+        }
+
+        float startX = GameField.WIDTH / 2.0f * -m_CellSize;
+        float startZ = GameField.HEIGHT / 2.0f * -m_CellSize;
+        for (int change : changes) {
+            int cell = change >= 0 ? change : -change - 1;
+            if (change >= 0) {
+                // Each cell has its own shape, removeChildShape() removes every child that uses the shape it's given
+                float x = startX + (cell % GameField.WIDTH + 0.5f) * m_CellSize;
+                float z = -startZ - (cell / GameField.WIDTH + 0.5f) * m_CellSize;
+                m_WallShapes[cell] = new BoxCollisionShape(m_CellSize / 2.0f, s_WallHalfHeight, m_CellSize / 2.0f);
+                m_CompoundShape.addChildShape(m_WallShapes[cell], x, s_WallHalfHeight, z);
+            }
+            else if (m_WallShapes[cell] != null) {
+                m_CompoundShape.removeChildShape(m_WallShapes[cell]);
+                m_WallShapes[cell] = null;
+            }
+        }
+
+        if (inSpace) {
+            physicsSpace.addCollisionObject(m_RigidBody);
+        }
+    }
+}
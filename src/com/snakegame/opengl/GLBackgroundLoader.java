@@ -0,0 +1,137 @@
+//
+// Snake Game
+// https://en.wikipedia.org/wiki/Snake_(video_game_genre)
+//
+// Based on the 1976 arcade game Blockade, and the 1991 game Nibbles
+// https://en.wikipedia.org/wiki/Blockade_(video_game)
+// https://en.wikipedia.org/wiki/Nibbles_(video_game)
+//
+// This implementation is Copyright (c) 2021, Damian Coventry
+// All rights reserved
+// Written for Massey University course 159.261 Game Programming (Assignment 1)
+//
+
+package com.snakegame.opengl;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.lwjgl.opengl.GL11.glFlush;
+import static org.lwjgl.opengl.GL32.*;
+
+/**
+ * This class runs loading jobs on its own thread, with the window's hidden loader context current, so that decoding
+ * files and uploading textures and vertex data never holds up the main thread's frames. After each job the loader
+ * inserts a fence. The main thread polls the job's ticket once per frame, and the ticket completes once the GPU has
+ * passed the fence, so the objects the job created are ready to draw with. Polling never blocks.
+ * */
+public class GLBackgroundLoader {
+    public interface IJob {
+        void load() throws Exception;
+    }
+
+    public static class Ticket {
+        private final IJob m_Job;
+        private volatile boolean m_Loaded;
+        private volatile long m_Fence;
+        private volatile Exception m_Error;
+        private boolean m_Complete;
+
+        private Ticket(IJob job) {
+            m_Job = job;
+            m_Loaded = false;
+            m_Fence = 0;
+            m_Error = null;
+            m_Complete = false;
+        }
+
+        // Only the main thread may call these two. This returns true once the job has finished, whether or not it
+        // succeeded, and the GPU has finished its uploads.
+        public boolean poll() {
+            if (m_Complete) {
+                return true;
+            }
+            if (!m_Loaded) {
+                return false;
+            }
+            if (m_Fence != 0) {
+                int result = glClientWaitSync(m_Fence, 0, 0);
+                if (result == GL_TIMEOUT_EXPIRED) {
+                    return false;
+                }
+                glDeleteSync(m_Fence);
+                m_Fence = 0;
+                if (result == GL_WAIT_FAILED) {
+                    throw new RuntimeException("Unable to wait for the background loader's fence");
+                }
+            }
+            m_Complete = true;
+            return true;
+        }
+
+        // The exception the job threw, or null if it succeeded
+        public Exception getError() {
+            return m_Error;
+        }
+    }
+
+    private final GLWindow m_Window;
+    private final ConcurrentLinkedQueue<Ticket> m_Tickets;
+    private final Thread m_Thread;
+    private volatile boolean m_StopRequested;
+
+    public GLBackgroundLoader(GLWindow window) {
+        m_Window = window;
+        m_Tickets = new ConcurrentLinkedQueue<>();
+        m_StopRequested = false;
+        m_Thread = new Thread(this::runThread, "Loader");
+        m_Thread.setDaemon(true);
+        m_Thread.start();
+    }
+
+    public void stop() {
+        m_StopRequested = true;
+        LockSupport.unpark(m_Thread);
+        try {
+            m_Thread.join();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // The job is run on the loader thread. It mustn't create vertex array objects, they aren't shared between
+    // contexts, nor touch anything the main thread is using until the ticket completes.
+    public Ticket submit(IJob job) {
+        Ticket ticket = new Ticket(job);
+        m_Tickets.add(ticket);
+        LockSupport.unpark(m_Thread);
+        return ticket;
+    }
+
+    private void runThread() {
+        m_Window.makeLoaderContextCurrent();
+        try {
+            while (!m_StopRequested) {
+                Ticket ticket = m_Tickets.poll();
+                if (ticket == null) {
+                    LockSupport.park(this);
+                    continue;
+                }
+                try {
+                    ticket.m_Job.load();
+                }
+                catch (Exception e) {
+                    ticket.m_Error = e;
+                }
+                ticket.m_Fence = glFenceSync(GL_SYNC_GPU_COMMANDS_COMPLETE, 0);
+                // The fence has to reach the GPU before the main thread can see it signalled
+                glFlush();
+                ticket.m_Loaded = true;
+            }
+        }
+        finally {
+            m_Window.releaseLoaderContext();
+        }
+    }
+}
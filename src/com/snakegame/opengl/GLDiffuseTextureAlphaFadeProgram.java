@@ -16,10 +16,11 @@ package com.snakegame.opengl;
 import org.joml.*;
 
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.*;
 
 public class GLDiffuseTextureAlphaFadeProgram extends GLProgram {
+    public static final String s_VertexShaderFileName = "shaders/DiffuseTextureAlphaFade.vert";
+    public static final String s_FragmentShaderFileName = "shaders/DiffuseTextureAlphaFade.frag";
+
     private final int m_MvpMatrixLocation;
     private final int m_DiffuseTextureLocation;
     private final int m_DiffuseColourLocation;
@@ -29,9 +30,8 @@ public class GLDiffuseTextureAlphaFadeProgram extends GLProgram {
     private float m_WindowHeight;
     private float m_FadeRange;
 
-    public GLDiffuseTextureAlphaFadeProgram() throws IOException {
-        super(Files.readString(Paths.get("shaders/DiffuseTextureAlphaFade.vert"), StandardCharsets.US_ASCII),
-              Files.readString(Paths.get("shaders/DiffuseTextureAlphaFade.frag"), StandardCharsets.US_ASCII));
+    public GLDiffuseTextureAlphaFadeProgram(SourceReader sourceReader, GLProgramCache programCache) throws IOException {
+        super(programCache, sourceReader.readText(s_VertexShaderFileName), sourceReader.readText(s_FragmentShaderFileName));
 
         m_MvpMatrixLocation = getUniformLocation("mvpMatrix");
         m_DiffuseTextureLocation = getUniformLocation("diffuseTexture");
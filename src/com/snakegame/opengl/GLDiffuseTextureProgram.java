@@ -16,18 +16,18 @@ package com.snakegame.opengl;
 import org.joml.*;
 
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.*;
 
 public class GLDiffuseTextureProgram extends GLProgram {
+    public static final String s_VertexShaderFileName = "shaders/DiffuseTexture.vert";
+    public static final String s_FragmentShaderFileName = "shaders/DiffuseTexture.frag";
+
     private final int m_MvpMatrixLocation;
     private final int m_DiffuseTextureLocation;
     private final int m_DiffuseColourLocation;
     private Vector4f m_DiffuseColour;
 
-    public GLDiffuseTextureProgram() throws IOException {
-        super(Files.readString(Paths.get("shaders/DiffuseTexture.vert"), StandardCharsets.US_ASCII),
-              Files.readString(Paths.get("shaders/DiffuseTexture.frag"), StandardCharsets.US_ASCII));
+    public GLDiffuseTextureProgram(SourceReader sourceReader, GLProgramCache programCache) throws IOException {
+        super(programCache, sourceReader.readText(s_VertexShaderFileName), sourceReader.readText(s_FragmentShaderFileName));
 
         m_MvpMatrixLocation = getUniformLocation("mvpMatrix");
         m_DiffuseTextureLocation = getUniformLocation("diffuseTexture");
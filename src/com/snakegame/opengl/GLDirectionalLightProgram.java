@@ -16,10 +16,11 @@ package com.snakegame.opengl;
 import org.joml.*;
 
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.*;
 
 public class GLDirectionalLightProgram extends GLProgram {
+    public static final String s_VertexShaderFileName = "shaders/DiffuseDirectionalLight.vert";
+    public static final String s_FragmentShaderFileName = "shaders/DiffuseDirectionalLight.frag";
+
     private final int m_MvMatrixLocation;
     private final int m_ProjectionMatrixLocation;
     private final int m_DiffuseTextureLocation;
@@ -35,9 +36,8 @@ public class GLDirectionalLightProgram extends GLProgram {
     private Vector3f m_LightColour;
     private float m_LightIntensity;
 
-    public GLDirectionalLightProgram() throws IOException {
-        super(Files.readString(Paths.get("shaders/DiffuseDirectionalLight.vert"), StandardCharsets.US_ASCII),
-              Files.readString(Paths.get("shaders/DiffuseDirectionalLight.frag"), StandardCharsets.US_ASCII));
+    public GLDirectionalLightProgram(SourceReader sourceReader, GLProgramCache programCache) throws IOException {
+        super(programCache, sourceReader.readText(s_VertexShaderFileName), sourceReader.readText(s_FragmentShaderFileName));
 
         m_MvMatrixLocation = getUniformLocation("mvMatrix");
         m_ProjectionMatrixLocation = getUniformLocation("projectionMatrix");
@@ -0,0 +1,85 @@
+//
+// Snake Game
+// https://en.wikipedia.org/wiki/Snake_(video_game_genre)
+//
+// Based on the 1976 arcade game Blockade, and the 1991 game Nibbles
+// https://en.wikipedia.org/wiki/Blockade_(video_game)
+// https://en.wikipedia.org/wiki/Nibbles_(video_game)
+//
+// This implementation is Copyright (c) 2021, Damian Coventry
+// All rights reserved
+// Written for Massey University course 159.261 Game Programming (Assignment 1)
+//
+
+package com.snakegame.opengl;
+
+import com.snakegame.profiling.Metrics;
+import org.lwjgl.system.MemoryUtil;
+
+import java.nio.FloatBuffer;
+
+import static org.lwjgl.opengl.GL11.GL_FLOAT;
+import static org.lwjgl.opengl.GL15.*;
+import static org.lwjgl.opengl.GL20.glEnableVertexAttribArray;
+import static org.lwjgl.opengl.GL20.glVertexAttribPointer;
+import static org.lwjgl.opengl.GL33.glVertexAttribDivisor;
+
+/**
+ * This class holds one model matrix per instance for instanced drawing. The matrices are streamed into the buffer
+ * each frame straight from a direct FloatBuffer, and the buffer is attached to a mesh's vertex array as a mat4
+ * attribute that advances once per instance rather than once per vertex.
+ * */
+public class GLInstanceBuffer {
+    public static final int s_FloatsPerInstance = 16;
+    private static final int s_BytesPerInstance = s_FloatsPerInstance * Float.BYTES;
+
+    private final int m_VboId;
+    private final int m_Capacity;
+
+    public GLInstanceBuffer(int capacity) {
+        m_Capacity = capacity;
+        m_VboId = glGenBuffers();
+        if (m_VboId == 0) {
+            throw new RuntimeException("Unable to create an instance buffer");
+        }
+        GLResourceRegistry.created(GLResourceRegistry.Type.BUFFER, m_VboId);
+        glBindBuffer(GL_ARRAY_BUFFER, m_VboId);
+        glBufferData(GL_ARRAY_BUFFER, (long)capacity * s_BytesPerInstance, GL_STREAM_DRAW);
+        GLResourceRegistry.resized(GLResourceRegistry.Type.BUFFER, m_VboId, (long)capacity * s_BytesPerInstance);
+        glBindBuffer(GL_ARRAY_BUFFER, 0);
+    }
+
+    public void freeNativeResources() {
+        GLResourceRegistry.deleted(GLResourceRegistry.Type.BUFFER, m_VboId);
+        glDeleteBuffers(m_VboId);
+    }
+
+    public int getCapacity() {
+        return m_Capacity;
+    }
+
+    // The matrices are read from the start of the buffer, whatever its position and limit are
+    public void upload(FloatBuffer transforms, int numInstances) {
+        if (numInstances > m_Capacity) {
+            throw new RuntimeException("Too many instances for the instance buffer");
+        }
+        long numBytes = (long)numInstances * s_BytesPerInstance;
+        glBindBuffer(GL_ARRAY_BUFFER, m_VboId);
+        // Orphaning the old storage means the driver doesn't have to wait for the previous frame's draws to finish
+        glBufferData(GL_ARRAY_BUFFER, (long)m_Capacity * s_BytesPerInstance, GL_STREAM_DRAW);
+        nglBufferSubData(GL_ARRAY_BUFFER, 0, numBytes, MemoryUtil.memAddress0(transforms));
+        glBindBuffer(GL_ARRAY_BUFFER, 0);
+        Metrics.add(Metrics.Counter.VBO_BYTES, numBytes);
+    }
+
+    // The vertex array to attach to must be bound. A mat4 attribute takes up four consecutive locations.
+    void attach(int firstAttribute) {
+        glBindBuffer(GL_ARRAY_BUFFER, m_VboId);
+        for (int column = 0; column < 4; ++column) {
+            glEnableVertexAttribArray(firstAttribute + column);
+            glVertexAttribPointer(firstAttribute + column, 4, GL_FLOAT, false, s_BytesPerInstance, (long)column * 4 * Float.BYTES);
+            glVertexAttribDivisor(firstAttribute + column, 1);
+        }
+        glBindBuffer(GL_ARRAY_BUFFER, 0);
+    }
+}
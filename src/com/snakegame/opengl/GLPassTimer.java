@@ -0,0 +1,103 @@
+//
+// Snake Game
+// https://en.wikipedia.org/wiki/Snake_(video_game_genre)
+//
+// Based on the 1976 arcade game Blockade, and the 1991 game Nibbles
+// https://en.wikipedia.org/wiki/Blockade_(video_game)
+// https://en.wikipedia.org/wiki/Nibbles_(video_game)
+//
+// This implementation is Copyright (c) 2021, Damian Coventry
+// All rights reserved
+// Written for Massey University course 159.261 Game Programming (Assignment 1)
+//
+
+package com.snakegame.opengl;
+
+import static org.lwjgl.opengl.GL15.*;
+import static org.lwjgl.opengl.GL33.*;
+
+/**
+ * This class measures how long the GPU spends on each named render pass with GL_TIME_ELAPSED queries. Each pass has
+ * a query object per frame in flight, and beginFrame() collects the results of the oldest frame, which the GPU has
+ * almost always finished by then. A result that still isn't available is dropped rather than waited on, so reading
+ * the results never stalls the pipeline.
+ * */
+public class GLPassTimer<E extends Enum<E>> {
+    private static final int s_NumFramesInFlight = 3;
+
+    private final int m_NumPasses;
+    private final int[] m_QueryIds;
+    private final boolean[] m_Issued;
+    private final boolean[] m_ResultAvailable;
+    private final long[] m_ResultNs;
+    private int m_Frame;
+    private int m_ActivePass;
+
+    public GLPassTimer(Class<E> passes) {
+        m_NumPasses = passes.getEnumConstants().length;
+        m_QueryIds = new int[s_NumFramesInFlight * m_NumPasses];
+        glGenQueries(m_QueryIds);
+        for (int queryId : m_QueryIds) {
+            GLResourceRegistry.created(GLResourceRegistry.Type.QUERY, queryId);
+        }
+        m_Issued = new boolean[s_NumFramesInFlight * m_NumPasses];
+        m_ResultAvailable = new boolean[m_NumPasses];
+        m_ResultNs = new long[m_NumPasses];
+        m_Frame = 0;
+        m_ActivePass = -1;
+    }
+
+    public void freeNativeResources() {
+        for (int queryId : m_QueryIds) {
+            GLResourceRegistry.deleted(GLResourceRegistry.Type.QUERY, queryId);
+        }
+        glDeleteQueries(m_QueryIds);
+    }
+
+    public int getNumPasses() {
+        return m_NumPasses;
+    }
+
+    // Moves on to the next frame's queries, after collecting the results they held from s_NumFramesInFlight frames ago
+    public void beginFrame() {
+        if (m_ActivePass != -1) {
+            throw new RuntimeException("A render pass is still being timed");
+        }
+        m_Frame = (m_Frame + 1) % s_NumFramesInFlight;
+        for (int pass = 0; pass < m_NumPasses; ++pass) {
+            int i = m_Frame * m_NumPasses + pass;
+            m_ResultAvailable[pass] = m_Issued[i] && glGetQueryObjecti(m_QueryIds[i], GL_QUERY_RESULT_AVAILABLE) == GL_TRUE;
+            if (m_ResultAvailable[pass]) {
+                m_ResultNs[pass] = glGetQueryObjecti64(m_QueryIds[i], GL_QUERY_RESULT);
+            }
+            m_Issued[i] = false;
+        }
+    }
+
+    // Only one pass can be timed at once, GL_TIME_ELAPSED queries can't be nested
+    public void begin(E pass) {
+        if (m_ActivePass != -1) {
+            throw new RuntimeException("A render pass is already being timed");
+        }
+        m_ActivePass = m_Frame * m_NumPasses + pass.ordinal();
+        glBeginQuery(GL_TIME_ELAPSED, m_QueryIds[m_ActivePass]);
+    }
+
+    public void end() {
+        if (m_ActivePass == -1) {
+            throw new RuntimeException("No render pass is being timed");
+        }
+        glEndQuery(GL_TIME_ELAPSED);
+        m_Issued[m_ActivePass] = true;
+        m_ActivePass = -1;
+    }
+
+    // These refer to the frame whose results were collected by the last call to beginFrame()
+    public boolean isResultAvailable(int pass) {
+        return m_ResultAvailable[pass];
+    }
+
+    public long getResultNs(int pass) {
+        return m_ResultNs[pass];
+    }
+}
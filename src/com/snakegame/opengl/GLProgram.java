@@ -13,41 +13,41 @@
 
 package com.snakegame.opengl;
 
+import com.snakegame.profiling.Metrics;
 import org.joml.*;
 import org.lwjgl.system.MemoryStack;
 
+import java.io.IOException;
 import java.nio.FloatBuffer;
 
 import static org.lwjgl.opengl.GL20.*;
 
 public class GLProgram {
     private final int m_ProgramId;
-    private final int m_VertexShaderId;
-    private final int m_FragmentShaderId;
+
+    // Lets the subclasses name their shader files without knowing where the source code is stored
+    public interface SourceReader {
+        String readText(String fileName) throws IOException;
+    }
 
     public static void deactivateCurrent() {
         glUseProgram(0);
     }
 
-    public GLProgram(String vertexShaderSourceCode, String fragmentShaderSourceCode) {
-        m_ProgramId = glCreateProgram();
-        if (m_ProgramId < 1) {
-            throw new RuntimeException("Unable to create a new program object");
-        }
-
-        m_VertexShaderId = compile(GL_VERTEX_SHADER, vertexShaderSourceCode);
-        m_FragmentShaderId = compile(GL_FRAGMENT_SHADER, fragmentShaderSourceCode);
-
-        link();
+    public GLProgram(GLProgramCache programCache, String vertexShaderSourceCode, String fragmentShaderSourceCode) {
+        m_ProgramId = programCache.link(vertexShaderSourceCode, fragmentShaderSourceCode);
+        GLResourceRegistry.created(GLResourceRegistry.Type.PROGRAM, m_ProgramId);
     }
 
     public void freeNativeResource() {
         deactivateCurrent();
+        GLResourceRegistry.deleted(GLResourceRegistry.Type.PROGRAM, m_ProgramId);
         glDeleteProgram(m_ProgramId);
     }
 
     public void bind() {
         glUseProgram(m_ProgramId);
+        Metrics.increment(Metrics.Counter.PROGRAM_BINDS);
     }
 
     protected int getProgramId() {
@@ -64,10 +64,12 @@ public class GLProgram {
 
     protected void setUniform(int location, int value) {
         glUniform1i(location, value);
+        Metrics.increment(Metrics.Counter.UNIFORM_UPLOADS);
     }
 
     protected void setUniform(int location, float value) {
         glUniform1f(location, value);
+        Metrics.increment(Metrics.Counter.UNIFORM_UPLOADS);
     }
 
     protected void setUniform(int location, Vector3f value) {
@@ -76,6 +78,7 @@ public class GLProgram {
             value.get(fb);
             glUniform3fv(location, fb);
         }
+        Metrics.increment(Metrics.Counter.UNIFORM_UPLOADS);
     }
 
     protected void setUniform(int location, Vector4f value) {
@@ -84,6 +87,7 @@ public class GLProgram {
             value.get(fb);
             glUniform4fv(location, fb);
         }
+        Metrics.increment(Metrics.Counter.UNIFORM_UPLOADS);
     }
 
     protected void setUniform(int location, Matrix4f value) {
@@ -92,37 +96,6 @@ public class GLProgram {
             value.get(fb);
             glUniformMatrix4fv(location, false, fb);
         }
-    }
-
-    private int compile(int type, String sourceCode) {
-        int shaderId = glCreateShader(type);
-        if (shaderId < 1) {
-            throw new RuntimeException("Unable to create a new shader object");
-        }
-
-        glShaderSource(shaderId, sourceCode);
-
-        glCompileShader(shaderId);
-        if (glGetShaderi(shaderId, GL_COMPILE_STATUS) == 0) {
-            throw new RuntimeException("The shader source code doesn't compile.\n" + glGetShaderInfoLog(shaderId, 1024));
-        }
-
-        glAttachShader(m_ProgramId, shaderId);
-        return shaderId;
-    }
-
-    private void link() {
-        glLinkProgram(m_ProgramId);
-        if (glGetProgrami(m_ProgramId, GL_LINK_STATUS) == 0) {
-            throw new RuntimeException("The program doesn't link.\n" + glGetProgramInfoLog(m_ProgramId, 1024));
-        }
-
-        glDetachShader(m_ProgramId, m_VertexShaderId);
-        glDetachShader(m_ProgramId, m_FragmentShaderId);
-
-        glValidateProgram(m_ProgramId);
-        if (glGetProgrami(m_ProgramId, GL_VALIDATE_STATUS) == 0) {
-            throw new RuntimeException("The program doesn't validate.\n" + glGetProgramInfoLog(m_ProgramId, 1024));
-        }
+        Metrics.increment(Metrics.Counter.UNIFORM_UPLOADS);
     }
 }
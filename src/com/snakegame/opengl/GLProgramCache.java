@@ -0,0 +1,256 @@
+//
+// Snake Game
+// https://en.wikipedia.org/wiki/Snake_(video_game_genre)
+//
+// Based on the 1976 arcade game Blockade, and the 1991 game Nibbles
+// https://en.wikipedia.org/wiki/Blockade_(video_game)
+// https://en.wikipedia.org/wiki/Nibbles_(video_game)
+//
+// This implementation is Copyright (c) 2021, Damian Coventry
+// All rights reserved
+// Written for Massey University course 159.261 Game Programming (Assignment 1)
+//
+
+package com.snakegame.opengl;
+
+import org.lwjgl.BufferUtils;
+import org.lwjgl.opengl.GL;
+import org.lwjgl.system.MemoryStack;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+
+import static org.lwjgl.opengl.GL20.*;
+import static org.lwjgl.opengl.GL41.*;
+import static org.lwjgl.opengl.KHRParallelShaderCompile.glMaxShaderCompilerThreadsKHR;
+
+/**
+ * This class creates the linked program objects for GLProgram. A program is loaded from the binary that the driver
+ * gave back the last time the same source code was linked by the same driver, and it's compiled from source when
+ * there's no binary or the driver rejects it. Programs passed to startLinking() are compiled and linked without
+ * waiting on the results, so with KHR_parallel_shader_compile the driver can work on all of them at once.
+ * */
+public class GLProgramCache {
+    private final File m_Directory;
+    private final String m_DriverName;
+    private final boolean m_BinariesSupported;
+    private final HashMap<String, PendingProgram> m_PendingPrograms;
+
+    private static class PendingProgram {
+        private final int m_ProgramId;
+        private final int m_VertexShaderId;
+        private final int m_FragmentShaderId;
+        public PendingProgram(int programId, int vertexShaderId, int fragmentShaderId) {
+            m_ProgramId = programId;
+            m_VertexShaderId = vertexShaderId;
+            m_FragmentShaderId = fragmentShaderId;
+        }
+    }
+
+    public GLProgramCache(String directoryName) {
+        m_Directory = new File(directoryName, "programs");
+        m_DriverName = glGetString(GL_VENDOR) + "|" + glGetString(GL_RENDERER) + "|" + glGetString(GL_VERSION);
+        m_BinariesSupported = glGetInteger(GL_NUM_PROGRAM_BINARY_FORMATS) > 0;
+        m_PendingPrograms = new HashMap<>();
+
+        if (GL.getCapabilities().GL_KHR_parallel_shader_compile) {
+            // Let the driver choose how many threads to use
+            glMaxShaderCompilerThreadsKHR(0xFFFFFFFF);
+        }
+    }
+
+    public void startLinking(String vertexShaderSourceCode, String fragmentShaderSourceCode) {
+        String key = createKey(vertexShaderSourceCode, fragmentShaderSourceCode);
+        if (m_PendingPrograms.containsKey(key) || getBinaryFile(key).isFile()) {
+            return;
+        }
+        m_PendingPrograms.put(key, submit(vertexShaderSourceCode, fragmentShaderSourceCode));
+    }
+
+    public int link(String vertexShaderSourceCode, String fragmentShaderSourceCode) {
+        String key = createKey(vertexShaderSourceCode, fragmentShaderSourceCode);
+
+        PendingProgram pendingProgram = m_PendingPrograms.remove(key);
+        if (pendingProgram == null) {
+            int programId = loadBinary(key);
+            if (programId != 0) {
+                return programId;
+            }
+            pendingProgram = submit(vertexShaderSourceCode, fragmentShaderSourceCode);
+        }
+
+        int programId = finishLinking(pendingProgram);
+        storeBinary(key, programId);
+        return programId;
+    }
+
+    private PendingProgram submit(String vertexShaderSourceCode, String fragmentShaderSourceCode) {
+        int programId = glCreateProgram();
+        if (programId < 1) {
+            throw new RuntimeException("Unable to create a new program object");
+        }
+        if (m_BinariesSupported) {
+            glProgramParameteri(programId, GL_PROGRAM_BINARY_RETRIEVABLE_HINT, GL_TRUE);
+        }
+
+        // None of these calls wait for the driver, the statuses are only queried within finishLinking()
+        int vertexShaderId = compile(programId, GL_VERTEX_SHADER, vertexShaderSourceCode);
+        int fragmentShaderId = compile(programId, GL_FRAGMENT_SHADER, fragmentShaderSourceCode);
+        glLinkProgram(programId);
+        return new PendingProgram(programId, vertexShaderId, fragmentShaderId);
+    }
+
+    private int compile(int programId, int type, String sourceCode) {
+        int shaderId = glCreateShader(type);
+        if (shaderId < 1) {
+            throw new RuntimeException("Unable to create a new shader object");
+        }
+        glShaderSource(shaderId, sourceCode);
+        glCompileShader(shaderId);
+        glAttachShader(programId, shaderId);
+        return shaderId;
+    }
+
+    private int finishLinking(PendingProgram pendingProgram) {
+        int programId = pendingProgram.m_ProgramId;
+        if (glGetProgrami(programId, GL_LINK_STATUS) == 0) {
+            String message = "The program doesn't link.\n" + glGetProgramInfoLog(programId, 1024);
+            for (int shaderId : new int[] { pendingProgram.m_VertexShaderId, pendingProgram.m_FragmentShaderId }) {
+                if (glGetShaderi(shaderId, GL_COMPILE_STATUS) == 0) {
+                    message = "The shader source code doesn't compile.\n" + glGetShaderInfoLog(shaderId, 1024);
+                }
+            }
+            throw new RuntimeException(message);
+        }
+
+        glDetachShader(programId, pendingProgram.m_VertexShaderId);
+        glDetachShader(programId, pendingProgram.m_FragmentShaderId);
+        glDeleteShader(pendingProgram.m_VertexShaderId);
+        glDeleteShader(pendingProgram.m_FragmentShaderId);
+
+        validate(programId);
+        return programId;
+    }
+
+    private void validate(int programId) {
+        glValidateProgram(programId);
+        if (glGetProgrami(programId, GL_VALIDATE_STATUS) == 0) {
+            throw new RuntimeException("The program doesn't validate.\n" + glGetProgramInfoLog(programId, 1024));
+        }
+    }
+
+    // The file holds the binary format followed by the binary. Returns 0 if there's no usable binary.
+    private int loadBinary(String key) {
+        File file = getBinaryFile(key);
+        if (!m_BinariesSupported || !file.isFile()) {
+            return 0;
+        }
+
+        ByteBuffer contents;
+        try {
+            byte[] bytes = Files.readAllBytes(file.toPath());
+            contents = BufferUtils.createByteBuffer(bytes.length).put(bytes).flip();
+        }
+        catch (IOException e) {
+            e.printStackTrace();
+            return 0;
+        }
+        if (contents.remaining() < Integer.BYTES) {
+            // The file isn't even long enough for the binary's format, so it'll be compiled and stored again
+            deleteBinary(file);
+            return 0;
+        }
+
+        int programId = glCreateProgram();
+        if (programId < 1) {
+            throw new RuntimeException("Unable to create a new program object");
+        }
+        int binaryFormat = contents.getInt();
+        glProgramBinary(programId, binaryFormat, contents.slice());
+        if (glGetProgrami(programId, GL_LINK_STATUS) == 0) {
+            // The driver may refuse a binary it wrote itself, e.g. after an update that didn't change its version
+            glDeleteProgram(programId);
+            return 0;
+        }
+        validate(programId);
+        return programId;
+    }
+
+    private void storeBinary(String key, int programId) {
+        if (!m_BinariesSupported) {
+            return;
+        }
+        int length = glGetProgrami(programId, GL_PROGRAM_BINARY_LENGTH);
+        if (length <= 0) {
+            return;
+        }
+
+        try (MemoryStack stack = MemoryStack.stackPush()) {
+            ByteBuffer binary = BufferUtils.createByteBuffer(length);
+            IntBuffer binaryLength = stack.mallocInt(1);
+            IntBuffer binaryFormat = stack.mallocInt(1);
+            glGetProgramBinary(programId, binaryLength, binaryFormat, binary);
+
+            byte[] contents = new byte[Integer.BYTES + binaryLength.get(0)];
+            ByteBuffer.wrap(contents).order(binary.order()).putInt(binaryFormat.get(0)).put(binary.limit(binaryLength.get(0)));
+
+            // Written under a temporary name and then renamed, so a crash can't leave a partly written binary behind
+            Files.createDirectories(m_Directory.toPath());
+            File file = getBinaryFile(key);
+            Path temporary = Files.createTempFile(m_Directory.toPath(), file.getName(), ".tmp");
+            try {
+                Files.write(temporary, contents);
+                Files.move(temporary, file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            }
+            finally {
+                Files.deleteIfExists(temporary);
+            }
+        }
+        catch (IOException e) {
+            // The program works without its binary, it'll just be compiled again next time
+            e.printStackTrace();
+        }
+    }
+
+    private static void deleteBinary(File file) {
+        try {
+            Files.deleteIfExists(file.toPath());
+        }
+        catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private String createKey(String vertexShaderSourceCode, String fragmentShaderSourceCode) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(m_DriverName.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte)0);
+            digest.update(vertexShaderSourceCode.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte)0);
+            digest.update(fragmentShaderSourceCode.getBytes(StandardCharsets.UTF_8));
+
+            StringBuilder key = new StringBuilder();
+            for (byte b : digest.digest()) {
+                key.append(String.format("%02x", b));
+            }
+            return key.toString();
+        }
+        catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private File getBinaryFile(String key) {
+        return new File(m_Directory, key + ".bin");
+    }
+}
@@ -0,0 +1,151 @@
+//
+// Snake Game
+// https://en.wikipedia.org/wiki/Snake_(video_game_genre)
+//
+// Based on the 1976 arcade game Blockade, and the 1991 game Nibbles
+// https://en.wikipedia.org/wiki/Blockade_(video_game)
+// https://en.wikipedia.org/wiki/Nibbles_(video_game)
+//
+// This implementation is Copyright (c) 2021, Damian Coventry
+// All rights reserved
+// Written for Massey University course 159.261 Game Programming (Assignment 1)
+//
+
+package com.snakegame.opengl;
+
+import java.io.PrintWriter;
+import java.util.*;
+
+/**
+ * This class keeps a record of every live GL object created by this package: its type, its size in bytes, the asset
+ * it was created for, and the code that created it. Deleting an object that isn't live is reported as a double free,
+ * and reportLeaks() lists whatever is still live at shutdown. Objects are attributed to the innermost asset passed
+ * to beginAsset() on the same thread, e.g. the display mesh's pieces and the textures its material loads, or else
+ * to the code that created them.
+ * */
+public final class GLResourceRegistry {
+    public enum Type { TEXTURE, VERTEX_ARRAY, BUFFER, PROGRAM, QUERY }
+
+    private static final String s_PackageName = GLResourceRegistry.class.getPackageName();
+    private static final StackWalker s_StackWalker = StackWalker.getInstance();
+
+    private static class Entry {
+        private final Type m_Type;
+        private final int m_Id;
+        private final String m_Asset;
+        private final String m_CreationSite;
+        private long m_Bytes;
+        public Entry(Type type, int id, String asset, String creationSite) {
+            m_Type = type;
+            m_Id = id;
+            m_Asset = asset;
+            m_CreationSite = creationSite;
+            m_Bytes = 0;
+        }
+    }
+
+    private static final HashMap<Long, Entry> s_LiveEntries = new HashMap<>();
+    // Per thread, because the background loader attributes its objects while the main thread creates its own
+    private static final ThreadLocal<ArrayDeque<String>> s_Assets = ThreadLocal.withInitial(ArrayDeque::new);
+    private static long s_LiveBytes = 0;
+    private static long s_PeakBytes = 0;
+    private static int s_NumDoubleFrees = 0;
+
+    private GLResourceRegistry() {
+        // No work to do
+    }
+
+    public static synchronized void beginAsset(String fileName) {
+        s_Assets.get().push(fileName);
+    }
+
+    public static synchronized void endAsset() {
+        s_Assets.get().pop();
+    }
+
+    public static synchronized void created(Type type, int id) {
+        String creationSite = findCreationSite();
+        ArrayDeque<String> assets = s_Assets.get();
+        String asset = assets.isEmpty() ? creationSite : assets.peek();
+        s_LiveEntries.put(getKey(type, id), new Entry(type, id, asset, creationSite));
+    }
+
+    public static synchronized void resized(Type type, int id, long bytes) {
+        Entry entry = s_LiveEntries.get(getKey(type, id));
+        if (entry == null) {
+            reportProblem("A " + type + " that isn't live was resized, id " + id);
+            return;
+        }
+        s_LiveBytes += bytes - entry.m_Bytes;
+        s_PeakBytes = Math.max(s_PeakBytes, s_LiveBytes);
+        entry.m_Bytes = bytes;
+    }
+
+    public static synchronized void deleted(Type type, int id) {
+        Entry entry = s_LiveEntries.remove(getKey(type, id));
+        if (entry == null) {
+            ++s_NumDoubleFrees;
+            reportProblem("A " + type + " was freed twice, or was never created, id " + id);
+            return;
+        }
+        s_LiveBytes -= entry.m_Bytes;
+    }
+
+    public static synchronized long getLiveBytes() {
+        return s_LiveBytes;
+    }
+
+    public static synchronized long getPeakBytes() {
+        return s_PeakBytes;
+    }
+
+    public static synchronized int getNumLiveObjects() {
+        return s_LiveEntries.size();
+    }
+
+    // Lists the live objects' count and bytes per asset and type, largest first
+    public static synchronized void writeReport(PrintWriter writer) {
+        HashMap<String, long[]> totals = new HashMap<>();
+        for (var entry : s_LiveEntries.values()) {
+            long[] total = totals.computeIfAbsent(entry.m_Asset + "|" + entry.m_Type, (key) -> new long[2]);
+            ++total[0];
+            total[1] += entry.m_Bytes;
+        }
+        ArrayList<Map.Entry<String, long[]>> rows = new ArrayList<>(totals.entrySet());
+        rows.sort((lhs, rhs) -> Long.compare(rhs.getValue()[1], lhs.getValue()[1]));
+
+        writer.printf("%d live objects, %d bytes, peak %d bytes, %d double frees\n",
+                s_LiveEntries.size(), s_LiveBytes, s_PeakBytes, s_NumDoubleFrees);
+        writer.printf("%-48s %-12s %8s %12s\n", "asset", "type", "count", "bytes");
+        for (var row : rows) {
+            String[] key = row.getKey().split("\\|");
+            writer.printf("%-48s %-12s %8d %12d\n", key[0], key[1], row.getValue()[0], row.getValue()[1]);
+        }
+        writer.flush();
+    }
+
+    // Call this once everything has been freed, anything still live has leaked
+    public static synchronized void reportLeaks() {
+        for (var entry : s_LiveEntries.values()) {
+            System.err.printf("Leaked %s %d (%d bytes) for asset [%s], created by %s\n",
+                    entry.m_Type, entry.m_Id, entry.m_Bytes, entry.m_Asset, entry.m_CreationSite);
+        }
+    }
+
+    private static long getKey(Type type, int id) {
+        return ((long)type.ordinal() << 32) | (id & 0xFFFFFFFFL);
+    }
+
+    // The first caller outside this package, that's the code that asked for the object
+    private static String findCreationSite() {
+        return s_StackWalker.walk((frames) -> frames
+                .filter((frame) -> !frame.getClassName().startsWith(s_PackageName))
+                .findFirst()
+                .map((frame) -> frame.getClassName() + "." + frame.getMethodName() + ":" + frame.getLineNumber())
+                .orElse("(unknown)"));
+    }
+
+    private static void reportProblem(String message) {
+        new RuntimeException(message).printStackTrace();
+    }
+}
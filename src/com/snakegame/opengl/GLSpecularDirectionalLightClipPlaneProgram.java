@@ -13,13 +13,10 @@
 
 package com.snakegame.opengl;
 
+import com.snakegame.profiling.Metrics;
 import org.joml.*;
 
-import javax.imageio.ImageIO;
-import java.io.File;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.*;
 
 import static org.lwjgl.opengl.GL11.GL_TEXTURE_2D;
 import static org.lwjgl.opengl.GL11.glBindTexture;
@@ -27,6 +24,9 @@ import static org.lwjgl.opengl.GL13.GL_TEXTURE1;
 import static org.lwjgl.opengl.GL13.glActiveTexture;
 
 public class GLSpecularDirectionalLightClipPlaneProgram extends GLProgram {
+    public static final String s_VertexShaderFileName = "shaders/SpecularDirectionalLightClipPlane.vert";
+    public static final String s_FragmentShaderFileName = "shaders/SpecularDirectionalLightClipPlane.frag";
+
     private final int m_MvMatrixLocation;
     private final int m_ProjectionMatrixLocation;
     private final int m_DiffuseTextureLocation;
@@ -50,11 +50,10 @@ public class GLSpecularDirectionalLightClipPlaneProgram extends GLProgram {
     private float m_LightIntensity;
     private float m_Shininess;
 
-    public GLSpecularDirectionalLightClipPlaneProgram(String noiseTextureFileName) throws IOException {
-        super(Files.readString(Paths.get("shaders/SpecularDirectionalLightClipPlane.vert"), StandardCharsets.US_ASCII),
-              Files.readString(Paths.get("shaders/SpecularDirectionalLightClipPlane.frag"), StandardCharsets.US_ASCII));
+    public GLSpecularDirectionalLightClipPlaneProgram(SourceReader sourceReader, GLProgramCache programCache, GLTexture noiseTexture) throws IOException {
+        super(programCache, sourceReader.readText(s_VertexShaderFileName), sourceReader.readText(s_FragmentShaderFileName));
 
-        m_NoiseTexture = new GLTexture(ImageIO.read(new File(noiseTextureFileName)));
+        m_NoiseTexture = noiseTexture;
 
         m_MvMatrixLocation = getUniformLocation("mvMatrix");
         m_ProjectionMatrixLocation = getUniformLocation("projectionMatrix");
@@ -116,6 +115,7 @@ public class GLSpecularDirectionalLightClipPlaneProgram extends GLProgram {
 
         glActiveTexture(GL_TEXTURE1);
         glBindTexture(GL_TEXTURE_2D, m_NoiseTexture.getId());
+        Metrics.increment(Metrics.Counter.TEXTURE_BINDS);
 
         setUniform(m_MvMatrixLocation, mvMatrix);
         setUniform(m_ProjectionMatrixLocation, projectionMatrix);
@@ -0,0 +1,102 @@
+//
+// Snake Game
+// https://en.wikipedia.org/wiki/Snake_(video_game_genre)
+//
+// Based on the 1976 arcade game Blockade, and the 1991 game Nibbles
+// https://en.wikipedia.org/wiki/Blockade_(video_game)
+// https://en.wikipedia.org/wiki/Nibbles_(video_game)
+//
+// This implementation is Copyright (c) 2021, Damian Coventry
+// All rights reserved
+// Written for Massey University course 159.261 Game Programming (Assignment 1)
+//
+
+package com.snakegame.opengl;
+
+import org.joml.*;
+
+import java.io.IOException;
+
+/**
+ * This class is the same as GLSpecularDirectionalLightProgram, except that each instance's model matrix comes from
+ * a GLInstanceBuffer rather than a uniform, so many copies of a mesh can be drawn with one call.
+ * */
+public class GLSpecularDirectionalLightInstancedProgram extends GLProgram {
+    public static final String s_VertexShaderFileName = "shaders/SpecularDirectionalLightInstanced.vert";
+    public static final String s_FragmentShaderFileName = "shaders/SpecularDirectionalLight.frag";
+
+    private final int m_ViewMatrixLocation;
+    private final int m_ProjectionMatrixLocation;
+    private final int m_DiffuseTextureLocation;
+    private final int m_DiffuseColourLocation;
+    private final int m_AmbientLightLocation;
+    private final int m_LightDirectionLocation;
+    private final int m_LightColourLocation;
+    private final int m_LightIntensityLocation;
+    private final int m_ShininessLocation;
+
+    private Vector4f m_DiffuseColour;
+    private Vector3f m_AmbientLight;
+    private Vector3f m_LightDirection;
+    private Vector3f m_LightColour;
+    private float m_LightIntensity;
+    private float m_Shininess;
+
+    public GLSpecularDirectionalLightInstancedProgram(SourceReader sourceReader, GLProgramCache programCache) throws IOException {
+        super(programCache, sourceReader.readText(s_VertexShaderFileName), sourceReader.readText(s_FragmentShaderFileName));
+
+        m_ViewMatrixLocation = getUniformLocation("viewMatrix");
+        m_ProjectionMatrixLocation = getUniformLocation("projectionMatrix");
+        m_DiffuseTextureLocation = getUniformLocation("diffuseTexture");
+        m_DiffuseColourLocation = getUniformLocation("diffuseColour");
+        m_AmbientLightLocation = getUniformLocation("ambientLight");
+        m_LightDirectionLocation = getUniformLocation("lightDirection");
+        m_LightColourLocation = getUniformLocation("lightColour");
+        m_LightIntensityLocation = getUniformLocation("lightIntensity");
+        m_ShininessLocation = getUniformLocation("shininess");
+
+        m_DiffuseColour = new Vector4f(1.0f, 1.0f, 1.0f, 1.0f);
+        m_AmbientLight = new Vector3f(0.15f, 0.15f, 0.15f);
+        m_LightDirection = new Vector3f(0.0f, 0.0f, 1.0f);
+        m_LightColour = new Vector3f(1.0f, 1.0f, 1.0f);
+        m_LightIntensity = 1.0f;
+        m_Shininess = 32.0f;
+    }
+
+    public void setDiffuseColour(Vector4f diffuseColour) {
+        m_DiffuseColour = diffuseColour;
+    }
+
+    public void setAmbientLight(Vector3f ambientLight) {
+        m_AmbientLight = ambientLight;
+    }
+
+    public void setLightDirection(Vector3f lightDirection) {
+        m_LightDirection = lightDirection;
+    }
+
+    public void setLightColour(Vector3f lightColour) {
+        m_LightColour = lightColour;
+    }
+
+    public void setLightIntensity(float lightIntensity) {
+        m_LightIntensity = lightIntensity;
+    }
+
+    public void setShininess(float shininess) {
+        m_Shininess = shininess;
+    }
+
+    public void activate(Matrix4f viewMatrix, Matrix4f projectionMatrix) {
+        super.bind();
+        setUniform(m_ViewMatrixLocation, viewMatrix);
+        setUniform(m_ProjectionMatrixLocation, projectionMatrix);
+        setUniform(m_DiffuseTextureLocation, 0);
+        setUniform(m_DiffuseColourLocation, m_DiffuseColour);
+        setUniform(m_AmbientLightLocation, m_AmbientLight);
+        setUniform(m_LightDirectionLocation, m_LightDirection);
+        setUniform(m_LightColourLocation, m_LightColour);
+        setUniform(m_LightIntensityLocation, m_LightIntensity);
+        setUniform(m_ShininessLocation, m_Shininess);
+    }
+}
@@ -16,10 +16,11 @@ package com.snakegame.opengl;
 import org.joml.*;
 
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.*;
 
 public class GLSpecularDirectionalLightProgram extends GLProgram {
+    public static final String s_VertexShaderFileName = "shaders/SpecularDirectionalLight.vert";
+    public static final String s_FragmentShaderFileName = "shaders/SpecularDirectionalLight.frag";
+
     private final int m_MvMatrixLocation;
     private final int m_ProjectionMatrixLocation;
     private final int m_DiffuseTextureLocation;
@@ -37,9 +38,8 @@ public class GLSpecularDirectionalLightProgram extends GLProgram {
     private float m_LightIntensity;
     private float m_Shininess;
 
-    public GLSpecularDirectionalLightProgram() throws IOException {
-        super(Files.readString(Paths.get("shaders/SpecularDirectionalLight.vert"), StandardCharsets.US_ASCII),
-              Files.readString(Paths.get("shaders/SpecularDirectionalLight.frag"), StandardCharsets.US_ASCII));
+    public GLSpecularDirectionalLightProgram(SourceReader sourceReader, GLProgramCache programCache) throws IOException {
+        super(programCache, sourceReader.readText(s_VertexShaderFileName), sourceReader.readText(s_FragmentShaderFileName));
 
         m_MvMatrixLocation = getUniformLocation("mvMatrix");
         m_ProjectionMatrixLocation = getUniformLocation("projectionMatrix");
@@ -13,6 +13,7 @@
 
 package com.snakegame.opengl;
 
+import com.snakegame.profiling.Metrics;
 import org.lwjgl.system.MemoryUtil;
 
 import java.nio.FloatBuffer;
@@ -25,18 +26,32 @@ import static org.lwjgl.opengl.GL15.glDeleteBuffers;
 import static org.lwjgl.opengl.GL20.glEnableVertexAttribArray;
 import static org.lwjgl.opengl.GL20.glVertexAttribPointer;
 import static org.lwjgl.opengl.GL30.*;
+import static org.lwjgl.opengl.GL42.glDrawArraysInstancedBaseInstance;
 import static org.lwjgl.system.MemoryUtil.memFree;
 
+/**
+ * This class holds a piece's vertex data within a VBO per attribute. The VBOs can be uploaded on the background
+ * loader's context, see GLBackgroundLoader, but vertex array objects aren't shared between contexts. So the piece's
+ * VAO is created the first time it's drawn, or has an instance buffer attached, which is always on the main thread.
+ * */
 public class GLStaticPolyhedronPieceBase {
-    private final int m_VaoId;
     private final int m_NumVertices;
     private GLTexture m_DiffuseTexture;
     protected int[] m_VboIds;
+    private int m_BoundVboId;
+    private int m_VaoId;
+    // Indexed by attribute, which is also the index of its VBO
+    private final int[] m_AttributeSizes;
+    private GLInstanceBuffer m_InstanceBuffer;
+    private int m_InstanceFirstAttribute;
 
-    public GLStaticPolyhedronPieceBase(GLTexture diffuseTexture, int numVertices) {
+    public GLStaticPolyhedronPieceBase(GLTexture diffuseTexture, int numVertices, int numAttributes) {
         m_DiffuseTexture = diffuseTexture;
         m_NumVertices = numVertices;
-        m_VaoId = createVao();
+        m_VaoId = 0;
+        m_AttributeSizes = new int[numAttributes];
+        m_InstanceBuffer = null;
+        m_InstanceFirstAttribute = 0;
     }
 
     public GLTexture getDiffuseTexture() {
@@ -48,42 +63,96 @@ public class GLStaticPolyhedronPieceBase {
 
     public void freeNativeResources() {
         m_DiffuseTexture.freeNativeResource();
+        freeVertexResources();
+    }
+
+    // Use this instead of freeNativeResources() when the diffuse texture is owned elsewhere
+    public void freeVertexResources() {
         if (m_VboIds != null) {
-            glDeleteBuffers(m_VboIds);
+            deleteVbos();
+        }
+        if (m_VaoId != 0) {
+            GLResourceRegistry.deleted(GLResourceRegistry.Type.VERTEX_ARRAY, m_VaoId);
+            glDeleteVertexArrays(m_VaoId);
+            m_VaoId = 0;
         }
-        glDeleteVertexArrays(m_VaoId);
     }
 
-    private int createVao() {
-        int id = glGenVertexArrays();
-        if (id == 0) {
+    private void deleteVbos() {
+        for (int vboId : m_VboIds) {
+            if (vboId != 0) {
+                GLResourceRegistry.deleted(GLResourceRegistry.Type.BUFFER, vboId);
+            }
+        }
+        glDeleteBuffers(m_VboIds);
+    }
+
+    // Binds the piece's VAO, creating it first if this is the first time
+    private void bindVao() {
+        if (m_VaoId != 0) {
+            glBindVertexArray(m_VaoId);
+            return;
+        }
+        m_VaoId = glGenVertexArrays();
+        if (m_VaoId == 0) {
             throw new RuntimeException("Unable to create a static polyhedron");
         }
-        glBindVertexArray(id);
-        return id;
+        glBindVertexArray(m_VaoId);
+        GLResourceRegistry.created(GLResourceRegistry.Type.VERTEX_ARRAY, m_VaoId);
+
+        for (int attribute = 0; attribute < m_AttributeSizes.length; ++attribute) {
+            glBindBuffer(GL_ARRAY_BUFFER, m_VboIds[attribute]);
+            glEnableVertexAttribArray(attribute);
+            glVertexAttribPointer(attribute, m_AttributeSizes[attribute], GL_FLOAT, false, 0, 0);
+        }
+        if (m_InstanceBuffer != null) {
+            m_InstanceBuffer.attach(m_InstanceFirstAttribute);
+        }
     }
 
     protected int createVbo() {
         int id = glGenBuffers();
         if (id == 0) {
             if (m_VboIds != null) {
-                glDeleteBuffers(m_VboIds);
-            }
-            if (m_VaoId != 0) {
-                glDeleteVertexArrays(m_VaoId);
+                deleteVbos();
             }
             throw new RuntimeException("Unable to create a static polyhedron");
         }
         glBindBuffer(GL_ARRAY_BUFFER, id);
+        GLResourceRegistry.created(GLResourceRegistry.Type.BUFFER, id);
+        m_BoundVboId = id;
         return id;
     }
 
     protected void drawTriangles(int numAttributes) {
-        glBindVertexArray(m_VaoId);
+        bindVao();
         for (int i = 0; i < numAttributes; ++ i) {
             glEnableVertexAttribArray(i);
         }
         glDrawArrays(GL_TRIANGLES, 0, m_NumVertices);
+        Metrics.increment(Metrics.Counter.DRAW_CALLS);
+    }
+
+    // This may be called on the background loader's thread, in which case it's attached when the VAO is created
+    protected void attachInstanceBuffer(int firstAttribute, GLInstanceBuffer instanceBuffer) {
+        m_InstanceBuffer = instanceBuffer;
+        m_InstanceFirstAttribute = firstAttribute;
+        if (m_VaoId != 0) {
+            glBindVertexArray(m_VaoId);
+            instanceBuffer.attach(firstAttribute);
+            glBindVertexArray(0);
+        }
+    }
+
+    // Draws the instances whose model matrices are at [firstInstance, firstInstance + numInstances) within the
+    // attached instance buffer
+    protected void drawTrianglesInstanced(int numAttributes, int firstInstance, int numInstances) {
+        bindVao();
+        for (int i = 0; i < numAttributes; ++ i) {
+            glEnableVertexAttribArray(i);
+        }
+        glDrawArraysInstancedBaseInstance(GL_TRIANGLES, 0, m_NumVertices, numInstances, firstInstance);
+        Metrics.increment(Metrics.Counter.DRAW_CALLS);
     }
 
     protected void copyFloatDataIntoVbo(int attribute, int size, float[] floatData) {
@@ -91,10 +160,7 @@ public class GLStaticPolyhedronPieceBase {
         try {
             floatBuffer = MemoryUtil.memAllocFloat(floatData.length);
             floatBuffer.put(floatData).flip();
-
-            glBufferData(GL_ARRAY_BUFFER, floatBuffer, GL_STATIC_DRAW);
-            glEnableVertexAttribArray(attribute);
-            glVertexAttribPointer(attribute, size, GL_FLOAT, false, 0, 0);
+            copyFloatDataIntoVbo(attribute, size, floatBuffer);
         }
         finally {
             if (floatBuffer != null) {
@@ -102,4 +168,13 @@ public class GLStaticPolyhedronPieceBase {
             }
         }
     }
+
+    // The buffer must be direct, it's handed to the driver without being copied first. The attribute's pointer is
+    // set when the VAO is created.
+    protected void copyFloatDataIntoVbo(int attribute, int size, FloatBuffer floatData) {
+        glBufferData(GL_ARRAY_BUFFER, floatData, GL_STATIC_DRAW);
+        Metrics.add(Metrics.Counter.VBO_BYTES, (long)floatData.remaining() * Float.BYTES);
+        GLResourceRegistry.resized(GLResourceRegistry.Type.BUFFER, m_BoundVboId, (long)floatData.remaining() * Float.BYTES);
+        m_AttributeSizes[attribute] = size;
+    }
 }
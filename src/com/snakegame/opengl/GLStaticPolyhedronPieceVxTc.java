@@ -15,7 +15,7 @@ package com.snakegame.opengl;
 
 public class GLStaticPolyhedronPieceVxTc extends GLStaticPolyhedronPieceBase {
     public GLStaticPolyhedronPieceVxTc(GLTexture diffuseTexture, float[] vertices, float[] texCoordinates) {
-        super(diffuseTexture, vertices.length / 3);
+        super(diffuseTexture, vertices.length / 3, 2);
 
         m_VboIds = new int[2];
 
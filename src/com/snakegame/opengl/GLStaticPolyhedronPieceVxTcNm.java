@@ -13,9 +13,26 @@
 
 package com.snakegame.opengl;
 
+import java.nio.FloatBuffer;
+
 public class GLStaticPolyhedronPieceVxTcNm extends GLStaticPolyhedronPieceBase {
     public GLStaticPolyhedronPieceVxTcNm(GLTexture diffuseTexture, float[] vertices, float[] texCoordinates, float[] normals) {
-        super(diffuseTexture, vertices.length / 3);
+        super(diffuseTexture, vertices.length / 3, 3);
+
+        m_VboIds = new int[3];
+
+        m_VboIds[0] = createVbo();
+        copyFloatDataIntoVbo(0, 3, vertices);
+
+        m_VboIds[1] = createVbo();
+        copyFloatDataIntoVbo(1, 2, texCoordinates);
+
+        m_VboIds[2] = createVbo();
+        copyFloatDataIntoVbo(2, 3, normals);
+    }
+
+    public GLStaticPolyhedronPieceVxTcNm(GLTexture diffuseTexture, FloatBuffer vertices, FloatBuffer texCoordinates, FloatBuffer normals) {
+        super(diffuseTexture, vertices.remaining() / 3, 3);
 
         m_VboIds = new int[3];
 
@@ -32,4 +49,13 @@ public class GLStaticPolyhedronPieceVxTcNm extends GLStaticPolyhedronPieceBase {
     public void draw() {
         drawTriangles(3);
     }
+
+    // The instances' model matrices follow the vertex attributes, at locations 3 to 6
+    public void attachInstanceBuffer(GLInstanceBuffer instanceBuffer) {
+        attachInstanceBuffer(3, instanceBuffer);
+    }
+
+    public void drawInstanced(int firstInstance, int numInstances) {
+        drawTrianglesInstanced(3, firstInstance, numInstances);
+    }
 }
@@ -13,6 +13,8 @@
 
 package com.snakegame.opengl;
 
+import com.snakegame.profiling.Metrics;
+
 import java.util.ArrayList;
 
 import static org.lwjgl.opengl.GL30.*;
@@ -40,6 +42,13 @@ public class GLStaticPolyhedronVxTc {
         }
     }
 
+    public void freeVertexResources() {
+        deactivateCurrent();
+        for (var piece : m_Pieces) {
+            piece.freeVertexResources();
+        }
+    }
+
     public GLStaticPolyhedronPieceVxTc getPiece(int i) {
         return m_Pieces.get(i);
     }
@@ -48,6 +57,7 @@ public class GLStaticPolyhedronVxTc {
         for (var piece : m_Pieces) {
             glActiveTexture(GL_TEXTURE0);
             glBindTexture(GL_TEXTURE_2D, piece.getDiffuseTexture().getId());
+            Metrics.increment(Metrics.Counter.TEXTURE_BINDS);
             piece.draw();
         }
     }
@@ -13,6 +13,8 @@
 
 package com.snakegame.opengl;
 
+import com.snakegame.profiling.Metrics;
+
 import java.util.ArrayList;
 
 import static org.lwjgl.opengl.GL30.*;
@@ -48,7 +50,23 @@ public class GLStaticPolyhedronVxTcNm {
         for (var piece : m_Pieces) {
             glActiveTexture(GL_TEXTURE0);
             glBindTexture(GL_TEXTURE_2D, piece.getDiffuseTexture().getId());
+            Metrics.increment(Metrics.Counter.TEXTURE_BINDS);
             piece.draw();
         }
     }
+
+    public void attachInstanceBuffer(GLInstanceBuffer instanceBuffer) {
+        for (var piece : m_Pieces) {
+            piece.attachInstanceBuffer(instanceBuffer);
+        }
+    }
+
+    public void drawInstanced(int firstInstance, int numInstances) {
+        for (var piece : m_Pieces) {
+            glActiveTexture(GL_TEXTURE0);
+            glBindTexture(GL_TEXTURE_2D, piece.getDiffuseTexture().getId());
+            Metrics.increment(Metrics.Counter.TEXTURE_BINDS);
+            piece.drawInstanced(firstInstance, numInstances);
+        }
+    }
 }
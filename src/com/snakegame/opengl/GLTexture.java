@@ -13,6 +13,7 @@
 
 package com.snakegame.opengl;
 
+import com.snakegame.profiling.Metrics;
 import org.lwjgl.BufferUtils;
 
 import java.awt.image.BufferedImage;
@@ -25,8 +26,32 @@ public class GLTexture {
     private final float m_Width;
     private final float m_Height;
 
-    // https://jvm-gaming.org/t/bufferedimage-to-lwjgl-texture/37959
     public GLTexture(BufferedImage image) {
+        this(image.getWidth(), image.getHeight(), toRgbaPixels(image));
+    }
+
+    // The pixels must already be in RGBA order, e.g. from toRgbaPixels() or from the asset pack
+    public GLTexture(int width, int height, ByteBuffer rgbaPixels) {
+        m_Width = width;
+        m_Height = height;
+
+        m_Id = glGenTextures();
+        if (m_Id < 1) {
+            throw new RuntimeException("Unable to create a new texture object");
+        }
+        glBindTexture(GL_TEXTURE_2D, m_Id);
+        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_S, GL_REPEAT);
+        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_T, GL_REPEAT);
+        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MIN_FILTER, GL_LINEAR);
+        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MAG_FILTER, GL_LINEAR);
+        glTexImage2D(GL_TEXTURE_2D, 0, GL_RGBA8, width, height, 0, GL_RGBA, GL_UNSIGNED_BYTE, rgbaPixels);
+        Metrics.add(Metrics.Counter.TEXTURE_BYTES, 4L * width * height);
+        GLResourceRegistry.created(GLResourceRegistry.Type.TEXTURE, m_Id);
+        GLResourceRegistry.resized(GLResourceRegistry.Type.TEXTURE, m_Id, 4L * width * height);
+    }
+
+    // https://jvm-gaming.org/t/bufferedimage-to-lwjgl-texture/37959
+    public static ByteBuffer toRgbaPixels(BufferedImage image) {
         int[] pixels = new int[image.getWidth() * image.getHeight()];
         image.getRGB(0, 0, image.getWidth(), image.getHeight(), pixels, 0, image.getWidth());
 
@@ -44,23 +69,11 @@ public class GLTexture {
         // After a sequence of channel-read or put operations, invoke this method to prepare for a
         // sequence of channel-write or relative get operations.
         buffer.flip();
-
-        m_Width = image.getWidth();
-        m_Height = image.getHeight();
-
-        m_Id = glGenTextures();
-        if (m_Id < 1) {
-            throw new RuntimeException("Unable to create a new texture object");
-        }
-        glBindTexture(GL_TEXTURE_2D, m_Id);
-        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_S, GL_REPEAT);
-        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_T, GL_REPEAT);
-        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MIN_FILTER, GL_LINEAR);
-        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MAG_FILTER, GL_LINEAR);
-        glTexImage2D(GL_TEXTURE_2D, 0, GL_RGBA8, image.getWidth(), image.getHeight(), 0, GL_RGBA, GL_UNSIGNED_BYTE, buffer);
+        return buffer;
     }
 
     public void freeNativeResource() {
+        GLResourceRegistry.deleted(GLResourceRegistry.Type.TEXTURE, m_Id);
         glDeleteTextures(m_Id);
     }
 
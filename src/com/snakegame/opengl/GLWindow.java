@@ -37,6 +37,7 @@ public class GLWindow {
     private static final float s_FarClipPlane = 1000.0f;
 
     private final long m_Window;
+    private final long m_LoaderWindow;
     private long m_ArrowMouseCursor;
     private long m_HandMouseCursor;
     private long m_GrabMouseCursor;
@@ -68,6 +69,14 @@ public class GLWindow {
             throw new RuntimeException("Failed to create the GLFW window");
         }
 
+        // A window that's never shown, whose context shares its objects with the main window's context. The
+        // background loader uploads textures and vertex data on it, see GLBackgroundLoader.
+        m_LoaderWindow = glfwCreateWindow(1, 1, windowTitle, NULL, m_Window);
+        if (m_LoaderWindow == NULL) {
+            glfwTerminate();
+            throw new RuntimeException("Failed to create the GLFW loader window");
+        }
+
         GLFWVidMode vidMode = glfwGetVideoMode(glfwGetPrimaryMonitor());
         if (vidMode == null) {
             glfwTerminate();
@@ -165,6 +174,7 @@ public class GLWindow {
         glfwDestroyCursor(m_ArrowMouseCursor);
         glfwDestroyCursor(m_HandMouseCursor);
         glfwDestroyCursor(m_GrabMouseCursor);
+        glfwDestroyWindow(m_LoaderWindow);
         glfwDestroyWindow(m_Window);
         glfwTerminate();
     }
@@ -205,12 +215,35 @@ public class GLWindow {
         return new CursorPosition((float)xPos[0], (float)yPos[0]);
     }
 
+    // Call these on the background loader's thread, a context can only be current on one thread at a time
+    public void makeLoaderContextCurrent() {
+        glfwMakeContextCurrent(m_LoaderWindow);
+        GL.createCapabilities();
+    }
+
+    public void releaseLoaderContext() {
+        glfwMakeContextCurrent(NULL);
+    }
+
     public void beginDrawing() {
         glClear(GL_COLOR_BUFFER_BIT | GL_DEPTH_BUFFER_BIT);
     }
 
     public void endDrawing() {
+        swapBuffers();
+        pollEvents();
+    }
+
+    // 0 doesn't wait for the monitor's refresh, e.g. for benchmarking
+    public void setSwapInterval(int interval) {
+        glfwSwapInterval(interval);
+    }
+
+    public void swapBuffers() {
         glfwSwapBuffers(m_Window);
+    }
+
+    public void pollEvents() {
         glfwPollEvents();
     }
 
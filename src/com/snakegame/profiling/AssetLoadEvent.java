@@ -0,0 +1,32 @@
+//
+// Snake Game
+// https://en.wikipedia.org/wiki/Snake_(video_game_genre)
+//
+// Based on the 1976 arcade game Blockade, and the 1991 game Nibbles
+// https://en.wikipedia.org/wiki/Blockade_(video_game)
+// https://en.wikipedia.org/wiki/Nibbles_(video_game)
+//
+// This implementation is Copyright (c) 2021, Damian Coventry
+// All rights reserved
+// Written for Massey University course 159.261 Game Programming (Assignment 1)
+//
+
+package com.snakegame.profiling;
+
+import jdk.jfr.*;
+
+@Name("com.snakegame.AssetLoad")
+@Label("Asset Load")
+@Category({"Snake Game", "Loading"})
+@Description("A texture or display mesh was loaded, from the asset pack, the asset cache or its source file")
+public class AssetLoadEvent extends Event {
+    public static final String s_FromPack = "pack";
+    public static final String s_FromCache = "cache";
+    public static final String s_FromFile = "file";
+
+    @Label("File Name")
+    public String m_FileName;
+
+    @Label("Source")
+    public String m_Source;
+}
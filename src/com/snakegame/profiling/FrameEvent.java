@@ -0,0 +1,57 @@
+//
+// Snake Game
+// https://en.wikipedia.org/wiki/Snake_(video_game_genre)
+//
+// Based on the 1976 arcade game Blockade, and the 1991 game Nibbles
+// https://en.wikipedia.org/wiki/Blockade_(video_game)
+// https://en.wikipedia.org/wiki/Nibbles_(video_game)
+//
+// This implementation is Copyright (c) 2021, Damian Coventry
+// All rights reserved
+// Written for Massey University course 159.261 Game Programming (Assignment 1)
+//
+
+package com.snakegame.profiling;
+
+import jdk.jfr.*;
+
+@Name("com.snakegame.Frame")
+@Label("Frame")
+@Category({"Snake Game", "Application"})
+@Description("A summary of one pass through Application.run()")
+@StackTrace(false)
+public class FrameEvent extends Event {
+    @Label("Ticks")
+    public int m_NumTicks;
+
+    @Label("Timeouts Fired")
+    public int m_TimeoutsFired;
+
+    @Label("Physics")
+    @Timespan
+    public long m_PhysicsNs;
+
+    @Label("Timeouts")
+    @Timespan
+    public long m_TimeoutsNs;
+
+    @Label("Think")
+    @Timespan
+    public long m_ThinkNs;
+
+    @Label("Draw 3D")
+    @Timespan
+    public long m_Draw3dNs;
+
+    @Label("Draw 2D")
+    @Timespan
+    public long m_Draw2dNs;
+
+    @Label("Swap")
+    @Timespan
+    public long m_SwapNs;
+
+    @Label("Poll")
+    @Timespan
+    public long m_PollNs;
+}
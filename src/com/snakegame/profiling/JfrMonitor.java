@@ -0,0 +1,93 @@
+//
+// Snake Game
+// https://en.wikipedia.org/wiki/Snake_(video_game_genre)
+//
+// Based on the 1976 arcade game Blockade, and the 1991 game Nibbles
+// https://en.wikipedia.org/wiki/Blockade_(video_game)
+// https://en.wikipedia.org/wiki/Nibbles_(video_game)
+//
+// This implementation is Copyright (c) 2021, Damian Coventry
+// All rights reserved
+// Written for Massey University course 159.261 Game Programming (Assignment 1)
+//
+
+package com.snakegame.profiling;
+
+import jdk.jfr.consumer.RecordingStream;
+
+import java.time.Duration;
+
+/**
+ * This class streams JFR events from within the game's own process, and keeps the allocation rate and the GC pause
+ * time of the most recent second for the debug overlay. The events are handled on the stream's own thread, so the
+ * results are published through volatile fields. Start the game with -Dsnakegame.jfrMonitor=true to enable it.
+ * */
+public class JfrMonitor {
+    private static final String s_AllocationSampleEvent = "jdk.ObjectAllocationSample";
+    private static final String s_GcPauseEvent = "jdk.GCPhasePause";
+    private static final long s_PublishIntervalNs = 1_000_000_000L;
+
+    private final RecordingStream m_Stream;
+
+    // Only touched by the stream's thread
+    private long m_AllocatedBytes;
+    private long m_GcPauseNs;
+    private long m_MaxGcPauseNs;
+    private long m_LastFlushNs;
+
+    private volatile long m_AllocationRate;
+    private volatile long m_GcPauseNsPerSecond;
+    private volatile long m_LastMaxGcPauseNs;
+
+    public JfrMonitor() {
+        m_Stream = new RecordingStream();
+        m_Stream.setReuse(true);
+        m_Stream.setOrdered(false);
+        m_Stream.enable(s_AllocationSampleEvent).with("throttle", "150/s");
+        m_Stream.enable(s_GcPauseEvent);
+        m_Stream.onEvent(s_AllocationSampleEvent, (event) -> m_AllocatedBytes += event.getLong("weight"));
+        m_Stream.onEvent(s_GcPauseEvent, (event) -> {
+            long pauseNs = event.getDuration().toNanos();
+            m_GcPauseNs += pauseNs;
+            m_MaxGcPauseNs = Math.max(m_MaxGcPauseNs, pauseNs);
+        });
+        m_Stream.setMaxAge(Duration.ofSeconds(10));
+        m_Stream.onFlush(this::publish);
+        m_LastFlushNs = System.nanoTime();
+        m_Stream.startAsync();
+    }
+
+    public void close() {
+        m_Stream.close();
+    }
+
+    // The approximate number of bytes allocated per second, from the sampled allocations' weights
+    public long getAllocationRate() {
+        return m_AllocationRate;
+    }
+
+    public long getGcPauseNsPerSecond() {
+        return m_GcPauseNsPerSecond;
+    }
+
+    public long getMaxGcPauseNs() {
+        return m_LastMaxGcPauseNs;
+    }
+
+    // The stream flushes about once a second, but sometimes twice in quick succession, so the totals are only
+    // published once they cover at least a second
+    private void publish() {
+        long nowNs = System.nanoTime();
+        if (nowNs - m_LastFlushNs < s_PublishIntervalNs) {
+            return;
+        }
+        double seconds = (nowNs - m_LastFlushNs) / 1e9;
+        m_LastFlushNs = nowNs;
+        m_AllocationRate = (long)(m_AllocatedBytes / seconds);
+        m_GcPauseNsPerSecond = (long)(m_GcPauseNs / seconds);
+        m_LastMaxGcPauseNs = m_MaxGcPauseNs;
+        m_AllocatedBytes = 0;
+        m_GcPauseNs = 0;
+        m_MaxGcPauseNs = 0;
+    }
+}
@@ -0,0 +1,28 @@
+//
+// Snake Game
+// https://en.wikipedia.org/wiki/Snake_(video_game_genre)
+//
+// Based on the 1976 arcade game Blockade, and the 1991 game Nibbles
+// https://en.wikipedia.org/wiki/Blockade_(video_game)
+// https://en.wikipedia.org/wiki/Nibbles_(video_game)
+//
+// This implementation is Copyright (c) 2021, Damian Coventry
+// All rights reserved
+// Written for Massey University course 159.261 Game Programming (Assignment 1)
+//
+
+package com.snakegame.profiling;
+
+import jdk.jfr.*;
+
+@Name("com.snakegame.LevelLoad")
+@Label("Level Load")
+@Category({"Snake Game", "Loading"})
+@Description("A level file was read and its game field was built")
+public class LevelLoadEvent extends Event {
+    @Label("File Name")
+    public String m_FileName;
+
+    @Label("Level")
+    public int m_Level;
+}
@@ -0,0 +1,64 @@
+//
+// Snake Game
+// https://en.wikipedia.org/wiki/Snake_(video_game_genre)
+//
+// Based on the 1976 arcade game Blockade, and the 1991 game Nibbles
+// https://en.wikipedia.org/wiki/Blockade_(video_game)
+// https://en.wikipedia.org/wiki/Nibbles_(video_game)
+//
+// This implementation is Copyright (c) 2021, Damian Coventry
+// All rights reserved
+// Written for Massey University course 159.261 Game Programming (Assignment 1)
+//
+
+package com.snakegame.profiling;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * This class holds the engine's counters and gauges. A counter is a running total that's turned into a per second
+ * rate by endInterval(), and a gauge is a value that's set whenever it's sampled. The values are kept within arrays
+ * indexed by the enums, so recording one never allocates. The counters are atomic, because the simulation and loader
+ * threads add to them while the main thread reads and resets them. The gauges and the per second rates are only
+ * written and read by the main thread.
+ * */
+public final class Metrics {
+    public enum Counter { DRAW_CALLS, PROGRAM_BINDS, UNIFORM_UPLOADS, TEXTURE_BINDS, VBO_BYTES, TEXTURE_BYTES, RULES_TICKS }
+    public enum Gauge { RIGID_BODIES, ACTIVE_TIMEOUTS, SNAKE_1_LENGTH, SNAKE_2_LENGTH, GL_OBJECTS, GL_BYTES, BULLET_THREADS }
+
+    private static final AtomicLongArray s_Counters = new AtomicLongArray(Counter.values().length);
+    private static final long[] s_PerSecond = new long[Counter.values().length];
+    private static final long[] s_Gauges = new long[Gauge.values().length];
+
+    private Metrics() {
+        // No work to do
+    }
+
+    public static void increment(Counter counter) {
+        s_Counters.incrementAndGet(counter.ordinal());
+    }
+
+    public static void add(Counter counter, long amount) {
+        s_Counters.addAndGet(counter.ordinal(), amount);
+    }
+
+    public static void set(Gauge gauge, long value) {
+        s_Gauges[gauge.ordinal()] = value;
+    }
+
+    public static long getPerSecond(Counter counter) {
+        return s_PerSecond[counter.ordinal()];
+    }
+
+    public static long get(Gauge gauge) {
+        return s_Gauges[gauge.ordinal()];
+    }
+
+    // Call this about once a second, the counters are reset to count the next interval
+    public static void endInterval(double seconds) {
+        for (int i = 0; i < s_Counters.length(); ++i) {
+            // Taking the count and resetting it at once doesn't lose an add made by another thread in between
+            s_PerSecond[i] = (long)(s_Counters.getAndSet(i, 0) / seconds);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+//
+// Snake Game
+// https://en.wikipedia.org/wiki/Snake_(video_game_genre)
+//
+// Based on the 1976 arcade game Blockade, and the 1991 game Nibbles
+// https://en.wikipedia.org/wiki/Blockade_(video_game)
+// https://en.wikipedia.org/wiki/Nibbles_(video_game)
+//
+// This implementation is Copyright (c) 2021, Damian Coventry
+// All rights reserved
+// Written for Massey University course 159.261 Game Programming (Assignment 1)
+//
+
+package com.snakegame.profiling;
+
+import jdk.jfr.*;
+
+@Name("com.snakegame.TimeoutDispatch")
+@Label("Timeout Dispatch")
+@Category({"Snake Game", "Application"})
+@Description("A TimeoutManager callback was called")
+public class TimeoutDispatchEvent extends Event {
+    @Label("Timeout")
+    @Timespan(Timespan.MILLISECONDS)
+    public long m_TimeoutMs;
+
+    @Label("Call Count")
+    public int m_CallCount;
+
+    @Label("Keep Calling")
+    public boolean m_KeepCalling;
+}
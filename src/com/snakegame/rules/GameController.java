@@ -15,6 +15,8 @@ package com.snakegame.rules;
 
 import com.snakegame.application.*;
 import com.snakegame.client.*;
+import com.snakegame.profiling.LevelLoadEvent;
+import com.snakegame.profiling.Metrics;
 
 import java.io.*;
 import java.util.*;
@@ -32,6 +34,11 @@ public class GameController implements IGameController {
     private static final long s_InsertWallsTimeoutMs = 12000;
 
     private final IAppStateContext m_Context;
+    private final SimulationWorker m_Simulation;
+    private final SnapshotBuffer<RulesSnapshot> m_Snapshots;
+    private final RulesSnapshot m_LiveSnapshot;
+    private final GameEventQueue m_Events;
+    private final TimingHistogram m_InputLatency;
     private final Random m_Rng;
 
     private ArrayList<String> m_LevelFileNames;
@@ -47,15 +54,21 @@ public class GameController implements IGameController {
     private int m_WallsTimeoutId;
     private int m_CurrentLevel;
 
-    public GameController(IAppStateContext context) {
+    public GameController(IAppStateContext context, Random rng) {
         m_Context = context;
-        m_Rng = new Random();
+        m_Simulation = context.getSimulationWorker();
+        m_Snapshots = new SnapshotBuffer<>(RulesSnapshot::new);
+        m_LiveSnapshot = new RulesSnapshot();
+        m_Events = new GameEventQueue();
+        m_InputLatency = new TimingHistogram();
+        m_Rng = rng;
         m_Mode = Mode.SINGLE_PLAYER; // startNewGame() will change this
         m_Snakes = null; // startNewGame() will allocate this
         m_CurrentLevel = 0;
         m_SnakeTimeoutId = 0;
         m_PowerUpTimeoutId = 0;
         discoverLevelFiles();
+        m_Simulation.addTickListener(this::publishSnapshot);
     }
 
     @Override
@@ -73,6 +86,25 @@ public class GameController implements IGameController {
         return m_Snakes;
     }
 
+    @Override
+    public GameEventQueue getEvents() {
+        return m_Events;
+    }
+
+    @Override
+    public TimingHistogram getInputLatency() {
+        return m_InputLatency;
+    }
+
+    @Override
+    public RulesSnapshot getRenderSnapshot() {
+        if (m_Simulation.isPaused()) {
+            m_LiveSnapshot.referTo(m_GameField, m_Snakes);
+            return m_LiveSnapshot;
+        }
+        return m_Snapshots.getLatest();
+    }
+
     @Override
     public SubtractSnakeResult subtractSnake(int player) {
         if (player < 0 || player > s_MaxPlayers - 1) {
@@ -109,9 +141,9 @@ public class GameController implements IGameController {
         Vector2i maxBounds = new Vector2i(GameField.WIDTH - 1, GameField.HEIGHT - 1);
 
         m_Snakes = new Snake[m_Mode == Mode.TWO_PLAYERS ? 2 : 1];
-        m_Snakes[0] = new Snake(0, m_Context.getView(), Snake.Direction.Right, minBounds, maxBounds);
+        m_Snakes[0] = new Snake(0, m_Events, Snake.Direction.Right, minBounds, maxBounds);
         if (m_Mode == Mode.TWO_PLAYERS) {
-            m_Snakes[1] = new Snake(1, m_Context.getView(), Snake.Direction.Left, minBounds, maxBounds);
+            m_Snakes[1] = new Snake(1, m_Events, Snake.Direction.Left, minBounds, maxBounds);
         }
 
         loadLevelFile(m_CurrentLevel);
@@ -140,10 +172,18 @@ public class GameController implements IGameController {
         scheduleSnakeMovement();
         scheduleInsertPowerUp(s_PowerUpInitialTimeoutMs);
         scheduleInsertWalls();
+        // The simulation thread takes over the writer's end of the snapshot buffer once it's resumed
+        publishSnapshot(nowMs);
+        m_Simulation.resume();
     }
 
     @Override
     public void stop(long nowMs) {
+        m_Simulation.pause();
+        // Like the key presses that haven't reached the simulation yet, the turns that haven't been taken are dropped
+        for (var snake : m_Snakes) {
+            snake.clearQueuedDirections();
+        }
         removeSnakeMovementTimeout();
         removePowerUpTimeout();
         removeWallsTimeout();
@@ -154,6 +194,18 @@ public class GameController implements IGameController {
         // No work to do
     }
 
+    private void publishSnapshot(long nowMs) {
+        m_Snapshots.getBack().copyFrom(m_GameField, m_Snakes);
+        m_Snapshots.publish();
+    }
+
+    // Called on the simulation thread. It stops ticking straight away, and the main thread changes state when it
+    // drains the event.
+    private void snakeDied(int player) {
+        m_Simulation.requestPause();
+        m_Events.publishSnakeDied(player);
+    }
+
     private void discoverLevelFiles() {
         m_LevelFileNames = new ArrayList<>();
         File directory = new File("levels");
@@ -185,7 +237,12 @@ public class GameController implements IGameController {
     }
 
     private void loadLevelFile(int level) throws IOException {
-        GameFieldFile file = new GameFieldFile("levels/" + m_LevelFileNames.get(level), m_Mode == Mode.TWO_PLAYERS);
+        LevelLoadEvent event = new LevelLoadEvent();
+        event.begin();
+
+        String fileName = "levels/" + m_LevelFileNames.get(level);
+        String levelText = m_Context.getAssetPack().readText(fileName);
+        GameFieldFile file = new GameFieldFile(new StringReader(levelText), m_Mode == Mode.TWO_PLAYERS);
         m_GameField = file.getGameField();
 
         moveSnakesToNewStartPositions();
@@ -193,6 +250,10 @@ public class GameController implements IGameController {
         insertNumber(Number.Type.NUM_1);
 
         m_Context.getView().setAppStateContext(m_Context);
+
+        event.m_FileName = fileName;
+        event.m_Level = level;
+        event.commit();
     }
 
     private void setSnakeMovementSpeedForCurrentLevel() {
@@ -209,15 +270,16 @@ public class GameController implements IGameController {
     }
 
     private void scheduleSnakeMovement() {
-        m_SnakeTimeoutId = m_Context.addTimeout(m_SnakeTimeoutMs, (callCount) -> {
+        m_SnakeTimeoutId = m_Simulation.addTimeout(m_SnakeTimeoutMs, (callCount) -> {
+            Metrics.increment(Metrics.Counter.RULES_TICKS);
             moveSnakesForwards();
             CollisionResult r = performCollisionDetection();
             if (r.collisionOccurred()) {
                 if (r.getResult() == CollisionResult.Result.BOTH_SNAKES) {
-                    m_Context.changeState(new SnakeDyingAppState(m_Context));
+                    snakeDied(GameEventQueue.s_BothPlayers);
                 }
                 else {
-                    m_Context.changeState(new SnakeDyingAppState(m_Context, r.getPlayer()));
+                    snakeDied(r.getPlayer());
                 }
             }
             return TimeoutManager.CallbackResult.KEEP_CALLING;
@@ -231,7 +293,7 @@ public class GameController implements IGameController {
 
     private void scheduleInsertPowerUp(long timeoutMs) {
         removePowerUpTimeout();
-        m_PowerUpTimeoutId = m_Context.addTimeout(timeoutMs, (callCount) -> {
+        m_PowerUpTimeoutId = m_Simulation.addTimeout(timeoutMs, (callCount) -> {
             insertRandomPowerUp();
             return TimeoutManager.CallbackResult.REMOVE_THIS_CALLBACK;
         });
@@ -306,7 +368,7 @@ public class GameController implements IGameController {
 
     private void scheduleExpirePowerUp() {
         removePowerUpTimeout();
-        m_PowerUpTimeoutId = m_Context.addTimeout(s_PowerUpExpireTimeoutMs, (callCount1) -> {
+        m_PowerUpTimeoutId = m_Simulation.addTimeout(s_PowerUpExpireTimeoutMs, (callCount1) -> {
             if (m_PowerUp != null) {
                 m_GameField.removePowerUp(m_PowerUp);
                 m_PowerUp = null;
@@ -318,7 +380,7 @@ public class GameController implements IGameController {
 
     private void scheduleInsertWalls() {
         removeWallsTimeout();
-        m_WallsTimeoutId = m_Context.addTimeout(s_InsertWallsTimeoutMs, (callCount1) -> {
+        m_WallsTimeoutId = m_Simulation.addTimeout(s_InsertWallsTimeoutMs, (callCount1) -> {
             insertWalls();
             return TimeoutManager.CallbackResult.KEEP_CALLING;
         });
@@ -350,28 +412,28 @@ public class GameController implements IGameController {
 
     private void removeWallsTimeout() {
         if (m_WallsTimeoutId != 0) {
-            m_Context.removeTimeout(m_WallsTimeoutId);
+            m_Simulation.removeTimeout(m_WallsTimeoutId);
             m_WallsTimeoutId = 0;
         }
     }
 
     private void removeSnakeMovementTimeout() {
         if (m_SnakeTimeoutId != 0) {
-            m_Context.removeTimeout(m_SnakeTimeoutId);
+            m_Simulation.removeTimeout(m_SnakeTimeoutId);
             m_SnakeTimeoutId = 0;
         }
     }
 
     private void removePowerUpTimeout() {
         if (m_PowerUpTimeoutId != 0) {
-            m_Context.removeTimeout(m_PowerUpTimeoutId);
+            m_Simulation.removeTimeout(m_PowerUpTimeoutId);
             m_PowerUpTimeoutId = 0;
         }
     }
 
     private void moveSnakesForwards() {
         for (var snake : m_Snakes) {
-            snake.moveForwards();
+            snake.moveForwards(m_InputLatency);
         }
     }
 
@@ -506,7 +568,8 @@ public class GameController implements IGameController {
 
         Number.Result r = Number.getNextInSeries(numberType);
         if (r.m_LevelComplete) {
-            m_Context.changeState(new LevelCompleteAppState(m_Context));
+            m_Simulation.requestPause();
+            m_Events.publishLevelComplete();
         }
         else {
             insertNumber(r.m_Type);
@@ -539,7 +602,7 @@ public class GameController implements IGameController {
 
         if (scheduleNext) {
             scheduleInsertPowerUp(s_PowerUpSubsequentTimeoutMs);
-            m_Context.getView().startPowerUpAnimation(snake.getId(), powerUpType);
+            m_Events.publishPowerUpTaken(snake.getId(), powerUpType);
         }
     }
 
@@ -0,0 +1,129 @@
+//
+// Snake Game
+// https://en.wikipedia.org/wiki/Snake_(video_game_genre)
+//
+// Based on the 1976 arcade game Blockade, and the 1991 game Nibbles
+// https://en.wikipedia.org/wiki/Blockade_(video_game)
+// https://en.wikipedia.org/wiki/Nibbles_(video_game)
+//
+// This implementation is Copyright (c) 2021, Damian Coventry
+// All rights reserved
+// Written for Massey University course 159.261 Game Programming (Assignment 1)
+//
+
+package com.snakegame.rules;
+
+/**
+ * This class carries the events the rules raise, e.g. a score changing or a snake dying, to the main thread, where
+ * the view and the app states react to them. It's a ring buffer with a single producer and a single consumer: the
+ * simulation thread publishes while it's running, or else the main thread does while the simulation is paused, and
+ * the main thread drains the events once per tick. Each event lives in a slot of a set of parallel arrays that are
+ * allocated once, so publishing and draining events never allocate. If the main thread stalls long enough for the
+ * queue to fill, the events that only start animations are dropped. A few slots are kept for the events that change
+ * the app state, and the rules pause after raising one of those, so they're never dropped.
+ * */
+public class GameEventQueue {
+    public enum Type { SCORE_CHANGED, LIVES_CHANGED, POWER_UP_TAKEN, SNAKE_DIED, LEVEL_COMPLETE }
+
+    // This must be a power of two
+    private static final int s_Capacity = 256;
+    private static final int s_IndexMask = s_Capacity - 1;
+    // Only SNAKE_DIED and LEVEL_COMPLETE may use these slots
+    private static final int s_NumReservedSlots = 4;
+    // The player of a SNAKE_DIED event when both snakes died at once
+    public static final int s_BothPlayers = -1;
+
+    // Indexed by slot
+    private final Type[] m_Types;
+    private final int[] m_Players;
+    private final boolean[] m_Increased;
+    private final PowerUp.Type[] m_PowerUpTypes;
+
+    // The producer only writes m_Head and the consumer only writes m_Tail
+    private volatile long m_Head;
+    private volatile long m_Tail;
+    private boolean m_Reading;
+
+    public GameEventQueue() {
+        m_Types = new Type[s_Capacity];
+        m_Players = new int[s_Capacity];
+        m_Increased = new boolean[s_Capacity];
+        m_PowerUpTypes = new PowerUp.Type[s_Capacity];
+        m_Head = 0;
+        m_Tail = 0;
+        m_Reading = false;
+    }
+
+    public void publishScoreChanged(int player, boolean increased) {
+        publish(Type.SCORE_CHANGED, player, increased, null, s_Capacity - s_NumReservedSlots);
+    }
+
+    public void publishLivesChanged(int player, boolean increased) {
+        publish(Type.LIVES_CHANGED, player, increased, null, s_Capacity - s_NumReservedSlots);
+    }
+
+    public void publishPowerUpTaken(int player, PowerUp.Type powerUpType) {
+        publish(Type.POWER_UP_TAKEN, player, false, powerUpType, s_Capacity - s_NumReservedSlots);
+    }
+
+    public void publishSnakeDied(int player) {
+        publish(Type.SNAKE_DIED, player, false, null, s_Capacity);
+    }
+
+    public void publishLevelComplete() {
+        publish(Type.LEVEL_COMPLETE, s_BothPlayers, false, null, s_Capacity);
+    }
+
+    // Only the main thread may call the methods below. next() moves on to the next event and returns false once
+    // there are none left, and the getters describe the event it moved on to.
+    public boolean next() {
+        if (m_Reading) {
+            // The slot goes back to the producer once the consumer has finished reading it
+            m_Tail = m_Tail + 1;
+            m_Reading = false;
+        }
+        if (m_Tail == m_Head) {
+            return false;
+        }
+        m_Reading = true;
+        return true;
+    }
+
+    public Type getType() {
+        return m_Types[getReadIndex()];
+    }
+
+    public int getPlayer() {
+        return m_Players[getReadIndex()];
+    }
+
+    public boolean isIncreased() {
+        return m_Increased[getReadIndex()];
+    }
+
+    public PowerUp.Type getPowerUpType() {
+        return m_PowerUpTypes[getReadIndex()];
+    }
+
+    private int getReadIndex() {
+        if (!m_Reading) {
+            throw new RuntimeException("There's no event to read, call next() first");
+        }
+        return (int)(m_Tail & s_IndexMask);
+    }
+
+    // The event is dropped rather than published if the queue already holds the given number of events
+    private void publish(Type type, int player, boolean increased, PowerUp.Type powerUpType, int maxQueued) {
+        long head = m_Head;
+        if (head - m_Tail >= maxQueued) {
+            return;
+        }
+        int i = (int)(head & s_IndexMask);
+        m_Types[i] = type;
+        m_Players[i] = player;
+        m_Increased[i] = increased;
+        m_PowerUpTypes[i] = powerUpType;
+        // Writing the head last makes the slot's contents visible to the consumer before the slot itself
+        m_Head = head + 1;
+    }
+}
@@ -78,6 +78,21 @@ public class GameField {
         EMPTY, WALL, POWER_UP, NUMBER
     }
 
+    // Reuses this field's cells, so copying into the same field again doesn't allocate
+    public void copyFrom(GameField other) {
+        for (int i = 0; i < TOTAL_CELLS; ++i) {
+            CellInfo source = other.m_CellInfo[i];
+            if (m_CellInfo[i] == null) {
+                m_CellInfo[i] = new CellInfo(source.m_CellType);
+            }
+            m_CellInfo[i].m_CellType = source.m_CellType;
+            m_CellInfo[i].m_PowerUp = source.m_PowerUp;
+            m_CellInfo[i].m_Number = source.m_Number;
+        }
+        m_Player1Start = other.m_Player1Start;
+        m_Player2Start = other.m_Player2Start;
+    }
+
     public Vector2i getPlayer1Start() {
         if (m_Player1Start == null) {
             throw new RuntimeException("Player 1 start position has not been set");
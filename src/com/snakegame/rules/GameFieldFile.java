@@ -19,9 +19,12 @@ public class GameFieldFile {
     private final GameField m_GameField;
 
     public GameFieldFile(String fileName, boolean requirePlayer2) throws IOException {
+        this(new FileReader(fileName), requirePlayer2);
+    }
+
+    public GameFieldFile(Reader reader, boolean requirePlayer2) throws IOException {
         m_GameField = new GameField();
-        BufferedReader reader = new BufferedReader(new FileReader(fileName));
-        readGameField(reader, requirePlayer2);
+        readGameField(new BufferedReader(reader), requirePlayer2);
     }
 
     public GameField getGameField() {
@@ -13,6 +13,8 @@
 
 package com.snakegame.rules;
 
+import com.snakegame.client.TimingHistogram;
+
 import java.io.IOException;
 
 // https://en.wikipedia.org/wiki/Model%E2%80%93view%E2%80%93controller
@@ -21,8 +23,16 @@ public interface IGameController {
     enum SubtractSnakeResult { SNAKE_AVAILABLE, NO_SNAKES_REMAIN }
 
     Mode getMode();
+    // The rules' own state, only for the simulation thread, or for any thread while the simulation is paused
     GameField getGameField();
     Snake[] getSnakes();
+    // Only the main thread may drain these
+    GameEventQueue getEvents();
+    // For the main thread to draw from. The returned snapshot stays valid until the next call, so there can only be
+    // one caller, the view. See IGameView.getRulesSnapshot().
+    RulesSnapshot getRenderSnapshot();
+    // The time from a key press until the snake turns, recorded by the rules, so only read it while they're paused
+    TimingHistogram getInputLatency();
     SubtractSnakeResult subtractSnake(int player);
 
     boolean isLastLevel();
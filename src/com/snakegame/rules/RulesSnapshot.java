@@ -0,0 +1,71 @@
+//
+// Snake Game
+// https://en.wikipedia.org/wiki/Snake_(video_game_genre)
+//
+// Based on the 1976 arcade game Blockade, and the 1991 game Nibbles
+// https://en.wikipedia.org/wiki/Blockade_(video_game)
+// https://en.wikipedia.org/wiki/Nibbles_(video_game)
+//
+// This implementation is Copyright (c) 2021, Damian Coventry
+// All rights reserved
+// Written for Massey University course 159.261 Game Programming (Assignment 1)
+//
+
+package com.snakegame.rules;
+
+/**
+ * This class holds the rules' state that the view draws: the game field's cells and the snakes, which include their
+ * lives and points. While the simulation is running the controller publishes a copy of its state within one of these
+ * after each tick. While it's paused the controller hands out one that refers to its own state instead.
+ * */
+public class RulesSnapshot {
+    private GameField m_GameField;
+    private Snake[] m_Snakes;
+
+    public RulesSnapshot() {
+        m_GameField = null;
+        m_Snakes = null;
+    }
+
+    public GameField getGameField() {
+        return m_GameField;
+    }
+
+    public Snake[] getSnakes() {
+        return m_Snakes;
+    }
+
+    // A snapshot that's been referred to the controller's own state mustn't be copied into, nor the other way around
+    public void referTo(GameField gameField, Snake[] snakes) {
+        m_GameField = gameField;
+        m_Snakes = snakes;
+    }
+
+    // Reuses the previous copy's objects where it can, so copying doesn't allocate once a level is underway
+    public void copyFrom(GameField gameField, Snake[] snakes) {
+        if (gameField == null) {
+            m_GameField = null;
+        }
+        else {
+            if (m_GameField == null) {
+                m_GameField = new GameField();
+            }
+            m_GameField.copyFrom(gameField);
+        }
+
+        if (snakes == null) {
+            m_Snakes = null;
+        }
+        else if (m_Snakes == null || m_Snakes.length != snakes.length) {
+            m_Snakes = new Snake[snakes.length];
+            for (int i = 0; i < snakes.length; ++i) {
+                m_Snakes[i] = new Snake(snakes[i]);
+            }
+        }
+        else {
+            for (int i = 0; i < snakes.length; ++i) {
+                m_Snakes[i].copyFrom(snakes[i]);
+            }
+        }
+    }
+}
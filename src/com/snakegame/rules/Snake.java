@@ -13,8 +13,7 @@
 
 package com.snakegame.rules;
 
-import com.snakegame.client.IGameView;
-import org.joml.Vector4f;
+import com.snakegame.client.TimingHistogram;
 
 import java.util.LinkedList;
 
@@ -26,6 +25,8 @@ public class Snake {
     private static final int s_NumBodyPartsToRemove = 3;
     public static final long s_PowerUpPointsBonus = 1000;
     private static final long s_PowerUpPoints = 100;
+    // Enough for a quick U-turn plus one more, any further key presses before the snake moves are dropped
+    private static final int s_MaxQueuedDirections = 3;
 
     public static class BodyPart {
         public Direction m_LeavingCellDirection;
@@ -58,34 +59,69 @@ public class Snake {
     private final Vector2i m_MaxBounds;
     private final Direction m_StartDirection;
     private final int m_Id;
-    private final IGameView m_GameView;
-
-    private final Vector4f s_Red = new Vector4f(1.0f, 0.0f, 0.0f, 1.0f);
-    private final Vector4f s_Green = new Vector4f(0.0f, 1.0f, 0.0f, 1.0f);
+    private final GameEventQueue m_Events;
 
     private Vector2i m_StartPosition = null;
     private Direction m_CurrentDirection;
-    private Vector2i m_LastDirectionChangeCell;
+    // A ring buffer of the direction changes that are waiting for the snake to move, one is applied per move
+    private final Direction[] m_QueuedDirections;
+    private final long[] m_QueuedInputNs;
+    private int m_FirstQueued;
+    private int m_NumQueued;
     private int m_NumLives;
     private int m_AddBodyParts;
     private int m_RemoveBodyParts;
     private long m_Points;
     private boolean m_Alive;
 
-    public Snake(int id, IGameView gameView, Direction startDirection, Vector2i minBounds, Vector2i maxBounds) {
+    public Snake(int id, GameEventQueue events, Direction startDirection, Vector2i minBounds, Vector2i maxBounds) {
         m_Id = id;
-        m_GameView = gameView;
+        m_Events = events;
         m_StartDirection = startDirection;
         m_BodyParts = new LinkedList<>();
         m_MinBounds = minBounds;
         m_MaxBounds = maxBounds;
+        m_QueuedDirections = new Direction[s_MaxQueuedDirections];
+        m_QueuedInputNs = new long[s_MaxQueuedDirections];
+        m_FirstQueued = 0;
+        m_NumQueued = 0;
         m_NumLives = s_NumStartingLives - 1; // Allocate a life immediately
         m_Alive = true;
     }
 
+    // Creates a copy to hold a snapshot of the other snake. The copy has no event queue, so it mustn't be changed except
+    // by copyFrom().
+    public Snake(Snake other) {
+        this(other.m_Id, null, other.m_StartDirection, other.m_MinBounds, other.m_MaxBounds);
+        copyFrom(other);
+    }
+
+    // Reuses this snake's body parts. The locations are shared, they're never changed once they've been created. The
+    // queued direction changes aren't copied, only the rules use them.
+    public void copyFrom(Snake other) {
+        while (m_BodyParts.size() > other.m_BodyParts.size()) {
+            m_BodyParts.removeLast();
+        }
+        while (m_BodyParts.size() < other.m_BodyParts.size()) {
+            m_BodyParts.add(new BodyPart(null, null));
+        }
+        var source = other.m_BodyParts.iterator();
+        for (var bodyPart : m_BodyParts) {
+            var sourceBodyPart = source.next();
+            bodyPart.m_LeavingCellDirection = sourceBodyPart.m_LeavingCellDirection;
+            bodyPart.m_Location = sourceBodyPart.m_Location;
+        }
+        m_StartPosition = other.m_StartPosition;
+        m_CurrentDirection = other.m_CurrentDirection;
+        m_NumLives = other.m_NumLives;
+        m_AddBodyParts = other.m_AddBodyParts;
+        m_RemoveBodyParts = other.m_RemoveBodyParts;
+        m_Points = other.m_Points;
+        m_Alive = other.m_Alive;
+    }
+
     public void setStartPosition(Vector2i startPosition) {
         m_StartPosition = startPosition;
-        m_LastDirectionChangeCell = startPosition.createCopy();
     }
 
     public int getId() {
@@ -105,11 +141,11 @@ public class Snake {
         }
         m_AddBodyParts = m_RemoveBodyParts = 0;
         m_CurrentDirection = m_StartDirection;
+        clearQueuedDirections();
         m_Alive = true;
 
         Vector2i movementDelta = getMovementDelta(getOppositeDirection(m_StartDirection));
         Vector2i currentPosition = m_StartPosition.createCopy();
-        m_LastDirectionChangeCell = m_StartPosition.createCopy();
 
         m_BodyParts.clear();
         for (int i = 0; i < s_MinBodyParts; ++i) {
@@ -126,14 +162,14 @@ public class Snake {
     public void incrementLives() {
         if (m_NumLives < s_MaxNumLives) {
             ++m_NumLives;
-            m_GameView.startRemainingSnakesAnimation(m_Id, s_Green);
+            m_Events.publishLivesChanged(m_Id, true);
         }
     }
 
     public void decrementLives() {
         if (m_NumLives > 0) {
             --m_NumLives;
-            m_GameView.startRemainingSnakesAnimation(m_Id, s_Red);
+            m_Events.publishLivesChanged(m_Id, false);
         }
     }
 
@@ -144,14 +180,14 @@ public class Snake {
     public void incrementPoints(long points) {
         if (points > 0) {
             m_Points += points;
-            m_GameView.startScoreAnimation(m_Id, s_Green);
+            m_Events.publishScoreChanged(m_Id, true);
         }
     }
 
     public void decrementPoints(long points) {
         if (points > 0) {
             m_Points = Math.max(0, m_Points - points);
-            m_GameView.startScoreAnimation(m_Id, s_Red);
+            m_Events.publishScoreChanged(m_Id, false);
         }
     }
 
@@ -193,7 +229,15 @@ public class Snake {
         }
     }
 
-    public void moveForwards() {
+    // The time from each applied direction change's key press until this move is recorded within the histogram
+    public void moveForwards(TimingHistogram inputLatency) {
+        if (m_NumQueued > 0) {
+            m_CurrentDirection = m_QueuedDirections[m_FirstQueued];
+            inputLatency.record(System.nanoTime() - m_QueuedInputNs[m_FirstQueued]);
+            m_FirstQueued = (m_FirstQueued + 1) % s_MaxQueuedDirections;
+            --m_NumQueued;
+        }
+
         Vector2i movementDelta = getMovementDelta(m_CurrentDirection);
         m_BodyParts.getFirst().m_LeavingCellDirection = m_CurrentDirection;
         m_BodyParts.push(new BodyPart(m_CurrentDirection, m_BodyParts.getFirst().m_Location.add(movementDelta)));
@@ -234,12 +278,28 @@ public class Snake {
     public Direction getDirection() {
         return m_CurrentDirection;
     }
-    public void setDirection(Direction direction) {
-        // Prevent more than one direction change per cell
-        if (m_LastDirectionChangeCell.notEquals(m_BodyParts.getFirst().m_Location)) {
-            m_CurrentDirection = direction;
-            m_LastDirectionChangeCell = m_BodyParts.getFirst().m_Location.createCopy();
+
+    // Queues a change of direction for the snake's next move, so that key presses between two moves aren't lost. The
+    // snake can only turn left or right of the direction it'll be heading in by then. Returns false when the change is
+    // ignored for that reason, or because the queue is full.
+    public boolean queueDirection(Direction direction, long inputNs) {
+        if (m_NumQueued == s_MaxQueuedDirections) {
+            return false;
         }
+        Direction heading = m_NumQueued == 0 ? m_CurrentDirection :
+                m_QueuedDirections[(m_FirstQueued + m_NumQueued - 1) % s_MaxQueuedDirections];
+        if (direction == heading || direction == getOppositeDirection(heading)) {
+            return false;
+        }
+        int i = (m_FirstQueued + m_NumQueued) % s_MaxQueuedDirections;
+        m_QueuedDirections[i] = direction;
+        m_QueuedInputNs[i] = inputNs;
+        ++m_NumQueued;
+        return true;
+    }
+
+    public void clearQueuedDirections() {
+        m_FirstQueued = m_NumQueued = 0;
     }
 
     public LinkedList<BodyPart> getBodyParts() {